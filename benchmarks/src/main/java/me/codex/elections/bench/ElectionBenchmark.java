@@ -0,0 +1,89 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.model.Election;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ballot intake and tally reads on an election of {@code ballots} voters. The tally reads are
+ * what the scoreboard and {@code /elections status} hit on every refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ElectionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int ballots;
+
+    @Param({"2", "10", "50"})
+    public int nominees;
+
+    private UUID[] players;
+    private List<UUID> candidates;
+    private Election election;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        players = Fixtures.players(ballots);
+        election = Fixtures.election(players, nominees, ballots);
+        candidates = List.copyOf(election.getNominees());
+        random = new SplittableRandom(Fixtures.SEED);
+    }
+
+    /**
+     * An existing voter switches to a random nominee, which moves one tally between
+     * candidates; the common case once an election is underway.
+     */
+    @Benchmark
+    public UUID changeVote() {
+        UUID voter = players[random.nextInt(ballots)];
+        return election.castVote(voter, candidates.get(random.nextInt(nominees)));
+    }
+
+    @Benchmark
+    public Map<UUID, Long> voteCounts() {
+        return election.getVoteCounts();
+    }
+
+    @Benchmark
+    public List<UUID> leaders() {
+        return election.getLeaders();
+    }
+
+    @Benchmark
+    public void voteLookup(Blackhole bh) {
+        bh.consume(election.getVote(players[random.nextInt(ballots)]));
+    }
+
+    /**
+     * Walks every ballot through the map view, as the state snapshot does.
+     */
+    @Benchmark
+    public void iterateVotes(Blackhole bh) {
+        for (Map.Entry<UUID, UUID> entry : election.getVotes().entrySet()) {
+            bh.consume(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.config.Settings;
+import me.codex.elections.model.Election;
+import me.codex.elections.service.ElectionManager;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic players and elections shared by the benchmarks, so runs are comparable.
+ */
+final class Fixtures {
+
+    static final long SEED = 0x5EED_E1EC7L;
+
+    private Fixtures() {
+    }
+
+    static UUID[] players(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        UUID[] players = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            players[i] = new UUID(random.nextLong(), random.nextLong() | 1L);
+        }
+        return players;
+    }
+
+    /**
+     * @return an active election where the first {@code nominees} players are nominated and
+     * the first {@code ballots} players have voted for a random nominee
+     */
+    static Election election(UUID[] players, int nominees, int ballots) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Election election = new Election("Mayor", Instant.now().plus(Duration.ofDays(1)));
+        List<UUID> list = new ArrayList<>(nominees);
+        for (int i = 0; i < nominees; i++) {
+            list.add(players[i]);
+        }
+        election.setNominees(list);
+        for (int i = 0; i < ballots; i++) {
+            election.castVote(players[i], list.get(random.nextInt(nominees)));
+        }
+        return election;
+    }
+
+    /**
+     * @return an active election where the first {@code nominees} players are nominated and
+     * the first {@code ballots} players each rank, approve or (in score elections) randomly score
+     * between one and {@code depth} distinct random nominees
+     */
+    static Election rankedElection(UUID[] players, Election.Method method, int seats, int nominees, int ballots,
+                                   int depth) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Election election = new Election("Council", Instant.now().plus(Duration.ofDays(1)), Election.Type.REGULAR,
+                method, seats);
+        List<UUID> list = new ArrayList<>(nominees);
+        for (int i = 0; i < nominees; i++) {
+            list.add(players[i]);
+        }
+        election.setNominees(list);
+        int[] order = new int[nominees];
+        for (int i = 0; i < nominees; i++) {
+            order[i] = i;
+        }
+        List<UUID> ranking = new ArrayList<>(depth);
+        for (int i = 0; i < ballots; i++) {
+            int length = 1 + random.nextInt(Math.min(depth, nominees));
+            ranking.clear();
+            for (int r = 0; r < length; r++) {
+                int pick = r + random.nextInt(nominees - r);
+                int swap = order[r];
+                order[r] = order[pick];
+                order[pick] = swap;
+                ranking.add(list.get(order[r]));
+            }
+            if (method == Election.Method.SCORE) {
+                Map<UUID, Integer> scores = new LinkedHashMap<>();
+                ranking.forEach(candidate -> scores.put(candidate, random.nextInt(Election.MAX_SCORE + 1)));
+                election.castMarks(players[i], scores);
+            } else {
+                election.castRanking(players[i], ranking);
+            }
+        }
+        return election;
+    }
+
+    /**
+     * @return settings for the services under test: no playtime requirement, no journal and
+     * state written in {@code format}
+     */
+    static Settings settings(String format) {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("voting.required-playtime-hours", 0);
+        config.set("voting.intake-capacity", 1_000_000);
+        config.set("persistence.journal.enabled", false);
+        config.set("state.format", format);
+        return Settings.load(config);
+    }
+
+    /**
+     * Starts a "Mayor" election through {@code manager}, nominates the first {@code nominees}
+     * players and has the first {@code ballots} players vote for a random nominee.
+     *
+     * @return the election's id
+     */
+    static String populate(ElectionManager manager, UUID[] players, int nominees, int ballots) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        manager.createElection("Mayor", Duration.ofDays(1));
+        String id = Election.idFor("Mayor", Election.Type.REGULAR);
+        for (int i = 0; i < nominees; i++) {
+            manager.nominate(id, null, true, players[i]);
+        }
+        for (int i = 0; i < ballots; i++) {
+            manager.vote(id, players[i], List.of(players[random.nextInt(nominees)]));
+        }
+        manager.flushVotes();
+        return id;
+    }
+
+    static List<String> names(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder(12);
+            int length = 3 + random.nextInt(10);
+            for (int c = 0; c < length; c++) {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+            names.add(name.append(i).toString());
+        }
+        return names;
+    }
+}
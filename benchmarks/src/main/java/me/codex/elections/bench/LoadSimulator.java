@@ -0,0 +1,315 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.config.Settings;
+import me.codex.elections.model.Election;
+import me.codex.elections.model.ElectionRegistry;
+import me.codex.elections.service.CompletionIndex;
+import me.codex.elections.service.ElectionManager;
+import me.codex.elections.service.NameCache;
+import me.codex.elections.service.ScoreboardService;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Drives the real election services on a {@link SimulatedPlatform}: synthetic players join,
+ * quit, go AFK and vote while the virtual server ticks. Reports ballot throughput, how long
+ * {@code /vote} takes to return and until the ballot is counted, and the time and allocation
+ * of each simulated tick.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar me.codex.elections.bench.LoadSimulator players=5000 ticks=6000
+ * </pre>
+ *
+ * Options ({@code key=value}): players, online, nominees, elections (concurrent, nominees are
+ * spread across them), ticks, warmup, votes (per tick), churn (joins and quits per tick),
+ * journal (true/false), seed.
+ */
+public final class LoadSimulator {
+
+    private final int players;
+    private final int nominees;
+    private final int elections;
+    private final int ticks;
+    private final int warmup;
+    private final int votesPerTick;
+    private final int churnPerTick;
+    private final SplittableRandom random;
+    private final SimulatedPlatform platform;
+    private final ElectionManager manager;
+    private final ScoreboardService scoreboard;
+    private final NameCache names;
+    private final CompletionIndex completions;
+    private final UUID[] ids;
+    private final String[] playerNames;
+    private final boolean[] isOnline;
+    private final Map<UUID, Integer> indexOf = new HashMap<>();
+    /** Per player: when their ballot in flight was submitted, or 0 if none is. */
+    private final long[] submittedAt;
+    private long[] countedNanos;
+    private int countedCount;
+    private final List<String> candidates = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private LoadSimulator(Map<String, String> options, File dataFolder) {
+        this.players = intOption(options, "players", 5000);
+        this.nominees = intOption(options, "nominees", 10);
+        this.elections = Math.max(1, intOption(options, "elections", 1));
+        this.ticks = intOption(options, "ticks", 6000);
+        this.warmup = intOption(options, "warmup", 1200);
+        this.votesPerTick = intOption(options, "votes", 20);
+        this.churnPerTick = intOption(options, "churn", 2);
+        this.random = new SplittableRandom(Long.parseLong(options.getOrDefault("seed", String.valueOf(Fixtures.SEED))));
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("voting.required-playtime-hours", 0);
+        config.set("voting.max-changes", 1_000_000);
+        config.set("persistence.journal.enabled", Boolean.parseBoolean(options.getOrDefault("journal", "true")));
+        Settings settings = Settings.load(config);
+
+        this.platform = new SimulatedPlatform(settings, dataFolder);
+        this.names = new NameCache(platform, settings.nameCacheSize());
+        this.completions = new CompletionIndex();
+        ElectionRegistry registry = new ElectionRegistry();
+        this.scoreboard = new ScoreboardService(platform, names, registry);
+        this.manager = new ElectionManager(platform, registry, scoreboard, names, completions);
+
+        this.ids = Fixtures.players(players);
+        this.playerNames = Fixtures.names(players).toArray(new String[0]);
+        this.isOnline = new boolean[players];
+        this.submittedAt = new long[players];
+        for (int i = 0; i < players; i++) {
+            indexOf.put(ids[i], i);
+        }
+        // flushVotes confirms each counted ballot to its voter; that message ends the ballot's trip.
+        platform.onMessage(player -> {
+            Integer index = indexOf.get(player);
+            if (index != null && submittedAt[index] != 0L) {
+                if (countedNanos != null && countedCount < countedNanos.length) {
+                    countedNanos[countedCount++] = System.nanoTime() - submittedAt[index];
+                }
+                submittedAt[index] = 0L;
+            }
+        });
+        int initiallyOnline = Math.min(players, intOption(options, "online", players / 2));
+        for (int i = 0; i < initiallyOnline; i++) {
+            join(i);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq).toLowerCase(Locale.ROOT), arg.substring(eq + 1));
+            }
+        }
+        File dataFolder = Files.createTempDirectory("elections-sim").toFile();
+        try {
+            new LoadSimulator(options, dataFolder).run();
+        } finally {
+            File[] files = dataFolder.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dataFolder.delete();
+        }
+    }
+
+    private void run() {
+        manager.loadState();
+        manager.startTicking();
+        manager.startActivityTracking();
+        manager.startAutosave();
+        List<String> electionIds = new ArrayList<>(elections);
+        for (int e = 0; e < elections; e++) {
+            String role = elections == 1 ? "Mayor" : "Seat " + (e + 1);
+            manager.createElection(role, Duration.ofDays(7));
+            electionIds.add(Election.idFor(role, Election.Type.REGULAR));
+        }
+        for (int i = 0; i < nominees && i < players; i++) {
+            if (!isOnline[i]) {
+                join(i);
+            }
+            manager.nominate(electionIds.get(i % elections), null, true, ids[i]);
+            candidates.add(playerNames[i]);
+        }
+
+        for (int t = 0; t < warmup; t++) {
+            simulateTick(null, null);
+        }
+
+        long[] commandNanos = new long[ticks * votesPerTick];
+        countedNanos = new long[ticks * votesPerTick];
+        countedCount = 0;
+        long[] tickNanos = new long[ticks];
+        long[] tickBytes = new long[ticks];
+        int[] commandCount = new int[1];
+        long ballotsBefore = totalVotes();
+        long messagesBefore = platform.messages;
+        long pushesBefore = platform.sidebarPushes();
+        long started = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long begin = System.nanoTime();
+            simulateTick(commandNanos, commandCount);
+            tickNanos[t] = System.nanoTime() - begin;
+            tickBytes[t] = threads.getCurrentThreadAllocatedBytes() - bytes;
+        }
+        long elapsed = System.nanoTime() - started;
+        long ballots = totalVotes() - ballotsBefore;
+
+        long saveBegin = System.nanoTime();
+        manager.stopAutosave();
+        manager.flushVotes();
+        manager.saveState();
+        long saveNanos = System.nanoTime() - saveBegin;
+        manager.closeJournal();
+        manager.shutdownSaves();
+        manager.stopTicking();
+        manager.stopActivityTracking();
+        scoreboard.clearAll();
+
+        long[] commands = Arrays.copyOf(commandNanos, commandCount[0]);
+        System.out.printf(Locale.ROOT, "players=%d online=%d nominees=%d elections=%d ticks=%d votes/tick=%d churn/tick=%d%n",
+                players, platform.onlinePlayers().size(), nominees, elections, ticks, votesPerTick, churnPerTick);
+        System.out.printf(Locale.ROOT, "throughput      %,.0f /vote commands/s, %,d distinct ballots on record (+%,d)%n",
+                commands.length / (elapsed / 1e9), totalVotes(), ballots);
+        long[] counted = Arrays.copyOf(countedNanos, countedCount);
+        System.out.printf(Locale.ROOT, "enqueue latency p50 %s  p99 %s  max %s%n",
+                micros(percentile(commands, 0.50)), micros(percentile(commands, 0.99)), micros(max(commands)));
+        System.out.printf(Locale.ROOT, "vote to counted p50 %s  p99 %s  max %s  (%,d ballots)%n",
+                micros(percentile(counted, 0.50)), micros(percentile(counted, 0.99)), micros(max(counted)), counted.length);
+        System.out.printf(Locale.ROOT, "tick time       p50 %s  p99 %s  max %s  (budget 50000 us)%n",
+                micros(percentile(tickNanos, 0.50)), micros(percentile(tickNanos, 0.99)), micros(max(tickNanos)));
+        System.out.printf(Locale.ROOT, "alloc per tick  mean %,d B  p99 %,d B%n",
+                mean(tickBytes), percentile(tickBytes, 0.99));
+        System.out.printf(Locale.ROOT, "sidebar pushes  %,d  messages %,d  final save %s%n",
+                platform.sidebarPushes() - pushesBefore, platform.messages - messagesBefore, micros(saveNanos));
+    }
+
+    /**
+     * One server tick: churn, AFK flips and /vote commands, then the scheduler runs whatever
+     * the services queued (ballot flush, sidebar redraw, election tick, autosave).
+     */
+    private void simulateTick(long[] commandNanos, int[] commandCount) {
+        for (int c = 0; c < churnPerTick; c++) {
+            int who = nominees + random.nextInt(Math.max(1, players - nominees));
+            if (who >= players) {
+                break;
+            }
+            if (isOnline[who]) {
+                quit(who);
+            } else {
+                join(who);
+            }
+        }
+        if (random.nextInt(20) == 0) {
+            int who = random.nextInt(players);
+            if (isOnline[who]) {
+                platform.setAfk(ids[who], random.nextBoolean());
+            }
+        }
+        for (int v = 0; v < votesPerTick; v++) {
+            int who = random.nextInt(players);
+            if (!isOnline[who] || submittedAt[who] != 0L) {
+                // Offline, or still waiting for the last ballot to be confirmed.
+                continue;
+            }
+            // Same path as /vote: the typed name goes through the name cache first.
+            String candidate = candidates.get(random.nextInt(candidates.size()));
+            UUID voter = ids[who];
+            long begin = System.nanoTime();
+            submittedAt[who] = begin;
+            names.resolveAll(List.of(candidate), ranking -> {
+                if (!manager.vote(null, voter, ranking).success()) {
+                    submittedAt[who] = 0L;
+                }
+            });
+            long took = System.nanoTime() - begin;
+            if (commandNanos != null) {
+                commandNanos[commandCount[0]++] = took;
+            }
+        }
+        platform.tick();
+    }
+
+    private void join(int index) {
+        UUID id = ids[index];
+        isOnline[index] = true;
+        platform.join(id, playerNames[index]);
+        names.remember(id, playerNames[index]);
+        completions.addOnline(playerNames[index]);
+        manager.handleJoin(id);
+        scoreboard.showTo(id);
+    }
+
+    private void quit(int index) {
+        UUID id = ids[index];
+        isOnline[index] = false;
+        // The confirmation of a ballot still in flight now goes nowhere.
+        submittedAt[index] = 0L;
+        completions.removeOnline(playerNames[index]);
+        manager.handleQuit(id);
+        scoreboard.forget(id);
+        platform.quit(id);
+    }
+
+    private long totalVotes() {
+        long total = 0;
+        for (Election election : manager.getElections()) {
+            total += election.getTotalVotes();
+        }
+        return total;
+    }
+
+    private static int intOption(Map<String, String> options, String key, int fallback) {
+        String value = options.get(key);
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+
+    private static long percentile(long[] values, double p) {
+        if (values.length == 0) {
+            return 0L;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static long max(long[] values) {
+        long max = 0L;
+        for (long value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static long mean(long[] values) {
+        long sum = 0L;
+        for (long value : values) {
+            sum += value;
+        }
+        return values.length == 0 ? 0L : sum / values.length;
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%,.1f us", nanos / 1_000.0);
+    }
+}
@@ -0,0 +1,117 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.config.Settings;
+import me.codex.elections.model.ElectionRegistry;
+import me.codex.elections.service.CompletionIndex;
+import me.codex.elections.service.ElectionManager;
+import me.codex.elections.service.NameCache;
+import me.codex.elections.service.ScoreboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ElectionManager#loadState()} and {@link ElectionManager#saveState()} end to end on a
+ * {@link SimulatedPlatform}: snapshot capture, the codec and the file, for both state formats.
+ * The journal is off so each call does exactly one read or write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"yaml", "binary"})
+    public String format;
+
+    @Param({"1000", "100000"})
+    public int ballots;
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    @Param({"10"})
+    public int nominees;
+
+    private Settings settings;
+    private File dir;
+    private ElectionManager saved;
+    private ElectionManager fresh;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        settings = Fixtures.settings(format);
+        dir = Files.createTempDirectory("elections-bench").toFile();
+        UUID[] voters = Fixtures.players(Math.max(ballots, players));
+        saved = manager();
+        saved.loadState();
+        Fixtures.populate(saved, voters, nominees, ballots);
+        for (int i = 0; i < players; i++) {
+            saved.handleJoin(voters[i]);
+        }
+        saved.saveState();
+    }
+
+    /**
+     * Loading adds to the registry, so every call gets a manager that has loaded nothing yet.
+     */
+    @Setup(Level.Invocation)
+    public void freshManager() {
+        fresh = manager();
+    }
+
+    @TearDown(Level.Invocation)
+    public void dropManager() {
+        fresh.shutdownSaves();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        saved.shutdownSaves();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Benchmark
+    public ElectionManager saveState() {
+        saved.saveState();
+        return saved;
+    }
+
+    @Benchmark
+    public ElectionManager loadState() {
+        fresh.loadState();
+        return fresh;
+    }
+
+    private ElectionManager manager() {
+        SimulatedPlatform platform = new SimulatedPlatform(settings, dir);
+        NameCache names = new NameCache(platform, settings.nameCacheSize());
+        ElectionRegistry registry = new ElectionRegistry();
+        ScoreboardService scoreboard = new ScoreboardService(platform, names, registry);
+        return new ElectionManager(platform, registry, scoreboard, names, new CompletionIndex());
+    }
+}
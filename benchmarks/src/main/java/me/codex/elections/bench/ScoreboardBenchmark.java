@@ -0,0 +1,110 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.model.ElectionRegistry;
+import me.codex.elections.service.CompletionIndex;
+import me.codex.elections.service.ElectionManager;
+import me.codex.elections.service.NameCache;
+import me.codex.elections.service.ScoreboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sidebar rendering through {@link ScoreboardService} on a {@link SimulatedPlatform}, with
+ * {@code players} online viewers of an election of {@code ballots} voters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreboardBenchmark {
+
+    @Param({"1000", "100000"})
+    public int ballots;
+
+    @Param({"100", "1000"})
+    public int players;
+
+    @Param({"10"})
+    public int nominees;
+
+    private File dir;
+    private UUID[] voters;
+    private SimulatedPlatform platform;
+    private ScoreboardService scoreboard;
+    private Election election;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("elections-bench").toFile();
+        voters = Fixtures.players(Math.max(ballots, players));
+        List<String> names = Fixtures.names(players);
+        platform = new SimulatedPlatform(Fixtures.settings("binary"), dir);
+        NameCache nameCache = new NameCache(platform, platform.settings().nameCacheSize());
+        ElectionRegistry registry = new ElectionRegistry();
+        scoreboard = new ScoreboardService(platform, nameCache, registry);
+        ElectionManager manager = new ElectionManager(platform, registry, scoreboard, nameCache, new CompletionIndex());
+        for (int i = 0; i < players; i++) {
+            platform.join(voters[i], names.get(i));
+            nameCache.remember(voters[i], names.get(i));
+        }
+        election = registry.get(Fixtures.populate(manager, voters, nominees, ballots));
+        scoreboard.updateAll();
+        random = new SplittableRandom(Fixtures.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dir.delete();
+    }
+
+    /**
+     * Renders every election and pushes each viewer their frame, as on reload.
+     */
+    @Benchmark
+    public long updateAll() {
+        scoreboard.updateAll();
+        return platform.sidebarPushes();
+    }
+
+    /**
+     * The redraw after a tick that changed the election: one render, one push per viewer.
+     */
+    @Benchmark
+    public long redraw() {
+        scoreboard.markDirty(election);
+        platform.tick();
+        return platform.sidebarPushes();
+    }
+
+    /**
+     * A player joining: the cached frame is shown without rendering.
+     */
+    @Benchmark
+    public long showTo() {
+        scoreboard.showTo(voters[random.nextInt(players)]);
+        return platform.sidebarPushes();
+    }
+}
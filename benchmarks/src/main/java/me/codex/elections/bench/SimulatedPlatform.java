@@ -0,0 +1,292 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.config.Settings;
+import me.codex.elections.platform.ActivitySource;
+import me.codex.elections.platform.Platform;
+import me.codex.elections.platform.SidebarDisplay;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * In-memory {@link Platform} with a virtual tick clock. Tasks run when {@link #tick()} is
+ * called, in the order they were scheduled, with Bukkit's rule that a task scheduled during a
+ * tick runs on a later one. Chat, broadcasts, commands and sidebars are counted and dropped.
+ */
+final class SimulatedPlatform implements Platform {
+
+    private final Settings settings;
+    private final File dataFolder;
+    private final Logger logger = Logger.getLogger("Elections-Sim");
+    private final Set<UUID> online = new LinkedHashSet<>();
+    private final Set<UUID> onlineView = Collections.unmodifiableSet(online);
+    private final Map<UUID, String> names = new HashMap<>();
+    private final Map<String, UUID> ids = new HashMap<>();
+    private final List<Task> tasks = new ArrayList<>();
+    private final Map<Integer, Task> tasksById = new HashMap<>();
+    private final Sidebars sidebars = new Sidebars();
+    private BiConsumer<UUID, Boolean> afkListener;
+    private Consumer<UUID> messageListener;
+    private long currentTick;
+    private int nextTaskId = 1;
+
+    long messages;
+    long broadcasts;
+    long commands;
+
+    SimulatedPlatform(Settings settings, File dataFolder) {
+        this.settings = settings;
+        this.dataFolder = dataFolder;
+    }
+
+    void join(UUID player, String name) {
+        names.put(player, name);
+        ids.put(name.toLowerCase(Locale.ROOT), player);
+        online.add(player);
+    }
+
+    void quit(UUID player) {
+        online.remove(player);
+    }
+
+    void setAfk(UUID player, boolean afk) {
+        if (afkListener != null) {
+            afkListener.accept(player, afk);
+        }
+    }
+
+    /**
+     * Calls {@code listener} with the recipient of every message sent to an online player.
+     */
+    void onMessage(Consumer<UUID> listener) {
+        this.messageListener = listener;
+    }
+
+    long sidebarPushes() {
+        return sidebars.pushes;
+    }
+
+    /**
+     * Advances the clock one tick and runs every task that is due.
+     */
+    void tick() {
+        currentTick++;
+        int scheduled = tasks.size();
+        for (int i = 0; i < scheduled; i++) {
+            Task task = tasks.get(i);
+            if (task.cancelled || task.due > currentTick) {
+                continue;
+            }
+            if (task.period > 0) {
+                task.due += task.period;
+            } else {
+                cancelTask(task.id);
+            }
+            task.runnable.run();
+        }
+        int kept = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (!task.cancelled) {
+                tasks.set(kept++, task);
+            }
+        }
+        for (int i = tasks.size() - 1; i >= kept; i--) {
+            tasks.remove(i);
+        }
+    }
+
+    @Override
+    public Settings settings() {
+        return settings;
+    }
+
+    @Override
+    public Logger logger() {
+        return logger;
+    }
+
+    @Override
+    public File dataFolder() {
+        return dataFolder;
+    }
+
+    @Override
+    public Collection<UUID> onlinePlayers() {
+        return onlineView;
+    }
+
+    @Override
+    public boolean isOnline(UUID player) {
+        return online.contains(player);
+    }
+
+    @Override
+    public String lookupName(UUID player) {
+        return names.get(player);
+    }
+
+    @Override
+    public UUID cachedId(String name) {
+        return ids.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Names never seen get the same offline-mode id a server without session servers would give.
+     */
+    @Override
+    public UUID lookupId(String name) {
+        UUID known = cachedId(name);
+        return known != null ? known
+                : UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void sendMessage(UUID player, String message) {
+        if (online.contains(player)) {
+            messages++;
+            if (messageListener != null) {
+                messageListener.accept(player);
+            }
+        }
+    }
+
+    @Override
+    public void broadcast(String message) {
+        broadcasts++;
+    }
+
+    @Override
+    public void dispatchCommand(String command) {
+        commands++;
+    }
+
+    @Override
+    public synchronized int runLater(Runnable task, long delayTicks) {
+        return schedule(task, delayTicks, 0L);
+    }
+
+    @Override
+    public synchronized int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        return schedule(task, delayTicks, Math.max(1L, periodTicks));
+    }
+
+    @Override
+    public synchronized void cancelTask(int taskId) {
+        Task task = tasksById.remove(taskId);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    /**
+     * Runs inline; the simulator has no worker threads to hand off to.
+     */
+    @Override
+    public void runAsync(Runnable task) {
+        task.run();
+    }
+
+    /**
+     * Everything runs on the one simulator thread, which owns election state and every player.
+     */
+    @Override
+    public boolean isMainThread() {
+        return true;
+    }
+
+    @Override
+    public void runFor(UUID player, Runnable task) {
+        if (online.contains(player)) {
+            task.run();
+        }
+    }
+
+    @Override
+    public SidebarDisplay sidebars() {
+        return sidebars;
+    }
+
+    @Override
+    public ActivitySource startActivityTracking(Settings.Afk afk, BiConsumer<UUID, Boolean> onChange) {
+        this.afkListener = onChange;
+        return new ActivitySource() {
+            @Override
+            public void track(UUID player) {
+            }
+
+            @Override
+            public void untrack(UUID player) {
+            }
+
+            @Override
+            public void stop() {
+                afkListener = null;
+            }
+        };
+    }
+
+    private int schedule(Runnable runnable, long delayTicks, long periodTicks) {
+        Task task = new Task(nextTaskId++, runnable, currentTick + Math.max(1L, delayTicks), periodTicks);
+        tasks.add(task);
+        tasksById.put(task.id, task);
+        return task.id;
+    }
+
+    private static final class Task {
+        private final int id;
+        private final Runnable runnable;
+        private final long period;
+        private long due;
+        private boolean cancelled;
+
+        private Task(int id, Runnable runnable, long due, long period) {
+            this.id = id;
+            this.runnable = runnable;
+            this.due = due;
+            this.period = period;
+        }
+    }
+
+    /**
+     * Keeps the last frame per player, the same way a real sidebar holds its lines.
+     */
+    private static final class Sidebars implements SidebarDisplay {
+        private final Map<UUID, List<String>> shown = new HashMap<>();
+        private long pushes;
+
+        @Override
+        public void show(UUID player, String title, List<String> lines) {
+            shown.put(player, lines);
+            pushes++;
+        }
+
+        @Override
+        public void hide(UUID player) {
+            shown.remove(player);
+        }
+
+        @Override
+        public void forget(UUID player) {
+            shown.remove(player);
+        }
+
+        @Override
+        public void hideAll() {
+            shown.clear();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.persistence.StateCodec;
+import me.codex.elections.persistence.StateSnapshot;
+import me.codex.elections.util.PlaytimeTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work behind {@code loadState}/{@code saveState}: copying the ballot arrays on the main
+ * thread, then boxing them into a snapshot and encoding or decoding it on the save thread, for
+ * both state formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateCodecBenchmark {
+
+    @Param({"yaml", "binary"})
+    public String format;
+
+    @Param({"1000", "100000"})
+    public int ballots;
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    @Param({"10"})
+    public int nominees;
+
+    private Election election;
+    private PlaytimeTable playtime;
+    private StateCodec codec;
+    private StateSnapshot snapshot;
+    private File dir;
+    private File readFile;
+    private File writeFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        UUID[] voters = Fixtures.players(Math.max(ballots, players));
+        election = Fixtures.election(voters, nominees, ballots);
+        playtime = new PlaytimeTable(players, false);
+        int today = PlaytimeTable.epochDay(System.currentTimeMillis());
+        for (int i = 0; i < players; i++) {
+            playtime.put(voters[i], 3600 + i, today - (i % 30));
+        }
+        codec = StateCodec.forFormat(format);
+        snapshot = StateSnapshot.of(Map.of(), 0L, List.of(election.copy()), playtime.copy(), List.of());
+        dir = Files.createTempDirectory("elections-bench").toFile();
+        readFile = new File(dir, "read-" + codec.fileName());
+        writeFile = new File(dir, "write-" + codec.fileName());
+        codec.write(readFile, snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        readFile.delete();
+        writeFile.delete();
+        dir.delete();
+    }
+
+    /**
+     * The main thread's share of a save.
+     */
+    @Benchmark
+    public void capture(Blackhole bh) {
+        bh.consume(election.copy());
+        bh.consume(playtime.copy());
+    }
+
+    /**
+     * Boxing captured copies into a snapshot, on the save thread before encoding.
+     */
+    @Benchmark
+    public StateSnapshot box() {
+        return StateSnapshot.of(Map.of(), 0L, List.of(election), playtime, List.of());
+    }
+
+    @Benchmark
+    public File write() throws IOException {
+        codec.write(writeFile, snapshot);
+        return writeFile;
+    }
+
+    @Benchmark
+    public StateSnapshot read() throws IOException {
+        return codec.read(readFile);
+    }
+}
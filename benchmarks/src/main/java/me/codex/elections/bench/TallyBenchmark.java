@@ -0,0 +1,102 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.tally.BallotBox;
+import me.codex.elections.tally.TallyEngine;
+import me.codex.elections.tally.TallyResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting a closed election: copying the ballots into a {@link BallotBox} and running each
+ * {@link TallyEngine} over it, plus replacing one ballot. Ranked, approval and score ballots
+ * name up to five nominees; approval and score boxes carry only the running totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TallyBenchmark {
+
+    @Param({"1000", "50000"})
+    public int ballots;
+
+    @Param({"10", "50"})
+    public int nominees;
+
+    @Param({"plurality", "irv", "stv", "approval", "score"})
+    public String method;
+
+    @Param({"1", "5"})
+    public int seats;
+
+    private Election election;
+    private BallotBox box;
+    private TallyEngine engine;
+    private int effectiveSeats;
+    private UUID[] players;
+    private List<UUID> candidates;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Election.Method counting = Election.Method.byKey(method);
+        boolean multiSeat = counting != Election.Method.PLURALITY && counting != Election.Method.INSTANT_RUNOFF;
+        effectiveSeats = multiSeat ? seats : 1;
+        players = Fixtures.players(ballots);
+        election = Fixtures.rankedElection(players, counting, effectiveSeats, nominees, ballots,
+                counting == Election.Method.PLURALITY ? 1 : 5);
+        candidates = List.copyOf(election.getNominees());
+        random = new SplittableRandom(Fixtures.SEED);
+        box = election.ballotBox();
+        engine = TallyEngine.forMethod(counting);
+    }
+
+    @Benchmark
+    public BallotBox ballotBox() {
+        return election.ballotBox();
+    }
+
+    @Benchmark
+    public TallyResult count() {
+        return engine.count(box, effectiveSeats);
+    }
+
+    /**
+     * An existing voter replaces their ballot with three nominees; approval and score
+     * elections move only those candidates' totals.
+     */
+    @Benchmark
+    public UUID changeBallot() {
+        UUID voter = players[random.nextInt(ballots)];
+        int first = random.nextInt(nominees);
+        List<UUID> choices = List.of(candidates.get(first), candidates.get((first + 1) % nominees),
+                candidates.get((first + 2) % nominees));
+        if (election.getMethod() == Election.Method.SCORE) {
+            Map<UUID, Integer> scores = new LinkedHashMap<>();
+            choices.forEach(candidate -> scores.put(candidate, random.nextInt(Election.MAX_SCORE + 1)));
+            return election.castMarks(voter, scores);
+        }
+        return election.castRanking(voter, election.getMethod() == Election.Method.PLURALITY
+                ? choices.subList(0, 1) : choices);
+    }
+}
@@ -0,0 +1,68 @@
+package me.codex.elections.bench;
+
+import me.codex.elections.util.DurationUtil;
+import me.codex.elections.util.MessageTemplate;
+import me.codex.elections.util.MessageTemplate.Placeholder;
+import me.codex.elections.util.PrefixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-refresh and per-keystroke text work: duration parsing and formatting for the scoreboard
+ * countdown, message rendering, and tab-completion prefix lookups over {@code players} names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    private final Duration remaining = Duration.ofHours(26).plusMinutes(17).plusSeconds(42);
+    private final MessageTemplate template =
+            MessageTemplate.compile("Election for %role% has started and ends in %duration%.");
+    private PrefixIndex names;
+
+    @Setup
+    public void setUp() {
+        names = PrefixIndex.of(Fixtures.names(players));
+    }
+
+    @Benchmark
+    public Optional<Duration> parseDuration() {
+        return DurationUtil.parseDuration("1d2h30m");
+    }
+
+    @Benchmark
+    public String formatDuration() {
+        return DurationUtil.format(remaining);
+    }
+
+    @Benchmark
+    public String renderMessage() {
+        return template.render(Placeholder.ROLE, "Mayor", Placeholder.DURATION, "1d 2h");
+    }
+
+    @Benchmark
+    public List<String> completeName() {
+        return names.complete("ab", 50);
+    }
+}
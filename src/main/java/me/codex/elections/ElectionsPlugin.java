@@ -1,45 +1,78 @@
 package me.codex.elections;
 
+import me.codex.elections.commands.AsyncTabCompleteListener;
 import me.codex.elections.commands.ElectionsCommand;
 import me.codex.elections.commands.VoteCommand;
+import me.codex.elections.config.Settings;
+import me.codex.elections.model.ElectionRegistry;
+import me.codex.elections.platform.BukkitPlatform;
+import me.codex.elections.platform.Platform;
+import me.codex.elections.service.CompletionIndex;
 import me.codex.elections.service.ElectionManager;
+import me.codex.elections.service.NameCache;
 import me.codex.elections.service.ScoreboardService;
+import org.bukkit.command.CommandExecutor;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.List;
+import java.util.UUID;
+
 public final class ElectionsPlugin extends JavaPlugin implements Listener {
 
+    private volatile Settings settings;
+    private Platform platform;
     private ElectionManager electionManager;
     private ScoreboardService scoreboardService;
+    private NameCache names;
+    private CompletionIndex completions;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
+        reloadSettings();
 
-        this.scoreboardService = new ScoreboardService(this);
-        this.electionManager = new ElectionManager(this, scoreboardService);
+        this.platform = new BukkitPlatform(this);
+        this.names = new NameCache(platform, settings.nameCacheSize());
+        this.completions = new CompletionIndex();
+        getServer().getOnlinePlayers().forEach(player -> {
+            names.remember(player);
+            completions.addOnline(player.getName());
+        });
+        ElectionRegistry elections = new ElectionRegistry();
+        this.scoreboardService = new ScoreboardService(platform, names, elections);
+        this.electionManager = new ElectionManager(platform, elections, scoreboardService, names, completions);
 
         getServer().getPluginManager().registerEvents(this, this);
 
-        ElectionsCommand electionsCommand = new ElectionsCommand(electionManager, scoreboardService, this);
-        getCommand("elections").setExecutor(electionsCommand);
+        ElectionsCommand electionsCommand = new ElectionsCommand(electionManager, scoreboardService, names, completions, this);
+        getCommand("elections").setExecutor(onMain(electionsCommand));
         getCommand("elections").setTabCompleter(electionsCommand);
 
-        VoteCommand voteCommand = new VoteCommand(electionManager);
-        getCommand("vote").setExecutor(voteCommand);
+        VoteCommand voteCommand = new VoteCommand(electionManager, names, completions);
+        getCommand("vote").setExecutor(onMain(voteCommand));
         getCommand("vote").setTabCompleter(voteCommand);
 
+        getServer().getPluginManager().registerEvents(new AsyncTabCompleteListener(electionsCommand, voteCommand), this);
+
         electionManager.loadState();
         electionManager.startTicking();
         electionManager.startActivityTracking();
+        electionManager.startAutosave();
     }
 
     @Override
     public void onDisable() {
         if (electionManager != null) {
+            electionManager.stopAutosave();
+            electionManager.drainInbox();
+            electionManager.flushVotes();
             electionManager.saveState();
+            electionManager.closeJournal();
+            electionManager.shutdownSaves();
             electionManager.stopTicking();
             electionManager.stopActivityTracking();
         }
@@ -48,10 +81,69 @@ public final class ElectionsPlugin extends JavaPlugin implements Listener {
         }
     }
 
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * @return the election core; from threads other than the main one use only its views and
+     *         {@code submit} methods
+     */
+    public ElectionManager electionManager() {
+        return electionManager;
+    }
+
+    /**
+     * Re-reads config.yml and swaps in the new settings in one step. Problems are logged and
+     * returned; the offending values fall back to their defaults.
+     */
+    public List<String> reloadSettings() {
+        reloadConfig();
+        Settings loaded = Settings.load(getConfig());
+        for (String problem : loaded.problems()) {
+            getLogger().warning("config.yml: " + problem);
+        }
+        this.settings = loaded;
+        return loaded.problems();
+    }
+
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
-        if (electionManager != null && electionManager.getCurrentElection().isPresent()) {
-            scoreboardService.showTo(event.getPlayer(), electionManager.getCurrentElection().get());
+        if (names != null) {
+            names.remember(event.getPlayer());
+            completions.addOnline(event.getPlayer().getName());
         }
+        if (electionManager != null) {
+            UUID player = event.getPlayer().getUniqueId();
+            platform.runOnMain(() -> {
+                electionManager.handleJoin(player);
+                scoreboardService.showTo(player);
+            });
+        }
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        if (completions != null) {
+            completions.removeOnline(event.getPlayer().getName());
+        }
+        if (electionManager != null) {
+            UUID player = event.getPlayer().getUniqueId();
+            platform.runOnMain(() -> {
+                electionManager.handleQuit(player);
+                scoreboardService.forget(player);
+            });
+        }
+    }
+
+    /**
+     * Folia runs a player's commands on that player's region thread; election state lives on
+     * the global one, so the command is handed over there.
+     */
+    private CommandExecutor onMain(CommandExecutor executor) {
+        return (sender, command, label, args) -> {
+            platform.runOnMain(() -> executor.onCommand(sender, command, label, args));
+            return true;
+        };
     }
 }
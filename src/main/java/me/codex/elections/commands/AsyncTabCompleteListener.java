@@ -0,0 +1,59 @@
+package me.codex.elections.commands;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Answers /vote and /elections tab completion from Paper's async tab-complete event, so
+ * suggestions are built off the main thread and the synchronous completer is never reached.
+ */
+public class AsyncTabCompleteListener implements Listener {
+
+    private final ElectionsCommand electionsCommand;
+    private final VoteCommand voteCommand;
+
+    public AsyncTabCompleteListener(ElectionsCommand electionsCommand, VoteCommand voteCommand) {
+        this.electionsCommand = electionsCommand;
+        this.voteCommand = voteCommand;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (event.isHandled() || !event.isCommand()) {
+            return;
+        }
+        String buffer = event.getBuffer();
+        if (buffer.startsWith("/")) {
+            buffer = buffer.substring(1);
+        }
+        int space = buffer.indexOf(' ');
+        if (space < 0) {
+            return;
+        }
+        String label = buffer.substring(0, space).toLowerCase(Locale.ROOT);
+        int namespace = label.indexOf(':');
+        if (namespace >= 0) {
+            if (!label.substring(0, namespace).equals("elections")) {
+                return;
+            }
+            label = label.substring(namespace + 1);
+        }
+        // Keep the trailing empty argument, as Bukkit does, so "/vote " completes all nominees.
+        String[] args = buffer.substring(space + 1).split(" ", -1);
+        List<String> suggestions;
+        switch (label) {
+            case "vote" -> suggestions = voteCommand.complete(args);
+            case "elections", "election" -> suggestions = electionsCommand.complete(event.getSender(), args);
+            default -> {
+                return;
+            }
+        }
+        event.setCompletions(suggestions);
+        event.setHandled(true);
+    }
+}
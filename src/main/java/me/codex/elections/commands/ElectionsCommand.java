@@ -1,12 +1,13 @@
 package me.codex.elections.commands;
 
+import me.codex.elections.ElectionsPlugin;
+import me.codex.elections.model.Election;
+import me.codex.elections.service.CompletionIndex;
 import me.codex.elections.service.ElectionManager;
+import me.codex.elections.service.NameCache;
 import me.codex.elections.service.ScoreboardService;
-import org.bukkit.plugin.java.JavaPlugin;
 import me.codex.elections.util.DurationUtil;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -18,17 +19,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class ElectionsCommand implements CommandExecutor, TabCompleter {
 
     private final ElectionManager manager;
     private final ScoreboardService scoreboardService;
-    private final JavaPlugin plugin;
+    private final NameCache names;
+    private final CompletionIndex completions;
+    private final ElectionsPlugin plugin;
 
-    public ElectionsCommand(ElectionManager manager, ScoreboardService scoreboardService, JavaPlugin plugin) {
+    public ElectionsCommand(ElectionManager manager, ScoreboardService scoreboardService, NameCache names,
+                            CompletionIndex completions, ElectionsPlugin plugin) {
         this.manager = manager;
         this.scoreboardService = scoreboardService;
+        this.names = names;
+        this.completions = completions;
         this.plugin = plugin;
     }
 
@@ -46,30 +53,43 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(ChatColor.RED + "You do not have permission to do that.");
                     return true;
                 }
-                if (args.length < 3) {
-                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " create <role> <duration>");
+                // Parsed from the end, since the role may contain spaces:
+                // <role...> <duration> [method [seats]]
+                int end = args.length;
+                int seats = 1;
+                Election.Method method = Election.Method.PLURALITY;
+                if (end >= 5 && Election.Method.byKey(args[end - 2]) != null && isNumber(args[end - 1])) {
+                    method = Election.Method.byKey(args[end - 2]);
+                    seats = Integer.parseInt(args[end - 1]);
+                    end -= 2;
+                } else if (end >= 4 && Election.Method.byKey(args[end - 1]) != null) {
+                    method = Election.Method.byKey(args[end - 1]);
+                    end -= 1;
+                }
+                if (end < 3) {
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " create <role> <duration> [plurality|irv|stv|approval|score [seats]]");
                     sender.sendMessage(ChatColor.GRAY + "Example: /" + label + " create Judge 2d6h");
+                    sender.sendMessage(ChatColor.GRAY + "Example: /" + label + " create Council 3d stv 5");
                     return true;
                 }
-                String durationArg = args[args.length - 1];
-                String role = String.join(" ", Arrays.copyOfRange(args, 1, args.length - 1));
+                String durationArg = args[end - 1];
+                String role = String.join(" ", Arrays.copyOfRange(args, 1, end - 1));
                 Optional<Duration> duration = DurationUtil.parseDuration(durationArg);
                 if (duration.isEmpty()) {
                     sender.sendMessage(ChatColor.RED + "Invalid duration. Use formats like 1d2h30m or 45m.");
                     return true;
                 }
-                ElectionManager.ActionResult result = manager.createElection(role, duration.get());
+                ElectionManager.ActionResult result = manager.createElection(role, duration.get(), method, seats);
                 sender.sendMessage(result.message());
                 return true;
             }
             case "nominate" -> {
                 if (args.length < 2) {
-                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " nominate <player>");
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " nominate <player> [election]");
                     return true;
                 }
-                OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                ElectionManager.ActionResult result = manager.nominate(sender, target);
-                sender.sendMessage(result.message());
+                String election = argOrNull(args, 2);
+                names.resolve(args[1], target -> sender.sendMessage(manager.nominate(election, playerId(sender), sender.hasPermission("elections.admin"), target).message()));
                 return true;
             }
             case "rig" -> {
@@ -78,12 +98,11 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                     return true;
                 }
                 if (args.length < 2) {
-                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " rig <player>");
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " rig <player> [election]");
                     return true;
                 }
-                OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                ElectionManager.ActionResult result = manager.rigVotes(target);
-                sender.sendMessage(result.message());
+                String election = argOrNull(args, 2);
+                names.resolve(args[1], target -> sender.sendMessage(manager.rigVotes(election, target).message()));
                 return true;
             }
             case "unnominate" -> {
@@ -92,12 +111,11 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                     return true;
                 }
                 if (args.length < 2) {
-                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " unnominate <player>");
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " unnominate <player> [election]");
                     return true;
                 }
-                OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                ElectionManager.ActionResult result = manager.unnominate(sender, target);
-                sender.sendMessage(result.message());
+                String election = argOrNull(args, 2);
+                names.resolve(args[1], target -> sender.sendMessage(manager.unnominate(election, target).message()));
                 return true;
             }
             case "end" -> {
@@ -105,18 +123,18 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(ChatColor.RED + "You do not have permission to do that.");
                     return true;
                 }
-                ElectionManager.ActionResult result = manager.endElection();
+                ElectionManager.ActionResult result = manager.endElection(argOrNull(args, 1));
                 sender.sendMessage(result.message());
                 return true;
             }
             case "status" -> {
-                ElectionManager.ActionResult status = manager.status();
+                ElectionManager.ActionResult status = manager.status(argOrNull(args, 1));
                 sender.sendMessage(status.message());
                 return true;
             }
             case "platform" -> {
                 if (args.length < 2) {
-                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " platform set <your plan> OR /" + label + " platform <nominee>");
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " platform set <your plan> OR /" + label + " platform <nominee> [election]");
                     return true;
                 }
                 if (args[1].equalsIgnoreCase("set")) {
@@ -129,24 +147,22 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                         return true;
                     }
                     String platform = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
-                    ElectionManager.ActionResult result = manager.setPlatform(player, player, platform);
+                    ElectionManager.ActionResult result = manager.setPlatform(player.getUniqueId(), sender.hasPermission("elections.admin"), player.getUniqueId(), platform);
                     sender.sendMessage(result.message());
                     return true;
                 }
 
-                OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                ElectionManager.ActionResult result = manager.viewPlatform(target);
-                sender.sendMessage(result.message());
+                String election = argOrNull(args, 2);
+                names.resolve(args[1], target -> sender.sendMessage(manager.viewPlatform(election, target).message()));
                 return true;
             }
             case "noconfidence" -> {
                 if (args.length < 2) {
-                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " noconfidence <current-winner>");
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " noconfidence <current-winner> [election]");
                     return true;
                 }
-                OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                ElectionManager.ActionResult result = manager.startNoConfidence(sender, target);
-                sender.sendMessage(result.message());
+                String election = argOrNull(args, 2);
+                names.resolve(args[1], target -> sender.sendMessage(manager.startNoConfidence(target, election).message()));
                 return true;
             }
             case "scoreboard" -> {
@@ -154,9 +170,13 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(ChatColor.RED + "Only players can toggle the scoreboard.");
                     return true;
                 }
-                boolean nowEnabled = scoreboardService.toggle(player);
+                if (args.length > 1) {
+                    sender.sendMessage(manager.showSidebar(player.getUniqueId(), args[1]).message());
+                    return true;
+                }
+                boolean nowEnabled = scoreboardService.toggle(player.getUniqueId());
                 if (nowEnabled) {
-                    manager.getCurrentElection().ifPresent(election -> scoreboardService.showTo(player, election));
+                    scoreboardService.showTo(player.getUniqueId());
                     sender.sendMessage(color("&aElection sidebar enabled."));
                 } else {
                     sender.sendMessage(color("&eElection sidebar disabled."));
@@ -168,9 +188,15 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(ChatColor.RED + "You do not have permission to do that.");
                     return true;
                 }
-                plugin.reloadConfig();
+                List<String> problems = plugin.reloadSettings();
                 sender.sendMessage(color("&aElections config reloaded."));
-                manager.getCurrentElection().ifPresent(election -> scoreboardService.updateAll(election));
+                for (String problem : problems) {
+                    sender.sendMessage(color("&e- " + problem));
+                }
+                // The AFK source and the autosave timer read their settings when started.
+                manager.startActivityTracking();
+                manager.startAutosave();
+                scoreboardService.updateAll();
                 return true;
             }
             case "admin" -> {
@@ -188,13 +214,13 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
         List<String> lines = new ArrayList<>();
         lines.add(color("&bElections commands:"));
         lines.add(color("&7/elections help &f- Show this help"));
-        lines.add(color("&7/elections status &f- View current election info"));
-        lines.add(color("&7/elections nominate <player> &f- Nominate someone (not yourself)"));
-        lines.add(color("&7/elections platform <player> &f- View a nominee's platform"));
+        lines.add(color("&7/elections status [election] &f- View election info"));
+        lines.add(color("&7/elections nominate <player> [election] &f- Nominate someone (not yourself)"));
+        lines.add(color("&7/elections platform <player> [election] &f- View a nominee's platform"));
         lines.add(color("&7/elections platform set <text> &f- (Nominees) Set your platform"));
-        lines.add(color("&7/elections noconfidence <winner> &f- Start a 24h vote of no confidence"));
-        lines.add(color("&7/elections scoreboard &f- Toggle the election sidebar"));
-        lines.add(color("&7/vote <player> &f- Vote for a nominee"));
+        lines.add(color("&7/elections noconfidence <winner> [election] &f- Start a 24h vote of no confidence"));
+        lines.add(color("&7/elections scoreboard [election] &f- Toggle the sidebar or pick its election"));
+        lines.add(color("&7/vote [election] <player>[:score] [more players...] &f- Vote; rank, approve or score several"));
         lines.add(color("&7/elections admin &f- Admin command list"));
         sender.sendMessage(lines.toArray(new String[0]));
     }
@@ -202,59 +228,87 @@ public class ElectionsCommand implements CommandExecutor, TabCompleter {
     private void sendAdminHelp(CommandSender sender) {
         List<String> lines = new ArrayList<>();
         lines.add(color("&cAdmin commands:"));
-        lines.add(color("&7/elections create <role> <duration> &f- Start a new election"));
-        lines.add(color("&7/elections rig <player> &f- Force all votes to this player"));
-        lines.add(color("&7/elections unnominate <player> &f- Remove a nominee"));
-        lines.add(color("&7/elections end &f- Clear the election & scoreboard"));
+        lines.add(color("&7/elections create <role> <duration> [method [seats]] &f- Start a new election"));
+        lines.add(color("&7/elections rig <player> [election] &f- Force all votes to this player"));
+        lines.add(color("&7/elections unnominate <player> [election] &f- Remove a nominee"));
+        lines.add(color("&7/elections end [election] &f- Clear an election & its scoreboard"));
         lines.add(color("&7/elections reload &f- Reload config.yml"));
         sender.sendMessage(lines.toArray(new String[0]));
     }
 
+    private static UUID playerId(CommandSender sender) {
+        return sender instanceof Player player ? player.getUniqueId() : null;
+    }
+
+    /**
+     * The optional election id at {@code index}; null when omitted, meaning "the only one".
+     */
+    private static String argOrNull(String[] args, int index) {
+        return args.length > index ? args[index] : null;
+    }
+
+    private static boolean isNumber(String arg) {
+        return !arg.isEmpty() && arg.length() <= 4 && arg.chars().allMatch(Character::isDigit);
+    }
+
     private String color(String input) {
         return ChatColor.translateAlternateColorCodes('&', input);
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        return complete(sender, args);
+    }
+
+    /**
+     * Suggestions for {@code args}. Reads only the completion index and the sender's permissions,
+     * so it is also safe to call from Paper's async tab-complete event.
+     */
+    List<String> complete(CommandSender sender, String[] args) {
         if (args.length == 1) {
             List<String> base = new ArrayList<>(Arrays.asList("help", "status", "nominate", "platform", "noconfidence", "scoreboard", "admin"));
             if (sender.hasPermission("elections.admin")) {
                 base.addAll(Arrays.asList("create", "rig", "unnominate", "end", "reload"));
             }
             return base.stream()
-                    .filter(s -> s.toLowerCase().startsWith(args[0].toLowerCase()))
+                    .filter(s -> s.startsWith(args[0].toLowerCase()))
                     .collect(Collectors.toList());
         }
         if (args.length == 2) {
             String sub = args[0].toLowerCase();
-            if (sub.equals("nominate") || sub.equals("rig")) {
-                return Bukkit.getOnlinePlayers().stream()
-                        .map(Player::getName)
-                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                        .collect(Collectors.toList());
-            }
-            if (sub.equals("noconfidence")) {
-                return Bukkit.getOnlinePlayers().stream()
-                        .map(Player::getName)
-                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                        .collect(Collectors.toList());
+            if (sub.equals("nominate") || sub.equals("rig") || sub.equals("noconfidence")) {
+                return completions.online(args[1]);
             }
             if (sub.equals("unnominate")) {
-                return Bukkit.getOnlinePlayers().stream()
-                        .map(Player::getName)
-                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                        .collect(Collectors.toList());
+                return completions.nominees(args[1]);
             }
             if (sub.equals("platform")) {
                 List<String> suggestions = new ArrayList<>();
-                suggestions.add("set");
-                manager.getCurrentElection().ifPresent(election -> election.getNominees().forEach(uuid -> {
-                    String name = Bukkit.getOfflinePlayer(uuid).getName();
-                    if (name != null) suggestions.add(name);
-                }));
-                return suggestions.stream()
-                        .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                        .collect(Collectors.toList());
+                if ("set".startsWith(args[1].toLowerCase())) {
+                    suggestions.add("set");
+                }
+                suggestions.addAll(completions.nominees(args[1]));
+                return suggestions;
+            }
+            if (sub.equals("status") || sub.equals("scoreboard") || (sub.equals("end") && sender.hasPermission("elections.admin"))) {
+                return completions.elections(args[1]);
+            }
+        }
+        if (args.length >= 4 && args[0].equalsIgnoreCase("create") && sender.hasPermission("elections.admin")
+                && DurationUtil.parseDuration(args[args.length - 2]).isPresent()) {
+            List<String> methods = new ArrayList<>();
+            for (Election.Method method : Election.Method.values()) {
+                if (method.key().startsWith(args[args.length - 1].toLowerCase())) {
+                    methods.add(method.key());
+                }
+            }
+            return methods;
+        }
+        if (args.length == 3) {
+            String sub = args[0].toLowerCase();
+            if (sub.equals("nominate") || sub.equals("rig") || sub.equals("unnominate") || sub.equals("noconfidence")
+                    || (sub.equals("platform") && !args[1].equalsIgnoreCase("set"))) {
+                return completions.elections(args[2]);
             }
         }
         return List.of();
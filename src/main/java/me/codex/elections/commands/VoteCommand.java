@@ -1,9 +1,9 @@
 package me.codex.elections.commands;
 
+import me.codex.elections.service.CompletionIndex;
 import me.codex.elections.service.ElectionManager;
-import org.bukkit.Bukkit;
+import me.codex.elections.service.NameCache;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -11,15 +11,20 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 public class VoteCommand implements CommandExecutor, TabCompleter {
 
     private final ElectionManager manager;
+    private final NameCache names;
+    private final CompletionIndex completions;
 
-    public VoteCommand(ElectionManager manager) {
+    public VoteCommand(ElectionManager manager, NameCache names, CompletionIndex completions) {
         this.manager = manager;
+        this.names = names;
+        this.completions = completions;
     }
 
     @Override
@@ -29,27 +34,59 @@ public class VoteCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         if (args.length < 1) {
-            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " <player>");
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " [election] <player>[:score] [more players...]");
             return true;
         }
-        OfflinePlayer target = Bukkit.getOfflinePlayer(args[0]);
-        ElectionManager.ActionResult result = manager.vote(player, target);
-        sender.sendMessage(result.message());
+        // A leading election id picks the election; every other argument is a choice, most
+        // preferred first, optionally scored as name:score.
+        boolean named = args.length >= 2 && manager.getElection(args[0].toLowerCase(Locale.ROOT)).isPresent();
+        String election = named ? args[0] : null;
+        List<String> choices = new ArrayList<>(Arrays.asList(args).subList(named ? 1 : 0, args.length));
+        List<Integer> scores = null;
+        if (choices.stream().anyMatch(choice -> choice.indexOf(':') >= 0)) {
+            scores = new ArrayList<>(choices.size());
+            for (int i = 0; i < choices.size(); i++) {
+                String choice = choices.get(i);
+                int colon = choice.lastIndexOf(':');
+                scores.add(colon >= 0 ? parseScore(choice.substring(colon + 1)) : -1);
+                choices.set(i, colon >= 0 ? choice.substring(0, colon) : choice);
+            }
+        }
+        List<Integer> scored = scores;
+        names.resolveAll(choices, ranking ->
+                sender.sendMessage(manager.vote(election, player.getUniqueId(), ranking, scored).message()));
         return true;
     }
 
+    /**
+     * @return the score, or -1 if it is not a number
+     */
+    private static int parseScore(String score) {
+        try {
+            return Integer.parseInt(score);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        if (args.length != 1) {
-            return List.of();
+        return complete(args);
+    }
+
+    /**
+     * Nominee and election suggestions from the completion index; safe to call off the main
+     * thread.
+     */
+    List<String> complete(String[] args) {
+        if (args.length == 1) {
+            List<String> suggestions = new ArrayList<>(completions.votable(args[0]));
+            suggestions.addAll(completions.elections(args[0]));
+            return suggestions;
+        }
+        if (args.length >= 2 && args[args.length - 1].indexOf(':') < 0) {
+            return completions.votable(args[args.length - 1]);
         }
-        return manager.getCurrentElection()
-                .filter(election -> election.isActive())
-                .map(election -> election.getNominees().stream()
-                        .map(uuid -> Bukkit.getOfflinePlayer(uuid).getName())
-                        .filter(name -> name != null)
-                        .filter(name -> name.toLowerCase().startsWith(args[0].toLowerCase()))
-                        .collect(Collectors.toList()))
-                .orElseGet(ArrayList::new);
+        return List.of();
     }
 }
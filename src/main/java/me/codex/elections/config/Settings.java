@@ -0,0 +1,260 @@
+package me.codex.elections.config;
+
+import me.codex.elections.util.DurationUtil;
+import me.codex.elections.util.MessageTemplate;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, validated view of {@code config.yml}. Built once on enable and on
+ * {@code /elections reload}; hot paths read plain fields instead of doing path lookups.
+ * Invalid values are collected in {@link #problems()} and replaced by their defaults.
+ */
+public record Settings(
+        Scoreboard scoreboard,
+        Voting voting,
+        int maxNominationsPerPlayer,
+        NoConfidence noConfidence,
+        List<MessageTemplate> commandsOnWin,
+        long commandBudgetNanos,
+        Afk afk,
+        Playtime playtime,
+        int nameCacheSize,
+        String stateFormat,
+        Persistence persistence,
+        Map<String, MessageTemplate> messages,
+        List<String> problems) {
+
+    public record Scoreboard(String title, int maxCandidates, boolean showVoteTip, boolean showHelpTip,
+                             boolean showVoteCounts) {
+    }
+
+    public record Voting(int maxChanges, int requiredPlaytimeHours, int intakeCapacity) {
+    }
+
+    public record NoConfidence(Duration duration, int requiredVotes, List<MessageTemplate> commandsOnPass) {
+    }
+
+    public record Afk(boolean builtin, long idleMillis, long sampleTicks) {
+    }
+
+    public record Playtime(int evictAfterDays, boolean offHeap) {
+    }
+
+    public record Persistence(long autosaveIntervalSeconds, boolean journalEnabled, long journalSyncIntervalMs,
+                              long journalCompactBytes) {
+    }
+
+    private static final Map<String, String> DEFAULT_MESSAGES = defaultMessages();
+
+    /**
+     * @return the compiled, colored template for a {@code messages.*} path
+     */
+    public MessageTemplate message(String path) {
+        MessageTemplate message = messages.get(path);
+        return message != null ? message : MessageTemplate.compile(color("&cMissing message: " + path));
+    }
+
+    public static Settings load(ConfigurationSection config) {
+        Reader in = new Reader(config);
+
+        Scoreboard scoreboard = new Scoreboard(
+                color(in.string("scoreboard.title", "&aElections")),
+                in.integer("scoreboard.max-candidates", 10, 0),
+                in.bool("scoreboard.show-vote-tip", true),
+                in.bool("scoreboard.show-help-tip", true),
+                in.bool("scoreboard.show-vote-counts", true));
+        Voting voting = new Voting(
+                in.integer("voting.max-changes", 2, 0),
+                in.integer("voting.required-playtime-hours", 12, 0),
+                in.integer("voting.intake-capacity", 1024, 1));
+        int maxNominations = in.integer("nominations.max-per-player", 1, 1);
+        NoConfidence noConfidence = new NoConfidence(
+                in.duration("no-confidence.duration", Duration.ofHours(24)),
+                in.integer("no-confidence.required-votes", 6, 1),
+                in.commands("no-confidence.commands-on-pass"));
+        List<MessageTemplate> commandsOnWin = in.commands("commands-on-win");
+        long commandBudgetNanos = in.longValue("command-queue.tick-budget-ms", 5L, 1L) * 1_000_000L;
+        Afk afk = new Afk(
+                in.bool("afk.builtin", true),
+                in.longValue("afk.idle-minutes", 5L, 1L) * 60_000L,
+                in.longValue("afk.sample-seconds", 5L, 1L) * 20L);
+        Playtime playtime = new Playtime(
+                in.integer("playtime.evict-after-days", 0, 0),
+                in.bool("playtime.off-heap", false));
+        int nameCacheSize = in.integer("names.cache-size", 2048, 16);
+        String stateFormat = in.string("state.format", "yaml").toLowerCase();
+        if (!stateFormat.equals("yaml") && !stateFormat.equals("binary")) {
+            in.problem("state.format must be yaml or binary; using yaml");
+            stateFormat = "yaml";
+        }
+        Persistence persistence = new Persistence(
+                in.longValue("persistence.autosave-interval-seconds", 300L, 0L),
+                in.bool("persistence.journal.enabled", true),
+                in.longValue("persistence.journal.sync-interval-ms", 200L, 1L),
+                in.longValue("persistence.journal.compact-after-kb", 1024L, 16L) * 1024L);
+
+        Map<String, MessageTemplate> messages = new LinkedHashMap<>();
+        DEFAULT_MESSAGES.forEach((path, fallback) ->
+                messages.put(path, MessageTemplate.compile(color(in.string(path, fallback)))));
+        ConfigurationSection section = config.getConfigurationSection("messages");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                String path = "messages." + key;
+                if (!messages.containsKey(path)) {
+                    messages.put(path, MessageTemplate.compile(color(in.string(path, ""))));
+                }
+            }
+        }
+
+        return new Settings(scoreboard, voting, maxNominations, noConfidence, commandsOnWin, commandBudgetNanos, afk, playtime,
+                nameCacheSize, stateFormat, persistence, Collections.unmodifiableMap(messages),
+                List.copyOf(in.problems));
+    }
+
+    private static Map<String, String> defaultMessages() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("messages.no-election", "&cThere is no active election right now.");
+        defaults.put("messages.not-nominated", "&cThat player is not a nominee.");
+        defaults.put("messages.already-nominated", "&eThat player is already nominated.");
+        defaults.put("messages.created", "&aElection for &f%role% &ahas started and ends in &f%duration%&a.");
+        defaults.put("messages.ended", "&eElection has ended.");
+        defaults.put("messages.vote-accepted", "&aYou voted for &f%candidate%&a.");
+        defaults.put("messages.vote-updated", "&eYou changed your vote to &f%candidate%&e.");
+        defaults.put("messages.vote-received", "&7Vote for &f%candidate% &7received; confirming...");
+        defaults.put("messages.vote-busy", "&cToo many votes are being counted right now. Try again in a moment.");
+        defaults.put("messages.vote-single-choice", "&cThis election takes one choice. Use &f/vote <player>&c.");
+        defaults.put("messages.vote-ranking-duplicate", "&cName each nominee at most once.");
+        defaults.put("messages.vote-score-syntax", "&cScore each nominee from 0 to %max%, e.g. &f/vote Alex:%max% Sam:2&c.");
+        defaults.put("messages.vote-not-scored", "&cThis election does not take scores. Name the nominees only.");
+        defaults.put("messages.cannot-self-nominate", "&cYou cannot nominate yourself.");
+        defaults.put("messages.nomination-success", "&a%target% has been nominated for %role%!");
+        defaults.put("messages.rigged", "&cVotes have been rigged for %winner%.");
+        defaults.put("messages.tie-extended", "&eElection was tied. Extending by 24h for top two candidates.");
+        defaults.put("messages.not-nominee", "&cYou must be a nominee to do that.");
+        defaults.put("messages.nomination-offline", "&cYou can only nominate online players.");
+        defaults.put("messages.platform-set", "&aUpdated your platform: &f%platform%");
+        defaults.put("messages.platform-view", "&bPlatform for &f%target%&b: &f%platform%");
+        defaults.put("messages.platform-missing", "&eThat nominee has not set a platform yet.");
+        defaults.put("messages.nomination-limit", "&cYou cannot nominate more than %max% player(s) this election.");
+        defaults.put("messages.unnominate-success", "&aRemoved nominee %target%.");
+        defaults.put("messages.unnominate-missing", "&cThat player is not a current nominee.");
+        defaults.put("messages.vote-change-limit", "&cYou have reached the vote change limit (%max%).");
+        defaults.put("messages.vote-playtime", "&cYou need %needed% hours of playtime to vote. You have %have% hours.");
+        defaults.put("messages.no-confidence-started", "&eNo confidence vote started against %target% for %role% (%duration%).");
+        defaults.put("messages.no-confidence-unavailable", "&cNo winner is currently in office to challenge.");
+        defaults.put("messages.no-confidence-target", "&cOnly the current winner (%winner%) can face no confidence right now.");
+        defaults.put("messages.no-confidence-passed", "&cNo confidence passed against %target% for %role% with %votes% votes.");
+        defaults.put("messages.no-confidence-failed", "&aNo confidence failed for %role% (%votes%/%needed% votes).");
+        defaults.put("messages.no-confidence-platform", "&cPlatforms are disabled for no confidence votes.");
+        defaults.put("messages.election-unknown", "&cThere is no election called &f%election%&c.");
+        defaults.put("messages.election-ambiguous", "&eSeveral elections match. Name one of: &f%election%");
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    private static String color(String input) {
+        return ChatColor.translateAlternateColorCodes('&', input == null ? "" : input);
+    }
+
+    /**
+     * Typed reads that record a problem and fall back to the default on bad input.
+     */
+    private static final class Reader {
+        private final ConfigurationSection config;
+        private final List<String> problems = new ArrayList<>();
+
+        private Reader(ConfigurationSection config) {
+            this.config = config;
+        }
+
+        private void problem(String message) {
+            problems.add(message);
+        }
+
+        private String string(String path, String fallback) {
+            Object value = config.get(path);
+            if (value == null) {
+                return fallback;
+            }
+            if (value instanceof ConfigurationSection || value instanceof List) {
+                problem(path + " must be text; using the default");
+                return fallback;
+            }
+            return String.valueOf(value);
+        }
+
+        private boolean bool(String path, boolean fallback) {
+            Object value = config.get(path);
+            if (value == null) {
+                return fallback;
+            }
+            if (!(value instanceof Boolean b)) {
+                problem(path + " must be true or false; using " + fallback);
+                return fallback;
+            }
+            return b;
+        }
+
+        private int integer(String path, int fallback, int min) {
+            return (int) Math.min(Integer.MAX_VALUE, longValue(path, fallback, min));
+        }
+
+        private long longValue(String path, long fallback, long min) {
+            Object value = config.get(path);
+            if (value == null) {
+                return fallback;
+            }
+            if (!(value instanceof Integer || value instanceof Long)) {
+                problem(path + " must be a whole number; using " + fallback);
+                return fallback;
+            }
+            long number = ((Number) value).longValue();
+            if (number < min) {
+                problem(path + " must be at least " + min + "; using " + fallback);
+                return fallback;
+            }
+            return number;
+        }
+
+        private Duration duration(String path, Duration fallback) {
+            String raw = string(path, null);
+            if (raw == null) {
+                return fallback;
+            }
+            Optional<Duration> parsed = DurationUtil.parseDuration(raw);
+            if (parsed.isEmpty()) {
+                problem(path + " is not a duration like 24h or 1d12h; using " + DurationUtil.format(fallback));
+                return fallback;
+            }
+            return parsed.get();
+        }
+
+        private List<MessageTemplate> commands(String path) {
+            List<MessageTemplate> commands = new ArrayList<>();
+            for (String command : list(path)) {
+                commands.add(MessageTemplate.compile(command));
+            }
+            return List.copyOf(commands);
+        }
+
+        private List<String> list(String path) {
+            Object value = config.get(path);
+            if (value == null) {
+                return List.of();
+            }
+            if (!(value instanceof List<?>)) {
+                problem(path + " must be a list; ignoring it");
+                return List.of();
+            }
+            return List.copyOf(config.getStringList(path));
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package me.codex.elections.model;
 
+import me.codex.elections.tally.BallotBox;
+
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
 
+/**
+ * One election's live state. Not thread-safe: only the main thread reads or changes it (see
+ * {@link me.codex.elections.service.ElectionManager}); other threads read an
+ * {@link ElectionView}.
+ */
 public class Election {
 
     public enum Status {
@@ -17,35 +25,233 @@ public class Election {
         NO_CONFIDENCE
     }
 
+    /**
+     * How ballots are counted. Plurality ballots hold one choice; the ranked methods take
+     * several, most preferred first; approval and score ballots mark each candidate on its own.
+     */
+    public enum Method {
+        PLURALITY("plurality"),
+        INSTANT_RUNOFF("irv"),
+        SINGLE_TRANSFERABLE_VOTE("stv"),
+        APPROVAL("approval"),
+        SCORE("score");
+
+        private final String key;
+
+        Method(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return the name used for this method in commands
+         */
+        public String key() {
+            return key;
+        }
+
+        public boolean isRanked() {
+            return this == INSTANT_RUNOFF || this == SINGLE_TRANSFERABLE_VOTE;
+        }
+
+        /**
+         * @return whether ballots are kept as marks (approvals or scores) per candidate
+         */
+        public boolean isRated() {
+            return this == APPROVAL || this == SCORE;
+        }
+
+        /**
+         * @return the method with this command name, or null
+         */
+        public static Method byKey(String key) {
+            for (Method method : values()) {
+                if (method.key.equalsIgnoreCase(key)) {
+                    return method;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Highest score a voter may give one candidate in a {@link Method#SCORE} election. */
+    public static final int MAX_SCORE = 5;
+
+    private static final String NO_CONFIDENCE_PREFIX = "no-confidence-";
+
+    private final String id;
     private final String role;
     private final Instant startedAt;
     private Instant endsAt;
     private Status status = Status.ACTIVE;
     private final LinkedHashSet<UUID> nominees = new LinkedHashSet<>();
-    private final Map<UUID, UUID> votes = new HashMap<>();
+    private final ParticipantIds ids;
+    /** Per participant id: the backed (first-choice) candidate's id + 1, or 0 for no ballot. */
+    private int[] ballots = new int[64];
+    /** Per participant id: later preferences of a ranked ballot as candidate ids, or null. */
+    private int[][] rankings = new int[64][];
+    /** Per participant id: the candidate's slot + 1 in approval and score ballots, or 0. */
+    private int[] slotOf = new int[64];
+    /** Per slot: the candidate's participant id. Slots are handed out on first mark and never reused. */
+    private int[] slotCandidates = new int[16];
+    private int slots = 0;
+    /** Approval elections, per participant id: approved candidates as a bitset over slots, or null. */
+    private long[][] approvals = new long[64][];
+    /** Score elections, per participant id: each slot's score + 1 (0 = not scored), or null. */
+    private byte[][] scores = new byte[64][];
+    /** Per participant id: how often they changed their vote. */
+    private short[] changes = new short[64];
+    /**
+     * Per participant id: ballots backing them as a candidate. In approval and score elections,
+     * their approvals or the sum of their scores, kept current as ballots change.
+     */
+    private long[] tallies = new long[64];
+    /**
+     * The first {@code talliedCount} entries: participant ids of candidates with at least one
+     * ballot, in the order they received their first one.
+     */
+    private int[] tallied = new int[16];
+    private int talliedCount = 0;
+    /** Per nominator id: the ids of everyone they nominated, or null. */
+    private BitSet[] nominations = new BitSet[64];
+    private long totalVotes = 0L;
+    private int changedVoters = 0;
     private final Map<UUID, String> platforms = new HashMap<>();
-    private final Map<UUID, Set<UUID>> nominationsBy = new HashMap<>();
-    private final Map<UUID, Integer> voteChanges = new HashMap<>();
+    private final Map<UUID, UUID> votesView = new VotesView();
+    private final Map<UUID, Integer> changesView = new ChangesView();
     private final Type type;
-    private UUID winner;
+    private final Method method;
+    private final int seats;
+    private List<UUID> winners = List.of();
     private boolean commandsRan = false;
     private boolean announcedFinished = false;
+    /** Bumped by every change, so a published {@link ElectionView} can tell when it is stale. */
+    private long version;
 
     public Election(String role, Instant endsAt) {
         this(role, endsAt, Type.REGULAR);
     }
 
     public Election(String role, Instant endsAt, Type type) {
+        this(role, endsAt, type, Method.PLURALITY, 1);
+    }
+
+    public Election(String role, Instant endsAt, Type type, Method method, int seats) {
+        this.id = idFor(role, type);
         this.role = role;
         this.startedAt = Instant.now();
         this.endsAt = endsAt;
         this.type = type;
+        this.method = method;
+        this.seats = Math.max(1, seats);
+        this.ids = new ParticipantIds();
+    }
+
+    /**
+     * Copies the primitive ballot arrays; per-voter rows are replaced rather than changed in
+     * place, so only the outer arrays and the nomination bitsets need cloning.
+     */
+    private Election(Election source) {
+        this.id = source.id;
+        this.role = source.role;
+        this.startedAt = source.startedAt;
+        this.endsAt = source.endsAt;
+        this.status = source.status;
+        this.nominees.addAll(source.nominees);
+        this.ids = source.ids.copy();
+        this.ballots = source.ballots.clone();
+        this.rankings = source.rankings.clone();
+        this.slotOf = source.slotOf.clone();
+        this.slotCandidates = source.slotCandidates.clone();
+        this.slots = source.slots;
+        this.approvals = source.approvals.clone();
+        this.scores = source.scores.clone();
+        this.changes = source.changes.clone();
+        this.tallies = source.tallies.clone();
+        this.tallied = source.tallied.clone();
+        this.talliedCount = source.talliedCount;
+        this.nominations = source.nominations.clone();
+        for (int by = 0; by < nominations.length; by++) {
+            if (nominations[by] != null) {
+                nominations[by] = (BitSet) nominations[by].clone();
+            }
+        }
+        this.totalVotes = source.totalVotes;
+        this.changedVoters = source.changedVoters;
+        this.platforms.putAll(source.platforms);
+        this.type = source.type;
+        this.method = source.method;
+        this.seats = source.seats;
+        this.winners = source.winners;
+        this.commandsRan = source.commandsRan;
+        this.announcedFinished = source.announcedFinished;
+        this.version = source.version;
+    }
+
+    /**
+     * A detached copy for the save thread, which reads it through the usual getters while the
+     * main thread goes on changing this one. Nothing is boxed here.
+     */
+    public Election copy() {
+        return new Election(this);
+    }
+
+    /**
+     * @return the key this election is registered and addressed under in commands
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return how many changes this election has seen since it was created
+     */
+    public long getVersion() {
+        return version;
     }
 
     public String getRole() {
         return role;
     }
 
+    /**
+     * Command-friendly key for an election: the role in lower case, with each run of characters
+     * other than letters and digits collapsed to one dash, so "Town Council (Ashford)" becomes
+     * "town-council-ashford". No-confidence votes are prefixed with {@code no-confidence-} so they
+     * never collide with a regular election for the same role; roles whose own id starts that
+     * way are {@linkplain #isReservedRole reserved}.
+     */
+    public static String idFor(String role, Type type) {
+        String id = idFor(role);
+        return type == Type.NO_CONFIDENCE ? NO_CONFIDENCE_PREFIX + id : id;
+    }
+
+    /**
+     * @return whether a regular election for {@code role} would take an id of the kind given to
+     *         no-confidence votes, such as "No Confidence Judge" taking the id of a no-confidence
+     *         vote on the judge
+     */
+    public static boolean isReservedRole(String role) {
+        return idFor(role).startsWith(NO_CONFIDENCE_PREFIX);
+    }
+
+    private static String idFor(String role) {
+        StringBuilder id = new StringBuilder(role.length());
+        boolean dash = false;
+        for (int i = 0; i < role.length(); i++) {
+            char c = Character.toLowerCase(role.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (dash && id.length() > 0) {
+                    id.append('-');
+                }
+                id.append(c);
+                dash = false;
+            } else {
+                dash = true;
+            }
+        }
+        return id.length() > 0 ? id.toString() : "election";
+    }
+
     public Instant getStartedAt() {
         return startedAt;
     }
@@ -55,6 +261,7 @@ public class Election {
     }
 
     public void setEndsAt(Instant endsAt) {
+        version++;
         this.endsAt = endsAt;
     }
 
@@ -63,15 +270,32 @@ public class Election {
     }
 
     public void setStatus(Status status) {
+        version++;
         this.status = status;
     }
 
+    /**
+     * @return the first elected winner
+     */
     public Optional<UUID> getWinner() {
-        return Optional.ofNullable(winner);
+        return winners.isEmpty() ? Optional.empty() : Optional.of(winners.get(0));
+    }
+
+    /**
+     * @return every winner, in the order they were elected
+     */
+    public List<UUID> getWinners() {
+        return winners;
     }
 
     public void setWinner(UUID winner) {
-        this.winner = winner;
+        version++;
+        this.winners = winner == null ? List.of() : List.of(winner);
+    }
+
+    public void setWinners(List<UUID> winners) {
+        version++;
+        this.winners = List.copyOf(winners);
     }
 
     public boolean isActive() {
@@ -82,6 +306,14 @@ public class Election {
         return type;
     }
 
+    public Method getMethod() {
+        return method;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
     public Duration getRemaining(Instant now) {
         if (status == Status.FINISHED) {
             return Duration.ZERO;
@@ -97,59 +329,123 @@ public class Election {
     }
 
     public boolean addNominee(UUID nominee) {
+        version++;
         return nominees.add(nominee);
     }
 
     public void setNominees(List<UUID> nominees) {
+        version++;
         this.nominees.clear();
         this.nominees.addAll(nominees);
     }
 
     public boolean removeNominee(UUID nominee) {
+        version++;
         boolean removed = this.nominees.remove(nominee);
         if (removed) {
-            this.votes.entrySet().removeIf(entry -> entry.getValue().equals(nominee));
+            int candidate = ids.find(nominee);
+            if (candidate >= 0) {
+                for (int voter = 0; voter < ids.size(); voter++) {
+                    if (ballots[voter] != 0) {
+                        prune(voter);
+                    }
+                }
+                for (BitSet set : nominations) {
+                    if (set != null) {
+                        set.clear(candidate);
+                    }
+                }
+            }
             this.platforms.remove(nominee);
-            this.nominationsBy.values().forEach(set -> set.remove(nominee));
         }
         return removed;
     }
 
     public void recordNomination(UUID nominator, UUID nominee) {
-        this.nominationsBy.computeIfAbsent(nominator, k -> new HashSet<>()).add(nominee);
+        version++;
+        int by = intern(nominator);
+        int target = intern(nominee);
+        if (nominations[by] == null) {
+            nominations[by] = new BitSet();
+        }
+        nominations[by].set(target);
     }
 
     public int getNominationCount(UUID nominator) {
-        return this.nominationsBy.getOrDefault(nominator, Collections.emptySet()).size();
+        int by = ids.find(nominator);
+        return by < 0 || nominations[by] == null ? 0 : nominations[by].cardinality();
     }
 
+    /**
+     * A detached copy; the election keeps nominations as bitsets.
+     */
     public Map<UUID, Set<UUID>> getNominationsBy() {
-        return Collections.unmodifiableMap(nominationsBy);
+        Map<UUID, Set<UUID>> copy = new HashMap<>();
+        for (int by = 0; by < ids.size(); by++) {
+            BitSet set = nominations[by];
+            if (set == null || set.isEmpty()) {
+                continue;
+            }
+            Set<UUID> targets = new HashSet<>();
+            set.stream().forEach(target -> targets.add(ids.uuid(target)));
+            copy.put(ids.uuid(by), targets);
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
     public void setNominationsBy(Map<UUID, Set<UUID>> data) {
-        this.nominationsBy.clear();
-        data.forEach((k, v) -> this.nominationsBy.put(k, new HashSet<>(v)));
+        version++;
+        Arrays.fill(nominations, null);
+        data.forEach((nominator, targets) -> targets.forEach(target -> recordNomination(nominator, target)));
     }
 
     public int getVoteChanges(UUID voter) {
-        return voteChanges.getOrDefault(voter, 0);
+        int id = ids.find(voter);
+        return id < 0 ? 0 : changes[id];
     }
 
     public void incrementVoteChange(UUID voter) {
-        voteChanges.put(voter, getVoteChanges(voter) + 1);
+        version++;
+        int id = intern(voter);
+        if (changes[id] == 0) {
+            changedVoters++;
+        }
+        if (changes[id] < Short.MAX_VALUE) {
+            changes[id]++;
+        }
+    }
+
+    public void setVoteChanges(UUID voter, int count) {
+        version++;
+        int id = count > 0 ? intern(voter) : ids.find(voter);
+        if (id < 0) {
+            return;
+        }
+        short value = (short) Math.max(0, Math.min(Short.MAX_VALUE, count));
+        if (changes[id] == 0 && value != 0) {
+            changedVoters++;
+        } else if (changes[id] != 0 && value == 0) {
+            changedVoters--;
+        }
+        changes[id] = value;
     }
 
     public void setVoteChanges(Map<UUID, Integer> data) {
-        this.voteChanges.clear();
-        this.voteChanges.putAll(data);
+        version++;
+        Arrays.fill(changes, (short) 0);
+        changedVoters = 0;
+        data.forEach(this::setVoteChanges);
     }
 
+    /**
+     * Read-only view over the per-voter change counters.
+     */
     public Map<UUID, Integer> getVoteChanges() {
-        return Collections.unmodifiableMap(voteChanges);
+        return changesView;
     }
 
     public void setPlatform(UUID nominee, String platform) {
+        version++;
         this.platforms.put(nominee, platform);
     }
 
@@ -162,10 +458,12 @@ public class Election {
     }
 
     public void prunePlatformsForNonNominees() {
+        version++;
         platforms.keySet().removeIf(id -> !nominees.contains(id));
     }
 
     public void extend(Duration duration) {
+        version++;
         this.endsAt = this.endsAt.plus(duration);
     }
 
@@ -173,26 +471,463 @@ public class Election {
         return nominees.contains(nominee);
     }
 
+    /**
+     * Read-only view over the ballot array; lookups are O(1), iteration walks every participant.
+     */
     public Map<UUID, UUID> getVotes() {
-        return votes;
+        return votesView;
+    }
+
+    public Optional<UUID> getVote(UUID voter) {
+        int id = ids.find(voter);
+        return id < 0 || ballots[id] == 0 ? Optional.empty() : Optional.of(ids.uuid(ballots[id] - 1));
+    }
+
+    /**
+     * @return the voter's full ballot, most preferred first; empty if they have not voted
+     */
+    public List<UUID> getRanking(UUID voter) {
+        int id = ids.find(voter);
+        if (id < 0 || ballots[id] == 0) {
+            return List.of();
+        }
+        int[] later = rankings[id];
+        if (later == null) {
+            return List.of(ids.uuid(ballots[id] - 1));
+        }
+        List<UUID> ranking = new ArrayList<>(later.length + 1);
+        ranking.add(ids.uuid(ballots[id] - 1));
+        for (int candidate : later) {
+            ranking.add(ids.uuid(candidate));
+        }
+        return ranking;
+    }
+
+    /**
+     * Ballots ranking more than one candidate, as a detached copy of full rankings. Voters
+     * with a single choice appear only in {@link #getVotes()}.
+     */
+    public Map<UUID, List<UUID>> getRankings() {
+        Map<UUID, List<UUID>> copy = new HashMap<>();
+        for (int voter = 0; voter < ids.size(); voter++) {
+            if (ballots[voter] != 0 && rankings[voter] != null) {
+                copy.put(ids.uuid(voter), getRanking(ids.uuid(voter)));
+            }
+        }
+        return copy;
+    }
+
+    public void setRankings(Map<UUID, List<UUID>> data) {
+        data.forEach(this::castRanking);
+    }
+
+    /**
+     * Records a single-choice ballot and keeps the per-candidate tallies in step.
+     *
+     * @return the candidate the voter previously backed first, or null
+     */
+    public UUID castVote(UUID voter, UUID candidate) {
+        return castRanking(voter, List.of(candidate));
+    }
+
+    /**
+     * Records a ranked ballot, replacing any earlier one. Only the first choice counts
+     * towards {@link #getVoteCount}; later ones are kept for the tally.
+     *
+     * @return the candidate the voter previously backed first, or null
+     */
+    public UUID castRanking(UUID voter, List<UUID> ranking) {
+        version++;
+        if (method.isRated()) {
+            // Approves, or gives full marks to, every listed candidate.
+            Map<UUID, Integer> marks = new LinkedHashMap<>();
+            ranking.forEach(candidate -> marks.put(candidate, method == Method.SCORE ? MAX_SCORE : 1));
+            return castMarks(voter, marks);
+        }
+        int v = intern(voter);
+        int c = intern(ranking.get(0));
+        int[] later = null;
+        if (ranking.size() > 1) {
+            later = new int[ranking.size() - 1];
+            for (int i = 1; i < ranking.size(); i++) {
+                later[i - 1] = intern(ranking.get(i));
+            }
+        }
+        rankings[v] = later;
+        int previous = ballots[v];
+        if (previous == c + 1) {
+            return ranking.get(0);
+        }
+        if (previous != 0) {
+            untally(previous - 1);
+        } else {
+            totalVotes++;
+        }
+        ballots[v] = c + 1;
+        tally(c);
+        return previous == 0 ? null : ids.uuid(previous - 1);
+    }
+
+    /**
+     * The voter's approvals (each marked 1) or scores, in slot order; empty if they have not
+     * voted or the election is not an approval or score election.
+     */
+    public Map<UUID, Integer> getMarks(UUID voter) {
+        int id = ids.find(voter);
+        Map<UUID, Integer> marks = new LinkedHashMap<>();
+        if (id < 0 || ballots[id] == 0) {
+            return marks;
+        }
+        long[] words = approvals[id];
+        if (words != null) {
+            for (int w = 0; w < words.length; w++) {
+                for (long bits = words[w]; bits != 0L; bits &= bits - 1) {
+                    marks.put(ids.uuid(slotCandidates[(w << 6) + Long.numberOfTrailingZeros(bits)]), 1);
+                }
+            }
+        }
+        byte[] row = scores[id];
+        if (row != null) {
+            for (int slot = 0; slot < row.length; slot++) {
+                if (row[slot] != 0) {
+                    marks.put(ids.uuid(slotCandidates[slot]), row[slot] - 1);
+                }
+            }
+        }
+        return marks;
+    }
+
+    /**
+     * A detached copy of every approval or score ballot.
+     */
+    public Map<UUID, Map<UUID, Integer>> getAllMarks() {
+        Map<UUID, Map<UUID, Integer>> copy = new HashMap<>();
+        for (int voter = 0; voter < ids.size(); voter++) {
+            if (ballots[voter] != 0 && (approvals[voter] != null || scores[voter] != null)) {
+                copy.put(ids.uuid(voter), getMarks(ids.uuid(voter)));
+            }
+        }
+        return copy;
+    }
+
+    public void setMarks(Map<UUID, Map<UUID, Integer>> data) {
+        data.forEach(this::castMarks);
+    }
+
+    /**
+     * Records an approval or score ballot, replacing any earlier one, and moves the
+     * per-candidate sums by the difference. For approval elections every listed candidate is
+     * approved whatever its value; scores are clamped to {@code 0..}{@link #MAX_SCORE}. The
+     * ballot's first approved, or highest scored, candidate stands in for it in
+     * {@link #getVotes()}.
+     *
+     * @return the candidate that previously stood in for the voter's ballot, or null
+     */
+    public UUID castMarks(UUID voter, Map<UUID, Integer> marks) {
+        version++;
+        int v = intern(voter);
+        int[] candidates = new int[marks.size()];
+        int[] values = new int[marks.size()];
+        int n = 0;
+        for (Map.Entry<UUID, Integer> mark : marks.entrySet()) {
+            candidates[n] = intern(mark.getKey());
+            values[n++] = method == Method.SCORE ? Math.max(0, Math.min(MAX_SCORE, mark.getValue())) : 1;
+        }
+        int[] marked = new int[n];
+        for (int i = 0; i < n; i++) {
+            marked[i] = slot(candidates[i]);
+        }
+        int previous = ballots[v];
+        clearMarks(v);
+        if (n == 0) {
+            if (previous != 0) {
+                ballots[v] = 0;
+                totalVotes--;
+            }
+            return previous == 0 ? null : ids.uuid(previous - 1);
+        }
+        int headline = 0;
+        if (method == Method.SCORE) {
+            byte[] row = new byte[slots];
+            for (int i = 0; i < n; i++) {
+                row[marked[i]] = (byte) (values[i] + 1);
+                add(candidates[i], values[i]);
+                if (values[i] > values[headline]) {
+                    headline = i;
+                }
+            }
+            scores[v] = row;
+        } else {
+            long[] words = new long[(slots + 63) >>> 6];
+            for (int i = 0; i < n; i++) {
+                words[marked[i] >>> 6] |= 1L << marked[i];
+                add(candidates[i], 1);
+            }
+            approvals[v] = words;
+        }
+        if (previous == 0) {
+            totalVotes++;
+        }
+        ballots[v] = candidates[headline] + 1;
+        return previous == 0 ? null : ids.uuid(previous - 1);
+    }
+
+    /**
+     * Takes one voter's approvals or scores back out of the per-candidate sums.
+     */
+    private void clearMarks(int voter) {
+        long[] words = approvals[voter];
+        if (words != null) {
+            for (int w = 0; w < words.length; w++) {
+                for (long bits = words[w]; bits != 0L; bits &= bits - 1) {
+                    add(slotCandidates[(w << 6) + Long.numberOfTrailingZeros(bits)], -1);
+                }
+            }
+            approvals[voter] = null;
+        }
+        byte[] row = scores[voter];
+        if (row != null) {
+            for (int slot = 0; slot < row.length; slot++) {
+                if (row[slot] > 1) {
+                    add(slotCandidates[slot], -(row[slot] - 1));
+                }
+            }
+            scores[voter] = null;
+        }
+    }
+
+    private int slot(int candidate) {
+        if (slotOf[candidate] == 0) {
+            if (slots == slotCandidates.length) {
+                slotCandidates = Arrays.copyOf(slotCandidates, slots * 2);
+            }
+            slotCandidates[slots] = candidate;
+            slotOf[candidate] = ++slots;
+        }
+        return slotOf[candidate] - 1;
+    }
+
+    /**
+     * Copies every ballot into a {@link BallotBox} for counting, with candidates numbered in
+     * nomination order. Preferences for candidates who are no longer nominated are skipped.
+     * Approval and score elections hand over their running sums instead of the ballots.
+     */
+    public BallotBox ballotBox() {
+        List<UUID> candidates = new ArrayList<>(nominees);
+        if (method.isRated()) {
+            long[] totals = new long[candidates.size()];
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = getVoteCount(candidates.get(i));
+            }
+            return new BallotBox.Builder(candidates, 0).totals(totals).build();
+        }
+        int[] index = new int[ids.size()];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < candidates.size(); i++) {
+            int id = ids.find(candidates.get(i));
+            if (id >= 0) {
+                index[id] = i;
+            }
+        }
+        BallotBox.Builder box = new BallotBox.Builder(candidates, (int) totalVotes);
+        int[] ranking = new int[candidates.size()];
+        for (int voter = 0; voter < ids.size(); voter++) {
+            if (ballots[voter] == 0) {
+                continue;
+            }
+            int length = 0;
+            int first = index[ballots[voter] - 1];
+            if (first >= 0) {
+                ranking[length++] = first;
+            }
+            int[] later = rankings[voter];
+            if (later != null) {
+                for (int id : later) {
+                    if (index[id] >= 0 && length < ranking.length) {
+                        ranking[length++] = index[id];
+                    }
+                }
+            }
+            box.add(ranking, length);
+        }
+        return box.build();
+    }
+
+    public void setVotes(Map<UUID, UUID> data) {
+        version++;
+        Arrays.fill(ballots, 0);
+        Arrays.fill(rankings, null);
+        Arrays.fill(approvals, null);
+        Arrays.fill(scores, null);
+        Arrays.fill(tallies, 0L);
+        talliedCount = 0;
+        totalVotes = 0L;
+        data.forEach(this::castVote);
+    }
+
+    /**
+     * Moves every existing ballot to the given candidate.
+     */
+    public void rigVotes(UUID candidate) {
+        version++;
+        if (method.isRated()) {
+            Map<UUID, Integer> only = Map.of(candidate, method == Method.SCORE ? MAX_SCORE : 1);
+            for (int voter = 0; voter < ids.size(); voter++) {
+                if (ballots[voter] != 0) {
+                    castMarks(ids.uuid(voter), only);
+                }
+            }
+            return;
+        }
+        int c = intern(candidate);
+        for (int voter = 0; voter < ids.size(); voter++) {
+            if (ballots[voter] != 0) {
+                ballots[voter] = c + 1;
+            }
+        }
+        Arrays.fill(rankings, null);
+        Arrays.fill(tallies, 0L);
+        talliedCount = 0;
+        if (totalVotes > 0) {
+            tallies[c] = totalVotes;
+            markTallied(c);
+        }
+    }
+
+    public long getVoteCount(UUID candidate) {
+        int id = ids.find(candidate);
+        return id < 0 ? 0L : tallies[id];
+    }
+
+    public long getTotalVotes() {
+        return totalVotes;
     }
 
     public Map<UUID, Long> getVoteCounts() {
-        return votes.values().stream()
-                .collect(Collectors.groupingBy(v -> v, LinkedHashMap::new, Collectors.counting()));
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < talliedCount; i++) {
+            counts.put(ids.uuid(tallied[i]), tallies[tallied[i]]);
+        }
+        return counts;
     }
 
     public List<UUID> getLeaders() {
-        Map<UUID, Long> counts = getVoteCounts();
-        long max = counts.values().stream().mapToLong(v -> v).max().orElse(0L);
-        return counts.entrySet().stream()
-                .filter(entry -> entry.getValue() == max)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        long max = 0L;
+        for (int i = 0; i < talliedCount; i++) {
+            max = Math.max(max, tallies[tallied[i]]);
+        }
+        List<UUID> leaders = new ArrayList<>();
+        if (max == 0L) {
+            return leaders;
+        }
+        for (int i = 0; i < talliedCount; i++) {
+            if (tallies[tallied[i]] == max) {
+                leaders.add(ids.uuid(tallied[i]));
+            }
+        }
+        return leaders;
     }
 
     public void clearVotesForNonNominees() {
-        votes.entrySet().removeIf(entry -> !nominees.contains(entry.getValue()));
+        for (int voter = 0; voter < ids.size(); voter++) {
+            if (ballots[voter] != 0) {
+                prune(voter);
+            }
+        }
+    }
+
+    /**
+     * Drops candidates who are no longer nominated from one ballot. If the first choice goes,
+     * the next remaining preference takes its place; a ballot with none left is discarded.
+     */
+    private void prune(int voter) {
+        version++;
+        if (method.isRated()) {
+            Map<UUID, Integer> marks = getMarks(ids.uuid(voter));
+            if (marks.keySet().removeIf(candidate -> !nominees.contains(candidate))) {
+                castMarks(ids.uuid(voter), marks);
+            }
+            return;
+        }
+        int first = ballots[voter] - 1;
+        int[] later = rankings[voter];
+        boolean keepFirst = nominees.contains(ids.uuid(first));
+        if (keepFirst && later == null) {
+            return;
+        }
+        int[] kept = later == null ? new int[0] : Arrays.stream(later)
+                .filter(id -> nominees.contains(ids.uuid(id)))
+                .toArray();
+        if (keepFirst) {
+            rankings[voter] = kept.length > 0 ? kept : null;
+            return;
+        }
+        untally(first);
+        if (kept.length == 0) {
+            ballots[voter] = 0;
+            rankings[voter] = null;
+            totalVotes--;
+            return;
+        }
+        ballots[voter] = kept[0] + 1;
+        tally(kept[0]);
+        rankings[voter] = kept.length > 1 ? Arrays.copyOfRange(kept, 1, kept.length) : null;
+    }
+
+    private void tally(int candidate) {
+        add(candidate, 1);
+    }
+
+    private void untally(int candidate) {
+        add(candidate, -1);
+    }
+
+    private void add(int candidate, long delta) {
+        long before = tallies[candidate];
+        long after = Math.max(0L, before + delta);
+        tallies[candidate] = after;
+        if (before == 0L && after != 0L) {
+            markTallied(candidate);
+        } else if (before != 0L && after == 0L) {
+            unmarkTallied(candidate);
+        }
+    }
+
+    private void markTallied(int candidate) {
+        if (talliedCount == tallied.length) {
+            tallied = Arrays.copyOf(tallied, talliedCount * 2);
+        }
+        tallied[talliedCount++] = candidate;
+    }
+
+    /**
+     * Removes a candidate whose tally dropped to zero, keeping the others in order. The list
+     * only holds candidates with ballots, so the scan is short.
+     */
+    private void unmarkTallied(int candidate) {
+        for (int i = 0; i < talliedCount; i++) {
+            if (tallied[i] == candidate) {
+                System.arraycopy(tallied, i + 1, tallied, i, talliedCount - i - 1);
+                talliedCount--;
+                return;
+            }
+        }
+    }
+
+    private int intern(UUID player) {
+        int id = ids.intern(player);
+        if (id >= ballots.length) {
+            int capacity = Math.max(id + 1, ballots.length * 2);
+            ballots = Arrays.copyOf(ballots, capacity);
+            rankings = Arrays.copyOf(rankings, capacity);
+            slotOf = Arrays.copyOf(slotOf, capacity);
+            approvals = Arrays.copyOf(approvals, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            changes = Arrays.copyOf(changes, capacity);
+            tallies = Arrays.copyOf(tallies, capacity);
+            nominations = Arrays.copyOf(nominations, capacity);
+        }
+        return id;
     }
 
     public boolean haveCommandsRun() {
@@ -200,10 +935,12 @@ public class Election {
     }
 
     public void markCommandsRan() {
+        version++;
         this.commandsRan = true;
     }
 
     public void setCommandsRan(boolean ran) {
+        version++;
         this.commandsRan = ran;
     }
 
@@ -212,10 +949,116 @@ public class Election {
     }
 
     public void markAnnouncedFinished() {
+        version++;
         this.announcedFinished = true;
     }
 
     public void setAnnouncedFinished(boolean value) {
+        version++;
         this.announcedFinished = value;
     }
+
+    private final class VotesView extends AbstractMap<UUID, UUID> {
+        @Override
+        public UUID get(Object voter) {
+            int id = ids.find(voter);
+            return id < 0 || ballots[id] == 0 ? null : ids.uuid(ballots[id] - 1);
+        }
+
+        @Override
+        public boolean containsKey(Object voter) {
+            return get(voter) != null;
+        }
+
+        @Override
+        public int size() {
+            return (int) totalVotes;
+        }
+
+        @Override
+        public Set<Entry<UUID, UUID>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<UUID, UUID>> iterator() {
+                    return new SlotIterator<>(id -> ballots[id] != 0,
+                            id -> new SimpleImmutableEntry<>(ids.uuid(id), ids.uuid(ballots[id] - 1)));
+                }
+
+                @Override
+                public int size() {
+                    return (int) totalVotes;
+                }
+            };
+        }
+    }
+
+    private final class ChangesView extends AbstractMap<UUID, Integer> {
+        @Override
+        public Integer get(Object voter) {
+            int id = ids.find(voter);
+            return id < 0 || changes[id] == 0 ? null : (int) changes[id];
+        }
+
+        @Override
+        public boolean containsKey(Object voter) {
+            return get(voter) != null;
+        }
+
+        @Override
+        public int size() {
+            return changedVoters;
+        }
+
+        @Override
+        public Set<Entry<UUID, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<UUID, Integer>> iterator() {
+                    return new SlotIterator<>(id -> changes[id] != 0,
+                            id -> new SimpleImmutableEntry<>(ids.uuid(id), (int) changes[id]));
+                }
+
+                @Override
+                public int size() {
+                    return changedVoters;
+                }
+            };
+        }
+    }
+
+    /**
+     * Walks participant ids, yielding an entry for each slot that passes {@code present}.
+     */
+    private final class SlotIterator<T> implements Iterator<T> {
+        private final IntPredicate present;
+        private final IntFunction<T> entry;
+        private int next = -1;
+
+        private SlotIterator(IntPredicate present, IntFunction<T> entry) {
+            this.present = present;
+            this.entry = entry;
+            advance();
+        }
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < ids.size() && !present.test(next));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < ids.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T value = entry.apply(next);
+            advance();
+            return value;
+        }
+    }
 }
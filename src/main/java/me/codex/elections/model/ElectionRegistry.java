@@ -0,0 +1,176 @@
+package me.codex.elections.model;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The elections currently held, keyed by {@link Election#getId()}, with a reverse index from
+ * each nominee to the elections they stand in. Lookups are one hash probe regardless of how
+ * many elections are live.
+ * <p>
+ * Nominations that should be indexed go through {@link #addNominee}; after changing an
+ * election's nominees in bulk (ties, rigging, removals, replay), call {@link #reindex}. Main
+ * thread only.
+ */
+public final class ElectionRegistry {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<UUID, List<Election>> byNominee = new HashMap<>();
+    private final Collection<Election> view = Collections.unmodifiableCollection(new ElectionsView());
+
+    /**
+     * @return false if an election with the same id is already registered
+     */
+    public boolean add(Election election) {
+        if (entries.containsKey(election.getId())) {
+            return false;
+        }
+        Entry entry = new Entry(election);
+        entries.put(election.getId(), entry);
+        index(entry);
+        return true;
+    }
+
+    public Election remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return null;
+        }
+        unindex(entry);
+        return entry.election;
+    }
+
+    public Election get(String id) {
+        Entry entry = id == null ? null : entries.get(id);
+        return entry != null ? entry.election : null;
+    }
+
+    /**
+     * @return the only registered election, or null when there are none or several
+     */
+    public Election only() {
+        return entries.size() == 1 ? entries.values().iterator().next().election : null;
+    }
+
+    /**
+     * @return registered elections in creation order, as a read-only live view
+     */
+    public Collection<Election> all() {
+        return view;
+    }
+
+    public Collection<String> ids() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return elections where {@code nominee} stands, in the order they were nominated
+     */
+    public List<Election> nominatedIn(UUID nominee) {
+        List<Election> elections = byNominee.get(nominee);
+        return elections != null ? Collections.unmodifiableList(elections) : List.of();
+    }
+
+    public boolean addNominee(Election election, UUID nominee) {
+        boolean added = election.addNominee(nominee);
+        Entry entry = entries.get(election.getId());
+        if (added && entry != null && entry.election == election) {
+            link(byNominee, nominee, election);
+            entry.nominees.add(nominee);
+        }
+        return added;
+    }
+
+    /**
+     * Rebuilds the index entries for one election from its current nominees.
+     */
+    public void reindex(Election election) {
+        Entry entry = entries.get(election.getId());
+        if (entry == null || entry.election != election) {
+            return;
+        }
+        unindex(entry);
+        index(entry);
+    }
+
+    private void index(Entry entry) {
+        Election election = entry.election;
+        for (UUID nominee : election.getNominees()) {
+            link(byNominee, nominee, election);
+            entry.nominees.add(nominee);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (UUID nominee : entry.nominees) {
+            unlink(byNominee, nominee, entry.election);
+        }
+        entry.nominees.clear();
+    }
+
+    private static void link(Map<UUID, List<Election>> index, UUID player, Election election) {
+        List<Election> elections = index.computeIfAbsent(player, id -> new ArrayList<>(2));
+        if (!elections.contains(election)) {
+            elections.add(election);
+        }
+    }
+
+    private static void unlink(Map<UUID, List<Election>> index, UUID player, Election election) {
+        List<Election> elections = index.get(player);
+        if (elections != null && elections.remove(election) && elections.isEmpty()) {
+            index.remove(player);
+        }
+    }
+
+    /**
+     * The nominees indexed for one election, so it can be unindexed without scanning the
+     * other elections' players.
+     */
+    private static final class Entry {
+        private final Election election;
+        private final List<UUID> nominees = new ArrayList<>();
+
+        private Entry(Election election) {
+            this.election = election;
+        }
+    }
+
+    private final class ElectionsView extends AbstractCollection<Election> {
+        @Override
+        public Iterator<Election> iterator() {
+            Iterator<Entry> it = entries.values().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Election next() {
+                    return it.next().election;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+}
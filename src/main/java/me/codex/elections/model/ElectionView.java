@@ -0,0 +1,43 @@
+package me.codex.elections.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable copy of what an election shows to the outside: its settings, nominees,
+ * platforms, running totals and result. Views are published by the main thread and may be read
+ * from any thread; {@link #version()} grows with every change to the election, so a reader
+ * holding two views of the same election can tell which is newer.
+ *
+ * @param voteCounts per nominee with at least one ballot: ballots backing them, or their
+ *                   approvals or score total, in the order they were first backed
+ */
+public record ElectionView(String id, String role, Election.Type type, Election.Method method, int seats,
+                           Election.Status status, Instant startedAt, Instant endsAt, List<UUID> nominees,
+                           Map<UUID, String> platforms, Map<UUID, Long> voteCounts, long totalVotes,
+                           List<UUID> winners, long version) {
+
+    public static ElectionView of(Election election) {
+        return new ElectionView(election.getId(), election.getRole(), election.getType(), election.getMethod(),
+                election.getSeats(), election.getStatus(), election.getStartedAt(), election.getEndsAt(),
+                List.copyOf(election.getNominees()), Map.copyOf(election.getPlatforms()),
+                Collections.unmodifiableMap(election.getVoteCounts()),
+                election.getTotalVotes(), election.getWinners(), election.getVersion());
+    }
+
+    public boolean isActive() {
+        return status == Election.Status.ACTIVE;
+    }
+
+    public long voteCount(UUID candidate) {
+        return voteCounts.getOrDefault(candidate, 0L);
+    }
+
+    public Duration remaining(Instant now) {
+        return isActive() && now.isBefore(endsAt) ? Duration.between(now, endsAt) : Duration.ZERO;
+    }
+}
@@ -0,0 +1,119 @@
+package me.codex.elections.model;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Interns player UUIDs to dense ints starting at 0, so per-voter election data can live in
+ * primitive arrays indexed by id. Ids are never reused within one election.
+ * <p>
+ * Lookups go through an open-addressing table of {@code id + 1} (0 marks an empty slot) with
+ * linear probing, comparing against each id's UUID kept as two longs, so nothing is boxed.
+ * Ids are never removed, so the table needs no deletion.
+ */
+public final class ParticipantIds {
+
+    private static final double MAX_LOAD = 0.6;
+
+    private int[] table = new int[128];
+    private int mask = 127;
+    private long[] mostSig = new long[64];
+    private long[] leastSig = new long[64];
+    private UUID[] uuids = new UUID[64];
+    private int size;
+
+    public ParticipantIds() {
+    }
+
+    private ParticipantIds(ParticipantIds source) {
+        this.table = source.table.clone();
+        this.mask = source.mask;
+        this.mostSig = source.mostSig.clone();
+        this.leastSig = source.leastSig.clone();
+        this.uuids = source.uuids.clone();
+        this.size = source.size;
+    }
+
+    /**
+     * @return the id for {@code player}, assigning the next free one if it is new
+     */
+    public int intern(UUID player) {
+        long most = player.getMostSignificantBits();
+        long least = player.getLeastSignificantBits();
+        int slot = hash(most, least) & mask;
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (mostSig[entry - 1] == most && leastSig[entry - 1] == least) {
+                return entry - 1;
+            }
+        }
+        int next = size;
+        if (next == uuids.length) {
+            uuids = Arrays.copyOf(uuids, next * 2);
+            mostSig = Arrays.copyOf(mostSig, next * 2);
+            leastSig = Arrays.copyOf(leastSig, next * 2);
+        }
+        uuids[next] = player;
+        mostSig[next] = most;
+        leastSig[next] = least;
+        size++;
+        table[slot] = next + 1;
+        if (size > table.length * MAX_LOAD) {
+            rehash(table.length * 2);
+        }
+        return next;
+    }
+
+    /**
+     * @return the id for {@code player}, or -1 if it was never interned
+     */
+    public int find(Object player) {
+        if (!(player instanceof UUID uuid)) {
+            return -1;
+        }
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        for (int slot = hash(most, least) & mask, entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (mostSig[entry - 1] == most && leastSig[entry - 1] == least) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    public UUID uuid(int id) {
+        return uuids[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a detached copy that can be read from another thread
+     */
+    public ParticipantIds copy() {
+        return new ParticipantIds(this);
+    }
+
+    private void rehash(int capacity) {
+        int[] grown = new int[capacity];
+        int grownMask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(mostSig[id], leastSig[id]) & grownMask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & grownMask;
+            }
+            grown[slot] = id + 1;
+        }
+        table = grown;
+        mask = grownMask;
+    }
+
+    private static int hash(long mostSig, long leastSig) {
+        long h = mostSig * 0x9E3779B97F4A7C15L ^ leastSig;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
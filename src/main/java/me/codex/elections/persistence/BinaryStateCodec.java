@@ -0,0 +1,514 @@
+package me.codex.elections.persistence;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.util.PlaytimeTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact {@code state.dat} encoding of {@link StateSnapshot}.
+ * <p>
+ * Layout: {@code "ELST" [version:u8]} followed by sections {@code [tag:u8][length:varint][body]}
+ * and a terminating {@code END} tag. UUIDs are stored as two raw longs, counters as unsigned
+ * varints, strings as a varint byte length plus UTF-8. Readers skip sections with unknown
+ * tags, so new sections can be added without bumping the version. {@code ELECTION} appears
+ * once per held election; files written before several elections could run hold at most one,
+ * plus a {@code LAST} section that is read as a single office. Fields added to an
+ * {@code ELECTION} body later (counting method, seats, further winners, ranked ballots, then
+ * approval and score ballots) are appended at its end and read only when present.
+ */
+public final class BinaryStateCodec implements StateCodec {
+
+    private static final int MAGIC = 0x454C5354; // "ELST"
+    private static final byte VERSION = 1;
+
+    private static final byte END = 0;
+    private static final byte LAST = 1;
+    private static final byte JOURNAL = 2;
+    private static final byte ELECTION = 3;
+    private static final byte ACTIVITY = 4;
+    private static final byte PLAYTIME = 5;
+    private static final byte OUTBOX = 6;
+    private static final byte OFFICES = 7;
+    private static final byte HOLDERS = 8;
+
+    @Override
+    public String fileName() {
+        return "state.dat";
+    }
+
+    @Override
+    public StateSnapshot read(File file) throws IOException {
+        // Read onto the heap rather than mapping: a live mapping keeps the file open on
+        // Windows until it is collected, and the next save's atomic move over it then fails.
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file.getName() + " is too large to read");
+            }
+            ByteBuffer in = ByteBuffer.allocate((int) size);
+            while (in.hasRemaining()) {
+                if (channel.read(in) < 0) {
+                    throw new IOException("Truncated or corrupt " + file.getName());
+                }
+            }
+            return decode(in.flip());
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt " + file.getName(), e);
+        }
+    }
+
+    @Override
+    public void write(File file, StateSnapshot snapshot) throws IOException {
+        AtomicFile.write(file, encode(snapshot));
+    }
+
+    private StateSnapshot decode(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not an elections state file");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported state version " + version);
+        }
+
+        Map<String, List<UUID>> offices = new LinkedHashMap<>();
+        long generation = 0L;
+        List<StateSnapshot.ElectionState> elections = new ArrayList<>();
+        PlaytimeTable playtime = null;
+        List<StateSnapshot.QueuedCommand> outbox = new ArrayList<>();
+
+        while (true) {
+            byte tag = in.get();
+            if (tag == END) {
+                break;
+            }
+            int length = (int) readVarLong(in);
+            ByteBuffer body = in.slice();
+            body.limit(length);
+            in.position(in.position() + length);
+            switch (tag) {
+                case LAST -> {
+                    UUID lastWinner = readNullableUuid(body);
+                    String lastRole = readNullableString(body);
+                    if (lastWinner != null && lastRole != null) {
+                        offices.put(lastRole, List.of(lastWinner));
+                    }
+                }
+                case OFFICES -> {
+                    int count = (int) readVarLong(body);
+                    for (int i = 0; i < count; i++) {
+                        String role = readString(body);
+                        offices.put(role, List.of(readUuid(body)));
+                    }
+                }
+                case HOLDERS -> {
+                    int count = (int) readVarLong(body);
+                    for (int i = 0; i < count; i++) {
+                        String role = readString(body);
+                        int holders = (int) readVarLong(body);
+                        List<UUID> list = new ArrayList<>(holders);
+                        for (int j = 0; j < holders; j++) {
+                            list.add(readUuid(body));
+                        }
+                        offices.put(role, list);
+                    }
+                }
+                case JOURNAL -> generation = readVarLong(body);
+                case ELECTION -> elections.add(readElection(body));
+                case ACTIVITY -> {
+                    // Pre-eviction layout without last-active days.
+                    int count = (int) readVarLong(body);
+                    int today = PlaytimeTable.epochDay(System.currentTimeMillis());
+                    playtime = new PlaytimeTable(count, false);
+                    for (int i = 0; i < count; i++) {
+                        playtime.put(body.getLong(), body.getLong(), (int) readVarLong(body), today);
+                    }
+                }
+                case PLAYTIME -> {
+                    int count = (int) readVarLong(body);
+                    playtime = new PlaytimeTable(count, false);
+                    for (int i = 0; i < count; i++) {
+                        playtime.put(body.getLong(), body.getLong(), (int) readVarLong(body), (int) readVarLong(body));
+                    }
+                }
+                case OUTBOX -> {
+                    int count = (int) readVarLong(body);
+                    for (int i = 0; i < count; i++) {
+                        outbox.add(new StateSnapshot.QueuedCommand(readVarLong(body), readString(body)));
+                    }
+                }
+                default -> {
+                    // Newer section; already skipped.
+                }
+            }
+        }
+        if (playtime == null) {
+            playtime = new PlaytimeTable(16, false);
+        }
+        return new StateSnapshot(offices, generation, elections, playtime, outbox);
+    }
+
+    private StateSnapshot.ElectionState readElection(ByteBuffer in) {
+        String role = readString(in);
+        Election.Type type = Election.Type.valueOf(readString(in));
+        Election.Status status = Election.Status.valueOf(readString(in));
+        Instant startedAt = Instant.ofEpochMilli(in.getLong());
+        Instant endsAt = Instant.ofEpochMilli(in.getLong());
+        UUID winner = readNullableUuid(in);
+        byte flags = in.get();
+
+        int nomineeCount = (int) readVarLong(in);
+        List<UUID> nominees = new ArrayList<>(nomineeCount);
+        for (int i = 0; i < nomineeCount; i++) {
+            nominees.add(readUuid(in));
+        }
+
+        int voteCount = (int) readVarLong(in);
+        Map<UUID, UUID> votes = new HashMap<>(voteCount * 4 / 3 + 1);
+        for (int i = 0; i < voteCount; i++) {
+            UUID voter = readUuid(in);
+            votes.put(voter, nominees.get((int) readVarLong(in)));
+        }
+
+        int platformCount = (int) readVarLong(in);
+        Map<UUID, String> platforms = new HashMap<>();
+        for (int i = 0; i < platformCount; i++) {
+            UUID nominee = readUuid(in);
+            platforms.put(nominee, readString(in));
+        }
+
+        int changeCount = (int) readVarLong(in);
+        Map<UUID, Integer> changes = new HashMap<>();
+        for (int i = 0; i < changeCount; i++) {
+            UUID voter = readUuid(in);
+            changes.put(voter, (int) readVarLong(in));
+        }
+
+        int nominatorCount = (int) readVarLong(in);
+        Map<UUID, Set<UUID>> nominations = new HashMap<>();
+        for (int i = 0; i < nominatorCount; i++) {
+            UUID nominator = readUuid(in);
+            int targets = (int) readVarLong(in);
+            Set<UUID> set = new HashSet<>();
+            for (int j = 0; j < targets; j++) {
+                set.add(readUuid(in));
+            }
+            nominations.put(nominator, set);
+        }
+
+        Election.Method method = Election.Method.PLURALITY;
+        int seats = 1;
+        List<UUID> winners = new ArrayList<>();
+        if (winner != null) {
+            winners.add(winner);
+        }
+        Map<UUID, List<UUID>> rankings = new HashMap<>();
+        if (in.hasRemaining()) {
+            method = Election.Method.valueOf(readString(in));
+            seats = (int) readVarLong(in);
+            int more = (int) readVarLong(in);
+            for (int i = 0; i < more; i++) {
+                winners.add(readUuid(in));
+            }
+            int rankingCount = (int) readVarLong(in);
+            for (int i = 0; i < rankingCount; i++) {
+                UUID voter = readUuid(in);
+                int length = (int) readVarLong(in);
+                List<UUID> ranking = new ArrayList<>(length);
+                for (int j = 0; j < length; j++) {
+                    ranking.add(nominees.get((int) readVarLong(in)));
+                }
+                rankings.put(voter, ranking);
+            }
+        }
+        Map<UUID, Map<UUID, Integer>> marks = new HashMap<>();
+        if (in.hasRemaining()) {
+            int markCount = (int) readVarLong(in);
+            for (int i = 0; i < markCount; i++) {
+                UUID voter = readUuid(in);
+                int length = (int) readVarLong(in);
+                Map<UUID, Integer> ballot = new LinkedHashMap<>();
+                for (int j = 0; j < length; j++) {
+                    ballot.put(nominees.get((int) readVarLong(in)), (int) readVarLong(in));
+                }
+                marks.put(voter, ballot);
+            }
+        }
+
+        return new StateSnapshot.ElectionState(role, type, method, seats, status, startedAt, endsAt, nominees,
+                votes, rankings, marks, platforms, changes, nominations, winners, (flags & 1) != 0, (flags & 2) != 0);
+    }
+
+    private ByteBuffer encode(StateSnapshot snapshot) {
+        Sink out = new Sink(256 + snapshot.playtime().size() * 24);
+        out.putInt(MAGIC);
+        out.put(VERSION);
+
+        int start = out.beginSection(HOLDERS);
+        out.putVarLong(snapshot.offices().size());
+        snapshot.offices().forEach((role, holders) -> {
+            out.putString(role);
+            out.putVarLong(holders.size());
+            holders.forEach(out::putUuid);
+        });
+        out.endSection(start);
+
+        start = out.beginSection(JOURNAL);
+        out.putVarLong(snapshot.journalGeneration());
+        out.endSection(start);
+
+        for (StateSnapshot.ElectionState e : snapshot.elections()) {
+            start = out.beginSection(ELECTION);
+            writeElection(out, e);
+            out.endSection(start);
+        }
+
+        if (!snapshot.outbox().isEmpty()) {
+            start = out.beginSection(OUTBOX);
+            out.putVarLong(snapshot.outbox().size());
+            for (StateSnapshot.QueuedCommand command : snapshot.outbox()) {
+                out.putVarLong(command.id());
+                out.putString(command.command());
+            }
+            out.endSection(start);
+        }
+
+        start = out.beginSection(PLAYTIME);
+        out.putVarLong(snapshot.playtime().size());
+        snapshot.playtime().forEach((mostSig, leastSig, seconds, day) -> {
+            out.putLong(mostSig);
+            out.putLong(leastSig);
+            out.putVarLong(Math.max(0, seconds));
+            out.putVarLong(Math.max(0, day));
+        });
+        out.endSection(start);
+
+        out.put(END);
+        return out.flip();
+    }
+
+    private void writeElection(Sink out, StateSnapshot.ElectionState e) {
+        out.putString(e.role());
+        out.putString(e.type().name());
+        out.putString(e.status().name());
+        out.putLong(e.startedAt().toEpochMilli());
+        out.putLong(e.endsAt().toEpochMilli());
+        out.putNullableUuid(e.winners().isEmpty() ? null : e.winners().get(0));
+        out.put((byte) ((e.commandsRan() ? 1 : 0) | (e.announcedFinished() ? 2 : 0)));
+
+        Map<UUID, Integer> index = new HashMap<>();
+        out.putVarLong(e.nominees().size());
+        for (UUID nominee : e.nominees()) {
+            index.put(nominee, index.size());
+            out.putUuid(nominee);
+        }
+
+        List<Map.Entry<UUID, UUID>> votes = new ArrayList<>(e.votes().size());
+        for (Map.Entry<UUID, UUID> vote : e.votes().entrySet()) {
+            if (index.containsKey(vote.getValue())) {
+                votes.add(vote);
+            }
+        }
+        out.putVarLong(votes.size());
+        for (Map.Entry<UUID, UUID> vote : votes) {
+            out.putUuid(vote.getKey());
+            out.putVarLong(index.get(vote.getValue()));
+        }
+
+        out.putVarLong(e.platforms().size());
+        e.platforms().forEach((nominee, platform) -> {
+            out.putUuid(nominee);
+            out.putString(platform);
+        });
+
+        out.putVarLong(e.voteChanges().size());
+        e.voteChanges().forEach((voter, count) -> {
+            out.putUuid(voter);
+            out.putVarLong(Math.max(0, count));
+        });
+
+        out.putVarLong(e.nominations().size());
+        e.nominations().forEach((nominator, targets) -> {
+            out.putUuid(nominator);
+            out.putVarLong(targets.size());
+            targets.forEach(out::putUuid);
+        });
+
+        out.putString(e.method().name());
+        out.putVarLong(e.seats());
+        out.putVarLong(Math.max(0, e.winners().size() - 1));
+        for (int i = 1; i < e.winners().size(); i++) {
+            out.putUuid(e.winners().get(i));
+        }
+        List<Map.Entry<UUID, List<UUID>>> rankings = new ArrayList<>(e.rankings().size());
+        for (Map.Entry<UUID, List<UUID>> ranking : e.rankings().entrySet()) {
+            if (index.keySet().containsAll(ranking.getValue())) {
+                rankings.add(ranking);
+            }
+        }
+        out.putVarLong(rankings.size());
+        for (Map.Entry<UUID, List<UUID>> ranking : rankings) {
+            out.putUuid(ranking.getKey());
+            out.putVarLong(ranking.getValue().size());
+            for (UUID candidate : ranking.getValue()) {
+                out.putVarLong(index.get(candidate));
+            }
+        }
+
+        out.putVarLong(e.marks().size());
+        e.marks().forEach((voter, ballot) -> {
+            out.putUuid(voter);
+            Map<UUID, Integer> kept = new LinkedHashMap<>();
+            ballot.forEach((candidate, value) -> {
+                if (index.containsKey(candidate)) {
+                    kept.put(candidate, value);
+                }
+            });
+            out.putVarLong(kept.size());
+            kept.forEach((candidate, value) -> {
+                out.putVarLong(index.get(candidate));
+                out.putVarLong(Math.max(0, value));
+            });
+        });
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0L;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint");
+            }
+        }
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static UUID readNullableUuid(ByteBuffer in) {
+        return in.get() != 0 ? readUuid(in) : null;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readNullableString(ByteBuffer in) {
+        return in.get() != 0 ? readString(in) : null;
+    }
+
+    /**
+     * Growable big-endian write buffer with back-patched section lengths.
+     */
+    private static final class Sink {
+        private static final int LENGTH_BYTES = 5;
+
+        private ByteBuffer buffer;
+
+        private Sink(int capacity) {
+            this.buffer = ByteBuffer.allocate(Math.max(64, capacity));
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+
+        private void put(byte value) {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        private void putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        private void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void putUuid(UUID id) {
+            ensure(16);
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+        }
+
+        private void putNullableUuid(UUID id) {
+            put((byte) (id != null ? 1 : 0));
+            if (id != null) {
+                putUuid(id);
+            }
+        }
+
+        private void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        /**
+         * Writes the tag and reserves a fixed-width varint for the body length.
+         */
+        private int beginSection(byte tag) {
+            put(tag);
+            ensure(LENGTH_BYTES);
+            int start = buffer.position();
+            buffer.position(start + LENGTH_BYTES);
+            return start;
+        }
+
+        private void endSection(int start) {
+            int length = buffer.position() - start - LENGTH_BYTES;
+            for (int i = 0; i < LENGTH_BYTES; i++) {
+                int bits = (length >>> (7 * i)) & 0x7F;
+                buffer.put(start + i, (byte) (i < LENGTH_BYTES - 1 ? bits | 0x80 : bits));
+            }
+        }
+
+        private ByteBuffer flip() {
+            return buffer.flip();
+        }
+    }
+}
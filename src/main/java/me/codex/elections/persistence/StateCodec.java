@@ -0,0 +1,25 @@
+package me.codex.elections.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * A persisted representation of {@link StateSnapshot}. Implementations must not touch the
+ * server API; they run on the save thread.
+ */
+public interface StateCodec {
+
+    String fileName();
+
+    StateSnapshot read(File file) throws IOException;
+
+    void write(File file, StateSnapshot snapshot) throws IOException;
+
+    static StateCodec forFormat(String format) {
+        if (format != null && format.toLowerCase(Locale.ROOT).equals("binary")) {
+            return new BinaryStateCodec();
+        }
+        return new YamlStateCodec();
+    }
+}
@@ -0,0 +1,716 @@
+package me.codex.elections.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of election mutations written between full snapshots.
+ * <p>
+ * Records are buffered on the caller's thread and written plus fsynced in batches by a
+ * background thread every {@code syncIntervalMillis} (group commit). Every journal file
+ * carries the generation of the snapshot it applies on top of; {@link #rotate()} moves the
+ * live file aside as {@code state.journal.prev} and starts the next generation, so a crash
+ * between rotating and writing the new snapshot still replays both files.
+ * <p>
+ * Record layout: {@code [type:u8][length:i32][payload][crc32:i32]}. Replay stops at the
+ * first torn or corrupt record. From version 2 on, every record that touches one election
+ * starts its payload with that election's id; version 1 files predate concurrent elections
+ * and replay with a {@code null} id.
+ * <p>
+ * If a batch cannot be written the journal is {@linkplain #isBroken() broken}: it stops
+ * writing to the damaged file and keeps the batch in memory until the next {@link #rotate()},
+ * whose snapshot covers it. The owner should take that snapshot as soon as possible.
+ */
+public final class StateJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x454C4A31; // "ELJ1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+
+    private static final byte VOTE = 1;
+    private static final byte NOMINATE = 2;
+    private static final byte UNNOMINATE = 3;
+    private static final byte PLATFORM = 4;
+    private static final byte CONCLUDE = 5;
+    private static final byte ACTIVITY = 6;
+    private static final byte COMMAND_DONE = 7;
+    private static final byte RANKING = 8;
+    private static final byte MARKS = 9;
+
+    public interface Handler {
+        /**
+         * @param election id of the election the record belongs to; {@code null} for records
+         *                 written before several elections could run at once
+         */
+        void onVote(String election, UUID voter, UUID candidate, int changes);
+
+        /**
+         * A ballot ranking several candidates, most preferred first.
+         */
+        void onRanking(String election, UUID voter, List<UUID> ranking, int changes);
+
+        /**
+         * An approval or score ballot: each marked candidate with its score (1 for an approval).
+         */
+        void onMarks(String election, UUID voter, Map<UUID, Integer> marks, int changes);
+
+        void onNominate(String election, UUID nominee, UUID nominator);
+
+        void onUnnominate(String election, UUID nominee);
+
+        void onPlatform(String election, UUID nominee, String platform);
+
+        /**
+         * @param winners everyone elected, in order; empty if nobody won
+         * @param holders the new holders of {@code role}'s office; empty if it is vacated
+         * @param queued  commands handed to the outbox by this conclusion, in order
+         */
+        void onConclude(String election, List<UUID> winners, boolean commandsRan, boolean announced,
+                        List<UUID> holders, String role, List<StateSnapshot.QueuedCommand> queued);
+
+        void onActivity(UUID player, int seconds);
+
+        void onCommandDone(long id);
+    }
+
+    private final File file;
+    private final File previousFile;
+    private final long syncIntervalMillis;
+    private final Logger logger;
+    private final Object bufferLock = new Object();
+    private final Object fileLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private ScheduledExecutorService flusher;
+    private long generation;
+    private long size;
+    private volatile boolean broken;
+    /** Generation of the newest snapshot known to be on disk; it covers every older file. */
+    private volatile long committedGeneration;
+
+    public StateJournal(File dataFolder, long syncIntervalMillis, Logger logger) {
+        this.file = new File(dataFolder, "state.journal");
+        this.previousFile = new File(dataFolder, "state.journal.prev");
+        this.syncIntervalMillis = Math.max(10L, syncIntervalMillis);
+        this.logger = logger;
+    }
+
+    /**
+     * @return whether {@code dataFolder} holds journal files, live or previous
+     */
+    public static boolean exists(File dataFolder) {
+        return new File(dataFolder, "state.journal").exists() || new File(dataFolder, "state.journal.prev").exists();
+    }
+
+    /**
+     * Deletes the journal files in {@code dataFolder}. Only for when the journal is turned off
+     * and a committed snapshot already covers every record in them.
+     */
+    public static void discard(File dataFolder, Logger logger) {
+        boolean removed = false;
+        for (File leftover : new File[]{new File(dataFolder, "state.journal.prev"), new File(dataFolder, "state.journal")}) {
+            if (leftover.exists()) {
+                if (leftover.delete()) {
+                    removed = true;
+                } else {
+                    logger.warning("Could not delete " + leftover.getName() + "; it will be ignored on the next start.");
+                }
+            }
+        }
+        if (removed) {
+            logger.info("Removed the election journal; persistence.journal is off and the state file covers it.");
+        }
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Bytes written to the live journal since the last rotation, including unflushed records.
+     */
+    public long size() {
+        synchronized (bufferLock) {
+            return size;
+        }
+    }
+
+    /**
+     * @return whether records are being held back because the journal file could not be
+     *         written; cleared by the next successful {@link #rotate()}
+     */
+    public boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Tells the journal that the snapshot carrying {@code generation} has been written, so
+     * files older than it are no longer needed. Safe to call from the save thread.
+     */
+    public void committed(long generation) {
+        if (generation > committedGeneration) {
+            committedGeneration = generation;
+        }
+    }
+
+    /**
+     * Replays every journal file whose generation is at least {@code snapshotGeneration},
+     * oldest first. The snapshot that was loaded counts as {@linkplain #committed committed}.
+     *
+     * @return the newest generation seen, so the next rotation moves past it
+     */
+    public long replay(long snapshotGeneration, Handler handler) {
+        committed(snapshotGeneration);
+        long newest = Math.max(generation, snapshotGeneration);
+        // Only an interrupted merge leaves both files at one generation; the live one holds all of it.
+        boolean merged = previousFile.exists() && file.exists()
+                && generationOf(previousFile) >= 0L && generationOf(previousFile) == generationOf(file);
+        for (File source : new File[]{previousFile, file}) {
+            if (!source.exists() || (merged && source == previousFile)) {
+                continue;
+            }
+            try (InputStream raw = Channels.newInputStream(FileChannel.open(source.toPath(), StandardOpenOption.READ));
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+                int version = in.readInt() == MAGIC ? in.readInt() : -1;
+                if (version < 1 || version > VERSION) {
+                    logger.warning("Ignoring unrecognised journal " + source.getName());
+                    continue;
+                }
+                long fileGeneration = in.readLong();
+                newest = Math.max(newest, fileGeneration);
+                if (fileGeneration < snapshotGeneration) {
+                    continue;
+                }
+                int applied = replayRecords(in, version, handler, source.getName());
+                if (applied > 0) {
+                    logger.info("Replayed " + applied + " journal record(s) from " + source.getName());
+                }
+            } catch (EOFException e) {
+                // Header never made it to disk; nothing to replay.
+            } catch (IOException e) {
+                logger.warning("Failed to replay " + source.getName() + ": " + e.getMessage());
+            }
+        }
+        this.generation = newest;
+        return newest;
+    }
+
+    private int replayRecords(DataInputStream in, int version, Handler handler, String name) throws IOException {
+        int applied = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            int type = in.read();
+            if (type == -1) {
+                return applied;
+            }
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                if (length < 0 || length > (1 << 24)) {
+                    logger.warning("Corrupt record length in " + name + "; stopping replay.");
+                    return applied;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+                int expected = in.readInt();
+                crc.reset();
+                crc.update(type);
+                crc.update(payload);
+                if ((int) crc.getValue() != expected) {
+                    logger.warning("Checksum mismatch in " + name + "; stopping replay.");
+                    return applied;
+                }
+            } catch (EOFException e) {
+                logger.warning("Torn record at the end of " + name + "; ignoring it.");
+                return applied;
+            }
+            apply((byte) type, version, new DataInputStream(new ByteArrayInputStream(payload)), handler);
+            applied++;
+        }
+    }
+
+    private void apply(byte type, int version, DataInputStream in, Handler handler) throws IOException {
+        switch (type) {
+            case VOTE -> handler.onVote(readElection(in, version), readUuid(in), readUuid(in), in.readInt());
+            case NOMINATE -> handler.onNominate(readElection(in, version), readUuid(in), readNullableUuid(in));
+            case UNNOMINATE -> handler.onUnnominate(readElection(in, version), readUuid(in));
+            case PLATFORM -> handler.onPlatform(readElection(in, version), readUuid(in), in.readUTF());
+            case RANKING -> {
+                String election = readElection(in, version);
+                UUID voter = readUuid(in);
+                int length = in.readInt();
+                List<UUID> ranking = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    ranking.add(readUuid(in));
+                }
+                handler.onRanking(election, voter, ranking, in.readInt());
+            }
+            case MARKS -> {
+                String election = readElection(in, version);
+                UUID voter = readUuid(in);
+                int length = in.readInt();
+                Map<UUID, Integer> marks = new LinkedHashMap<>();
+                for (int i = 0; i < length; i++) {
+                    marks.put(readUuid(in), (int) in.readByte());
+                }
+                handler.onMarks(election, voter, marks, in.readInt());
+            }
+            case CONCLUDE -> {
+                String election = readElection(in, version);
+                List<UUID> winners = new ArrayList<>();
+                UUID winner = readNullableUuid(in);
+                if (winner != null) {
+                    winners.add(winner);
+                }
+                boolean commandsRan = in.readBoolean();
+                boolean announced = in.readBoolean();
+                List<UUID> holders = new ArrayList<>();
+                UUID holder = readNullableUuid(in);
+                if (holder != null) {
+                    holders.add(holder);
+                }
+                String role = in.readBoolean() ? in.readUTF() : null;
+                // Older records end here; newer ones carry the commands they queued, and after
+                // those any further winners and the full list of holders.
+                List<StateSnapshot.QueuedCommand> queued = new ArrayList<>();
+                int count = in.available() > 0 ? in.readInt() : 0;
+                for (int i = 0; i < count; i++) {
+                    queued.add(new StateSnapshot.QueuedCommand(in.readLong(), in.readUTF()));
+                }
+                if (in.available() > 0) {
+                    int more = in.readInt();
+                    for (int i = 0; i < more; i++) {
+                        winners.add(readUuid(in));
+                    }
+                    holders.clear();
+                    int held = in.readInt();
+                    for (int i = 0; i < held; i++) {
+                        holders.add(readUuid(in));
+                    }
+                }
+                handler.onConclude(election, winners, commandsRan, announced, holders, role, queued);
+            }
+            case ACTIVITY -> {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    handler.onActivity(readUuid(in), in.readInt());
+                }
+            }
+            case COMMAND_DONE -> handler.onCommandDone(in.readLong());
+            default -> logger.warning("Skipping unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Flushes the live journal, keeps it as the previous generation and opens a fresh one.
+     * Call this immediately before capturing a snapshot, and {@link #committed} once that
+     * snapshot is written.
+     * <p>
+     * The previous file is only replaced once a committed snapshot covers it. While the last
+     * save has not succeeded, the live records are appended to it instead, so a crash before the
+     * next successful save still replays everything since the snapshot on disk.
+     *
+     * @return the generation the caller must store in the snapshot
+     */
+    public long rotate() {
+        synchronized (fileLock) {
+            writePending(true);
+            closeChannel();
+            if (broken) {
+                // Whatever could not be written is covered by the snapshot taken after this.
+                synchronized (bufferLock) {
+                    pending = new ByteArrayOutputStream();
+                }
+            }
+            try {
+                if (file.exists()) {
+                    long previous = previousFile.exists() ? generationOf(previousFile) : -1L;
+                    if (previous >= 0L && previous >= committedGeneration) {
+                        appendToPrevious();
+                    } else {
+                        Files.move(file.toPath(), previousFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                StandardCopyOption.ATOMIC_MOVE);
+                    }
+                }
+                generation++;
+                file.getParentFile().mkdirs();
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(false);
+                broken = false;
+            } catch (IOException e) {
+                logger.warning("Failed to rotate election journal: " + e.getMessage());
+                closeChannel();
+                broken = true;
+            }
+            synchronized (bufferLock) {
+                size = 0L;
+            }
+        }
+        startFlusher();
+        return generation;
+    }
+
+    public void appendVote(String election, UUID voter, UUID candidate, int changes) {
+        append(VOTE, out -> {
+            out.writeUTF(election);
+            writeUuid(out, voter);
+            writeUuid(out, candidate);
+            out.writeInt(changes);
+        });
+    }
+
+    public void appendRanking(String election, UUID voter, List<UUID> ranking, int changes) {
+        append(RANKING, out -> {
+            out.writeUTF(election);
+            writeUuid(out, voter);
+            out.writeInt(ranking.size());
+            for (UUID candidate : ranking) {
+                writeUuid(out, candidate);
+            }
+            out.writeInt(changes);
+        });
+    }
+
+    public void appendMarks(String election, UUID voter, Map<UUID, Integer> marks, int changes) {
+        append(MARKS, out -> {
+            out.writeUTF(election);
+            writeUuid(out, voter);
+            out.writeInt(marks.size());
+            for (Map.Entry<UUID, Integer> mark : marks.entrySet()) {
+                writeUuid(out, mark.getKey());
+                out.writeByte(mark.getValue());
+            }
+            out.writeInt(changes);
+        });
+    }
+
+    public void appendNominate(String election, UUID nominee, UUID nominator) {
+        append(NOMINATE, out -> {
+            out.writeUTF(election);
+            writeUuid(out, nominee);
+            writeNullableUuid(out, nominator);
+        });
+    }
+
+    public void appendUnnominate(String election, UUID nominee) {
+        append(UNNOMINATE, out -> {
+            out.writeUTF(election);
+            writeUuid(out, nominee);
+        });
+    }
+
+    public void appendPlatform(String election, UUID nominee, String platform) {
+        append(PLATFORM, out -> {
+            out.writeUTF(election);
+            writeUuid(out, nominee);
+            out.writeUTF(platform);
+        });
+    }
+
+    /**
+     * Records a conclusion together with the commands it queued, so both survive a crash or
+     * neither does. {@code holders} are who now hold {@code role}'s office, if anyone.
+     */
+    public void appendConclude(String election, List<UUID> winners, boolean commandsRan, boolean announced,
+                               List<UUID> holders, String role, List<StateSnapshot.QueuedCommand> queued) {
+        append(CONCLUDE, out -> {
+            out.writeUTF(election);
+            writeNullableUuid(out, winners.isEmpty() ? null : winners.get(0));
+            out.writeBoolean(commandsRan);
+            out.writeBoolean(announced);
+            writeNullableUuid(out, holders.isEmpty() ? null : holders.get(0));
+            out.writeBoolean(role != null);
+            if (role != null) {
+                out.writeUTF(role);
+            }
+            out.writeInt(queued.size());
+            for (StateSnapshot.QueuedCommand command : queued) {
+                out.writeLong(command.id());
+                out.writeUTF(command.command());
+            }
+            out.writeInt(Math.max(0, winners.size() - 1));
+            for (int i = 1; i < winners.size(); i++) {
+                writeUuid(out, winners.get(i));
+            }
+            out.writeInt(holders.size());
+            for (UUID holder : holders) {
+                writeUuid(out, holder);
+            }
+        });
+    }
+
+    public void appendCommandDone(long id) {
+        append(COMMAND_DONE, out -> out.writeLong(id));
+    }
+
+    public void appendActivity(Map<UUID, Integer> seconds) {
+        if (seconds.isEmpty()) {
+            return;
+        }
+        append(ACTIVITY, out -> {
+            out.writeInt(seconds.size());
+            for (Map.Entry<UUID, Integer> entry : seconds.entrySet()) {
+                writeUuid(out, entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        });
+    }
+
+    /**
+     * Writes and fsyncs everything buffered so far on the calling thread.
+     */
+    public void sync() {
+        synchronized (fileLock) {
+            writePending(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            // No interrupt: an interrupted write closes the channel and loses its batch.
+            flusher.shutdown();
+            try {
+                if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warning("Journal flush did not finish in time.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        synchronized (fileLock) {
+            writePending(true);
+            closeChannel();
+        }
+    }
+
+    private void append(byte type, RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            logger.warning("Failed to encode journal record: " + e.getMessage());
+            return;
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        synchronized (bufferLock) {
+            pending.write(type);
+            writeInt(pending, payload.length);
+            pending.write(payload, 0, payload.length);
+            writeInt(pending, (int) crc.getValue());
+            size += payload.length + 9L;
+        }
+    }
+
+    private void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Elections-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void writePending(boolean force) {
+        ByteArrayOutputStream batch;
+        synchronized (bufferLock) {
+            if (pending.size() == 0) {
+                return;
+            }
+            batch = pending;
+            pending = new ByteArrayOutputStream(Math.max(256, batch.size()));
+        }
+        if (channel == null) {
+            holdBack(batch);
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to write election journal; holding records until the next save: " + e.getMessage());
+            // The file may now end in a partial record, so nothing more is appended to it.
+            closeChannel();
+            holdBack(batch);
+        }
+    }
+
+    /**
+     * Puts an unwritten batch back in front of anything appended since and marks the journal
+     * broken.
+     */
+    private void holdBack(ByteArrayOutputStream batch) {
+        synchronized (bufferLock) {
+            ByteArrayOutputStream merged = new ByteArrayOutputStream(batch.size() + pending.size());
+            merged.write(batch.toByteArray(), 0, batch.size());
+            merged.write(pending.toByteArray(), 0, pending.size());
+            pending = merged;
+        }
+        broken = true;
+    }
+
+    /**
+     * Replaces the previous file with its intact records followed by the live file's. The
+     * merged file first replaces the live one, keeping the previous generation, and is then
+     * moved over the previous file; a crash in between leaves two files of one generation, and
+     * {@link #replay} then reads only the merged one.
+     */
+    private void appendToPrevious() throws IOException {
+        File merged = new File(previousFile.getParentFile(), previousFile.getName() + ".tmp");
+        try (FileChannel out = FileChannel.open(merged.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel previous = FileChannel.open(previousFile.toPath(), StandardOpenOption.READ);
+             FileChannel live = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            copy(previous, 0L, intactLength(previousFile), out);
+            copy(live, HEADER_BYTES, intactLength(file) - HEADER_BYTES, out);
+            out.force(false);
+        }
+        Files.move(merged.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        Files.move(file.toPath(), previousFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void copy(FileChannel from, long position, long count, FileChannel to) throws IOException {
+        long done = 0L;
+        while (done < count) {
+            long moved = from.transferTo(position + done, count - done, to);
+            if (moved <= 0) {
+                throw new EOFException("Journal shrank while copying");
+            }
+            done += moved;
+        }
+    }
+
+    /**
+     * @return the generation in {@code source}'s header, or -1 if it is unreadable or written
+     *         in another version, whose records cannot be mixed with this one's
+     */
+    private static long generationOf(File source) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source.toPath())))) {
+            return in.readInt() == MAGIC && in.readInt() == VERSION ? in.readLong() : -1L;
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * @return bytes from the start of {@code source} up to the end of its last record before
+     *         the first torn or corrupt one, or before the end of the file
+     */
+    private static long intactLength(File source) throws IOException {
+        long length = 0L;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source.toPath())))) {
+            in.readFully(new byte[HEADER_BYTES]);
+            length = HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            while (true) {
+                int type = in.read();
+                int size = type == -1 ? -1 : in.readInt();
+                if (size < 0 || size > (1 << 24)) {
+                    return length;
+                }
+                byte[] payload = new byte[size];
+                in.readFully(payload);
+                int expected = in.readInt();
+                crc.reset();
+                crc.update(type);
+                crc.update(payload);
+                if ((int) crc.getValue() != expected) {
+                    return length;
+                }
+                length += size + 9L;
+            }
+        } catch (EOFException e) {
+            return length;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static void writeNullableUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            writeUuid(out, id);
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static UUID readNullableUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readUuid(in) : null;
+    }
+
+    private static String readElection(DataInputStream in, int version) throws IOException {
+        return version >= 2 ? in.readUTF() : null;
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,90 @@
+package me.codex.elections.persistence;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.util.PlaytimeTable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable copy of everything persisted in the state file, handed to a {@link StateCodec} on
+ * the save thread. The main thread only takes primitive copies (see {@link #of}); boxing them
+ * into these maps happens on the save thread. {@code offices} maps each role to the
+ * players who won it last and still hold it; multi-seat roles have several.
+ */
+public record StateSnapshot(Map<String, List<UUID>> offices,
+                            long journalGeneration,
+                            List<ElectionState> elections,
+                            PlaytimeTable playtime,
+                            List<QueuedCommand> outbox) {
+
+    /**
+     * Builds a snapshot from elections detached with {@link Election#copy()}. Call it on the
+     * save thread; nothing passed in may still be changed by the main thread.
+     */
+    public static StateSnapshot of(Map<String, List<UUID>> offices, long journalGeneration,
+                                   List<Election> elections, PlaytimeTable playtime, List<QueuedCommand> outbox) {
+        List<ElectionState> states = new ArrayList<>(elections.size());
+        for (Election election : elections) {
+            states.add(ElectionState.of(election));
+        }
+        return new StateSnapshot(offices, journalGeneration, states, playtime, outbox);
+    }
+
+    /**
+     * A rendered console command from {@code commands-on-win} or
+     * {@code no-confidence.commands-on-pass} that has not been dispatched yet.
+     */
+    public record QueuedCommand(long id, String command) {
+    }
+
+    public record ElectionState(String role,
+                                Election.Type type,
+                                Election.Method method,
+                                int seats,
+                                Election.Status status,
+                                Instant startedAt,
+                                Instant endsAt,
+                                List<UUID> nominees,
+                                Map<UUID, UUID> votes,
+                                Map<UUID, List<UUID>> rankings,
+                                Map<UUID, Map<UUID, Integer>> marks,
+                                Map<UUID, String> platforms,
+                                Map<UUID, Integer> voteChanges,
+                                Map<UUID, Set<UUID>> nominations,
+                                List<UUID> winners,
+                                boolean commandsRan,
+                                boolean announcedFinished) {
+
+        public static ElectionState of(Election e) {
+            Map<UUID, Set<UUID>> nominations = new HashMap<>();
+            e.getNominationsBy().forEach((nominator, set) -> nominations.put(nominator, Set.copyOf(set)));
+            return new ElectionState(e.getRole(), e.getType(), e.getMethod(), e.getSeats(), e.getStatus(),
+                    e.getStartedAt(), e.getEndsAt(), List.copyOf(e.getNominees()), Map.copyOf(e.getVotes()),
+                    e.getRankings(), e.getAllMarks(), Map.copyOf(e.getPlatforms()), Map.copyOf(e.getVoteChanges()), nominations,
+                    e.getWinners(),
+                    e.haveCommandsRun(), e.isAnnouncedFinished());
+        }
+
+        public Election toElection() {
+            Election election = new Election(role, endsAt, type, method, seats);
+            election.setStatus(status);
+            nominees.forEach(election::addNominee);
+            election.setVotes(votes);
+            election.setRankings(rankings);
+            election.setMarks(marks);
+            platforms.forEach(election::setPlatform);
+            election.setVoteChanges(voteChanges);
+            election.setNominationsBy(nominations);
+            election.setWinners(winners);
+            election.setCommandsRan(commandsRan);
+            election.setAnnouncedFinished(announcedFinished);
+            return election;
+        }
+    }
+}
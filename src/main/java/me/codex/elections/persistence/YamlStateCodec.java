@@ -0,0 +1,283 @@
+package me.codex.elections.persistence;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.util.PlaytimeTable;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reads and writes the human-editable {@code state.yml}. Has no server dependencies, so it is
+ * safe to call from the save thread.
+ * @see BinaryStateCodec
+ */
+public final class YamlStateCodec implements StateCodec {
+
+    @Override
+    public String fileName() {
+        return "state.yml";
+    }
+
+    @Override
+    public StateSnapshot read(File file) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (InvalidConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        Map<String, List<UUID>> offices = new LinkedHashMap<>();
+        String lastWinnerStr = yaml.getString("last.winner");
+        String lastRole = yaml.getString("last.role", null);
+        if (lastWinnerStr != null && lastRole != null) {
+            // Written before several elections could run: one office at most.
+            offices.put(lastRole, List.of(UUID.fromString(lastWinnerStr)));
+        }
+        for (Map<?, ?> entry : yaml.getMapList("offices")) {
+            Object role = entry.get("role");
+            List<UUID> holders = new ArrayList<>();
+            if (entry.get("holders") instanceof List<?> list) {
+                list.forEach(h -> holders.add(UUID.fromString(h.toString())));
+            } else if (entry.get("holder") != null) {
+                // Written before offices could have several seats.
+                holders.add(UUID.fromString(entry.get("holder").toString()));
+            }
+            if (role != null && !holders.isEmpty()) {
+                offices.put(role.toString(), holders);
+            }
+        }
+        long generation = yaml.getLong("journal.generation", 0L);
+
+        // active seconds, plus the epoch day each player was last active (for eviction)
+        PlaytimeTable activity = new PlaytimeTable(1024, false);
+        if (yaml.isConfigurationSection("activitySeconds")) {
+            int today = PlaytimeTable.epochDay(System.currentTimeMillis());
+            for (String id : yaml.getConfigurationSection("activitySeconds").getKeys(false)) {
+                activity.put(UUID.fromString(id), yaml.getInt("activitySeconds." + id, 0),
+                        yaml.getInt("activityDays." + id, today));
+            }
+        }
+
+        List<StateSnapshot.QueuedCommand> outbox = new ArrayList<>();
+        for (Map<?, ?> entry : yaml.getMapList("outbox")) {
+            Object id = entry.get("id");
+            Object command = entry.get("command");
+            if (id instanceof Number number && command != null) {
+                outbox.add(new StateSnapshot.QueuedCommand(number.longValue(), command.toString()));
+            }
+        }
+
+        List<StateSnapshot.ElectionState> elections = new ArrayList<>();
+        if (yaml.isConfigurationSection("current")) {
+            elections.add(readElection(yaml.getConfigurationSection("current")));
+        }
+        ConfigurationSection held = yaml.getConfigurationSection("elections");
+        if (held != null) {
+            for (String id : held.getKeys(false)) {
+                if (held.isConfigurationSection(id)) {
+                    elections.add(readElection(held.getConfigurationSection(id)));
+                }
+            }
+        }
+        return new StateSnapshot(offices, generation, elections, activity, outbox);
+    }
+
+    private StateSnapshot.ElectionState readElection(ConfigurationSection section) {
+        String role = section.getString("role");
+        String typeStr = section.getString("type", Election.Type.REGULAR.name());
+        String methodStr = section.getString("method", Election.Method.PLURALITY.name());
+        String statusStr = section.getString("status", Election.Status.ACTIVE.name());
+        long startedAt = section.getLong("startedAt", 0L);
+        long endsAt = section.getLong("endsAt", 0L);
+
+        List<UUID> nominees = new ArrayList<>();
+        section.getStringList("nominees").forEach(n -> nominees.add(UUID.fromString(n)));
+
+        // votes
+        Map<UUID, UUID> votes = new HashMap<>();
+        if (section.isConfigurationSection("votes")) {
+            for (String voter : section.getConfigurationSection("votes").getKeys(false)) {
+                String candidate = section.getString("votes." + voter);
+                if (candidate != null) {
+                    votes.put(UUID.fromString(voter), UUID.fromString(candidate));
+                }
+            }
+        }
+
+        // later preferences of ranked ballots, first choice included
+        Map<UUID, List<UUID>> rankings = new HashMap<>();
+        if (section.isConfigurationSection("rankings")) {
+            for (String voter : section.getConfigurationSection("rankings").getKeys(false)) {
+                List<UUID> ranking = new ArrayList<>();
+                section.getStringList("rankings." + voter).forEach(c -> ranking.add(UUID.fromString(c)));
+                if (!ranking.isEmpty()) {
+                    rankings.put(UUID.fromString(voter), ranking);
+                }
+            }
+        }
+
+        // approval and score ballots
+        Map<UUID, Map<UUID, Integer>> marks = new HashMap<>();
+        if (section.isConfigurationSection("marks")) {
+            ConfigurationSection marked = section.getConfigurationSection("marks");
+            for (String voter : marked.getKeys(false)) {
+                ConfigurationSection ballot = marked.getConfigurationSection(voter);
+                if (ballot == null) {
+                    continue;
+                }
+                Map<UUID, Integer> ballotMarks = new LinkedHashMap<>();
+                for (String candidate : ballot.getKeys(false)) {
+                    ballotMarks.put(UUID.fromString(candidate), ballot.getInt(candidate, 0));
+                }
+                marks.put(UUID.fromString(voter), ballotMarks);
+            }
+        }
+
+        // platforms
+        Map<UUID, String> platforms = new HashMap<>();
+        if (section.isConfigurationSection("platforms")) {
+            for (String nominee : section.getConfigurationSection("platforms").getKeys(false)) {
+                String text = section.getString("platforms." + nominee);
+                if (text != null) {
+                    platforms.put(UUID.fromString(nominee), text);
+                }
+            }
+        }
+
+        // vote changes
+        Map<UUID, Integer> changes = new HashMap<>();
+        if (section.isConfigurationSection("voteChanges")) {
+            for (String voter : section.getConfigurationSection("voteChanges").getKeys(false)) {
+                changes.put(UUID.fromString(voter), section.getInt("voteChanges." + voter, 0));
+            }
+        }
+
+        // nominations map
+        Map<UUID, Set<UUID>> nominations = new HashMap<>();
+        if (section.isConfigurationSection("nominations")) {
+            for (String nominator : section.getConfigurationSection("nominations").getKeys(false)) {
+                Set<UUID> set = new HashSet<>();
+                section.getStringList("nominations." + nominator).forEach(t -> set.add(UUID.fromString(t)));
+                nominations.put(UUID.fromString(nominator), set);
+            }
+        }
+
+        List<UUID> winners = new ArrayList<>();
+        section.getStringList("winners").forEach(w -> winners.add(UUID.fromString(w)));
+        String winnerStr = section.getString("winner");
+        if (winners.isEmpty() && winnerStr != null && !winnerStr.isBlank()) {
+            winners.add(UUID.fromString(winnerStr));
+        }
+
+        return new StateSnapshot.ElectionState(role,
+                Election.Type.valueOf(typeStr), Election.Method.valueOf(methodStr), section.getInt("seats", 1),
+                Election.Status.valueOf(statusStr), Instant.ofEpochMilli(startedAt), Instant.ofEpochMilli(endsAt),
+                nominees, votes, rankings, marks, platforms, changes, nominations, winners,
+                section.getBoolean("commandsRan", false),
+                section.getBoolean("announcedFinished", false));
+    }
+
+    @Override
+    public void write(File file, StateSnapshot snapshot) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+
+        if (!snapshot.offices().isEmpty()) {
+            List<Map<String, Object>> offices = new ArrayList<>();
+            snapshot.offices().forEach((role, holders) -> offices.add(Map.of("role", role,
+                    "holders", holders.stream().map(UUID::toString).toList())));
+            yaml.set("offices", offices);
+        }
+        yaml.set("journal.generation", snapshot.journalGeneration());
+        if (!snapshot.outbox().isEmpty()) {
+            List<Map<String, Object>> outbox = new ArrayList<>();
+            for (StateSnapshot.QueuedCommand command : snapshot.outbox()) {
+                outbox.add(Map.of("id", command.id(), "command", command.command()));
+            }
+            yaml.set("outbox", outbox);
+        }
+
+        for (StateSnapshot.ElectionState e : snapshot.elections()) {
+            writeElection(yaml.createSection("elections." + Election.idFor(e.role(), e.type())), e);
+        }
+
+        Map<String, Integer> activity = new HashMap<>();
+        Map<String, Integer> activityDays = new HashMap<>();
+        snapshot.playtime().forEach((mostSig, leastSig, seconds, day) -> {
+            String id = new UUID(mostSig, leastSig).toString();
+            activity.put(id, seconds);
+            activityDays.put(id, day);
+        });
+        yaml.createSection("activitySeconds", activity);
+        yaml.createSection("activityDays", activityDays);
+
+        AtomicFile.write(file, ByteBuffer.wrap(yaml.saveToString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void writeElection(ConfigurationSection section, StateSnapshot.ElectionState e) {
+        section.set("role", e.role());
+        section.set("type", e.type().name());
+        section.set("method", e.method().name());
+        section.set("seats", e.seats());
+        section.set("status", e.status().name());
+        section.set("startedAt", e.startedAt().toEpochMilli());
+        section.set("endsAt", e.endsAt().toEpochMilli());
+        section.set("nominees", e.nominees().stream().map(UUID::toString).toList());
+        section.set("commandsRan", e.commandsRan());
+        section.set("announcedFinished", e.announcedFinished());
+        if (!e.winners().isEmpty()) {
+            section.set("winners", e.winners().stream().map(UUID::toString).toList());
+        }
+
+        Map<String, String> votes = new HashMap<>();
+        e.votes().forEach((voter, candidate) -> votes.put(voter.toString(), candidate.toString()));
+        section.createSection("votes", votes);
+
+        if (!e.rankings().isEmpty()) {
+            Map<String, List<String>> rankings = new HashMap<>();
+            e.rankings().forEach((voter, ranking) -> rankings.put(
+                    voter.toString(),
+                    ranking.stream().map(UUID::toString).toList()
+            ));
+            section.createSection("rankings", rankings);
+        }
+
+        if (!e.marks().isEmpty()) {
+            ConfigurationSection marks = section.createSection("marks");
+            e.marks().forEach((voter, ballot) -> {
+                Map<String, Integer> values = new LinkedHashMap<>();
+                ballot.forEach((candidate, value) -> values.put(candidate.toString(), value));
+                marks.createSection(voter.toString(), values);
+            });
+        }
+
+        Map<String, String> platforms = new HashMap<>();
+        e.platforms().forEach((nominee, platform) -> platforms.put(nominee.toString(), platform));
+        section.createSection("platforms", platforms);
+
+        Map<String, Integer> changes = new HashMap<>();
+        e.voteChanges().forEach((voter, count) -> changes.put(voter.toString(), count));
+        section.createSection("voteChanges", changes);
+
+        Map<String, List<String>> nominations = new HashMap<>();
+        e.nominations().forEach((nominator, set) -> nominations.put(
+                nominator.toString(),
+                set.stream().map(UUID::toString).toList()
+        ));
+        section.createSection("nominations", nominations);
+    }
+}
@@ -0,0 +1,16 @@
+package me.codex.elections.platform;
+
+import java.util.UUID;
+
+/**
+ * A running AFK detector. Players are tracked from join to quit; a player already AFK when
+ * tracking starts is reported straight away.
+ */
+public interface ActivitySource {
+
+    void track(UUID player);
+
+    void untrack(UUID player);
+
+    void stop();
+}
@@ -0,0 +1,127 @@
+package me.codex.elections.platform;
+
+import me.codex.elections.config.Settings;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * AFK state from EssentialsX when it is installed, otherwise from the built-in
+ * {@link IdleDetector} if enabled, which also takes over if the Essentials hook fails.
+ * Essentials changes may arrive off the main thread and are handed back to it before reaching
+ * the listener.
+ */
+final class BukkitActivitySource implements ActivitySource {
+
+    private final Plugin plugin;
+    private final TaskScheduler scheduler;
+    private final Settings.Afk afk;
+    private final BiConsumer<UUID, Boolean> onChange;
+    private EssentialsAfkHook essentials;
+    private IdleDetector idleDetector;
+    private int pollTaskId = -1;
+
+    BukkitActivitySource(Plugin plugin, TaskScheduler scheduler, Settings.Afk afk, BiConsumer<UUID, Boolean> onChange) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.afk = afk;
+        this.onChange = onChange;
+        this.essentials = EssentialsAfkHook.create(plugin.getServer().getPluginManager().getPlugin("Essentials"),
+                plugin.getLogger(), this::onEssentialsFailure);
+        if (essentials == null) {
+            startIdleDetector();
+        }
+        if (essentials != null && !essentials.subscribe(plugin, this::onEssentialsChange)) {
+            // Older Essentials without the AFK event: poll through the cached handles instead.
+            this.pollTaskId = scheduler.runRepeating(this::poll, 20L, 20L);
+        }
+    }
+
+    @Override
+    public void track(UUID player) {
+        if (idleDetector != null) {
+            idleDetector.track(player);
+        }
+        if (essentials != null && essentials.isAfk(player)) {
+            onChange.accept(player, true);
+        }
+    }
+
+    @Override
+    public void untrack(UUID player) {
+        if (idleDetector != null) {
+            idleDetector.untrack(player);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (pollTaskId != -1) {
+            scheduler.cancelTask(pollTaskId);
+            pollTaskId = -1;
+        }
+        if (essentials != null) {
+            essentials.unsubscribe();
+            essentials = null;
+        }
+        if (idleDetector != null) {
+            idleDetector.stop();
+            idleDetector = null;
+        }
+    }
+
+    private void startIdleDetector() {
+        if (afk.builtin()) {
+            this.idleDetector = new IdleDetector(plugin, scheduler, afk.idleMillis(), afk.sampleTicks(), onChange);
+            idleDetector.start();
+        }
+    }
+
+    private void poll() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            EssentialsAfkHook hook = essentials;
+            if (hook == null) {
+                return;
+            }
+            onChange.accept(player.getUniqueId(), hook.isAfk(player.getUniqueId()));
+        }
+    }
+
+    /**
+     * Drops a failed Essentials hook for the built-in detector, if enabled. Everyone online
+     * starts out active again, as when tracking starts, since Essentials can no longer clear
+     * the AFK state it reported.
+     */
+    private void onEssentialsFailure() {
+        if (!scheduler.isGlobalThread()) {
+            scheduler.runLater(this::onEssentialsFailure, 0L);
+            return;
+        }
+        if (essentials == null) {
+            return;
+        }
+        if (pollTaskId != -1) {
+            scheduler.cancelTask(pollTaskId);
+            pollTaskId = -1;
+        }
+        essentials.unsubscribe();
+        essentials = null;
+        startIdleDetector();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            onChange.accept(player.getUniqueId(), false);
+            if (idleDetector != null) {
+                idleDetector.track(player.getUniqueId());
+            }
+        }
+    }
+
+    private void onEssentialsChange(UUID player, boolean afk) {
+        if (scheduler.isGlobalThread()) {
+            onChange.accept(player, afk);
+        } else {
+            scheduler.runLater(() -> onChange.accept(player, afk), 0L);
+        }
+    }
+}
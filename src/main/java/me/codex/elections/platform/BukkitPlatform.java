@@ -0,0 +1,153 @@
+package me.codex.elections.platform;
+
+import me.codex.elections.ElectionsPlugin;
+import me.codex.elections.config.Settings;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * {@link Platform} backed by the running server, scheduling through Folia's region schedulers
+ * when the server has them.
+ */
+public final class BukkitPlatform implements Platform {
+
+    private final ElectionsPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final SidebarDisplay sidebars;
+    private final Collection<UUID> online = new AbstractCollection<>() {
+        @Override
+        public Iterator<UUID> iterator() {
+            Iterator<? extends Player> players = plugin.getServer().getOnlinePlayers().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return players.hasNext();
+                }
+
+                @Override
+                public UUID next() {
+                    return players.next().getUniqueId();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return plugin.getServer().getOnlinePlayers().size();
+        }
+    };
+
+    public BukkitPlatform(ElectionsPlugin plugin) {
+        this.plugin = plugin;
+        this.scheduler = TaskScheduler.create(plugin);
+        this.sidebars = new BukkitSidebarDisplay(plugin.getServer(), scheduler);
+    }
+
+    @Override
+    public Settings settings() {
+        return plugin.settings();
+    }
+
+    @Override
+    public Logger logger() {
+        return plugin.getLogger();
+    }
+
+    @Override
+    public File dataFolder() {
+        return plugin.getDataFolder();
+    }
+
+    @Override
+    public Collection<UUID> onlinePlayers() {
+        return online;
+    }
+
+    @Override
+    public boolean isOnline(UUID player) {
+        return plugin.getServer().getPlayer(player) != null;
+    }
+
+    @Override
+    public String lookupName(UUID player) {
+        return plugin.getServer().getOfflinePlayer(player).getName();
+    }
+
+    @Override
+    public UUID cachedId(String name) {
+        OfflinePlayer cached = plugin.getServer().getOfflinePlayerIfCached(name);
+        return cached != null ? cached.getUniqueId() : null;
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public UUID lookupId(String name) {
+        return plugin.getServer().getOfflinePlayer(name).getUniqueId();
+    }
+
+    @Override
+    public void sendMessage(UUID player, String message) {
+        Player online = plugin.getServer().getPlayer(player);
+        if (online != null) {
+            online.sendMessage(message);
+        }
+    }
+
+    @Override
+    public void broadcast(String message) {
+        plugin.getServer().broadcastMessage(message);
+    }
+
+    @Override
+    public void dispatchCommand(String command) {
+        plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command);
+    }
+
+    @Override
+    public int runLater(Runnable task, long delayTicks) {
+        return scheduler.runLater(task, delayTicks);
+    }
+
+    @Override
+    public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        return scheduler.runRepeating(task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public void cancelTask(int taskId) {
+        scheduler.cancelTask(taskId);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        scheduler.runAsync(task);
+    }
+
+    @Override
+    public boolean isMainThread() {
+        return scheduler.isGlobalThread();
+    }
+
+    @Override
+    public void runFor(UUID player, Runnable task) {
+        scheduler.runFor(player, task);
+    }
+
+    @Override
+    public SidebarDisplay sidebars() {
+        return sidebars;
+    }
+
+    @Override
+    public ActivitySource startActivityTracking(Settings.Afk afk, BiConsumer<UUID, Boolean> onChange) {
+        return new BukkitActivitySource(plugin, scheduler, afk, onChange);
+    }
+}
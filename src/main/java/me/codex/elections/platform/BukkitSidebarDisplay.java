@@ -0,0 +1,128 @@
+package me.codex.elections.platform;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sidebars as per-player Bukkit scoreboards that are kept and patched between frames. A
+ * player's sidebar is only touched on the thread that owns that player.
+ */
+final class BukkitSidebarDisplay implements SidebarDisplay {
+
+    private final Server server;
+    private final TaskScheduler scheduler;
+    private final Map<UUID, Sidebar> sidebars = new ConcurrentHashMap<>();
+
+    BukkitSidebarDisplay(Server server, TaskScheduler scheduler) {
+        this.server = server;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void show(UUID player, String title, List<String> lines) {
+        Player online = server.getPlayer(player);
+        if (online == null) {
+            return;
+        }
+        Sidebar sidebar = sidebars.computeIfAbsent(player, id -> new Sidebar(server.getScoreboardManager().getNewScoreboard()));
+        sidebar.apply(title, lines);
+        if (online.getScoreboard() != sidebar.scoreboard) {
+            online.setScoreboard(sidebar.scoreboard);
+        }
+    }
+
+    @Override
+    public void hide(UUID player) {
+        sidebars.remove(player);
+        Player online = server.getPlayer(player);
+        if (online != null) {
+            online.setScoreboard(server.getScoreboardManager().getMainScoreboard());
+        }
+    }
+
+    @Override
+    public void forget(UUID player) {
+        sidebars.remove(player);
+    }
+
+    @Override
+    public void hideAll() {
+        sidebars.clear();
+        Scoreboard main = server.getScoreboardManager().getMainScoreboard();
+        for (Player player : server.getOnlinePlayers()) {
+            scheduler.runFor(player.getUniqueId(), () -> player.setScoreboard(main));
+        }
+    }
+
+    /**
+     * One persistent scoreboard per viewer. Each sidebar slot is a fixed, invisible entry
+     * whose text lives in a team prefix, so a frame only touches the slots that changed.
+     */
+    private static final class Sidebar {
+        private static final ChatColor[] PALETTE = ChatColor.values();
+        private static final int MAX_SLOTS = 15;
+
+        private final Scoreboard scoreboard;
+        private final Objective objective;
+        private final Team[] teams = new Team[MAX_SLOTS];
+        private final String[] texts = new String[MAX_SLOTS];
+        private final int[] scores = new int[MAX_SLOTS];
+        private String title;
+        private int size;
+
+        private Sidebar(Scoreboard scoreboard) {
+            this.scoreboard = scoreboard;
+            this.objective = scoreboard.registerNewObjective("elections", "dummy", "");
+            this.objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+        }
+
+        private void apply(String frameTitle, List<String> lines) {
+            if (!frameTitle.equals(title)) {
+                objective.setDisplayName(frameTitle);
+                title = frameTitle;
+            }
+            int count = Math.min(lines.size(), MAX_SLOTS);
+            for (int i = 0; i < count; i++) {
+                String text = lines.get(i);
+                int score = lines.size() - i;
+                if (!text.equals(texts[i])) {
+                    team(i).setPrefix(text);
+                    texts[i] = text;
+                }
+                if (i >= size || scores[i] != score) {
+                    objective.getScore(entry(i)).setScore(score);
+                    scores[i] = score;
+                }
+            }
+            for (int i = count; i < size; i++) {
+                scoreboard.resetScores(entry(i));
+                texts[i] = null;
+            }
+            size = count;
+        }
+
+        private Team team(int slot) {
+            Team team = teams[slot];
+            if (team == null) {
+                team = scoreboard.registerNewTeam("elections-" + slot);
+                team.addEntry(entry(slot));
+                teams[slot] = team;
+            }
+            return team;
+        }
+
+        private static String entry(int slot) {
+            return PALETTE[slot].toString() + ChatColor.RESET;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package me.codex.elections.platform;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+
+import java.util.UUID;
+
+/**
+ * Paper and Spigot scheduling: the main thread owns both election state and every player.
+ */
+final class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+    private final Server server;
+
+    BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        this.server = plugin.getServer();
+    }
+
+    @Override
+    public int runLater(Runnable task, long delayTicks) {
+        return server.getScheduler().scheduleSyncDelayedTask(plugin, task, delayTicks);
+    }
+
+    @Override
+    public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        return server.getScheduler().scheduleSyncRepeatingTask(plugin, task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public void cancelTask(int taskId) {
+        server.getScheduler().cancelTask(taskId);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        server.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return server.isPrimaryThread();
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public void runFor(UUID player, Runnable task) {
+        if (server.isPrimaryThread()) {
+            if (server.getPlayer(player) != null) {
+                task.run();
+            }
+        } else {
+            server.getScheduler().runTask(plugin, () -> runFor(player, task));
+        }
+    }
+}
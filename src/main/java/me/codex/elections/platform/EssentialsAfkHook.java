@@ -0,0 +1,168 @@
+package me.codex.elections.platform;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Soft dependency on EssentialsX AFK state. All reflective lookups happen once, in
+ * {@link #create}; afterwards calls go through cached {@link MethodHandle}s. When the
+ * Essentials AFK event is available, {@link #subscribe} pushes changes so nothing polls.
+ * <p>
+ * The first call that fails (Essentials reloaded or changed underneath us) is logged, turns
+ * the hook off for good and runs the failure callback, so the caller can switch to the
+ * built-in detector.
+ */
+final class EssentialsAfkHook {
+
+    private static final String EVENT_CLASS = "net.ess3.api.events.AfkStatusChangeEvent";
+
+    private final Object essentials;
+    private final MethodHandle getUser;
+    private final MethodHandle userIsAfk;
+    private final Logger logger;
+    private final Runnable onFailure;
+    private Listener listener;
+    private volatile boolean failed;
+
+    private EssentialsAfkHook(Object essentials, MethodHandle getUser, MethodHandle userIsAfk, Logger logger,
+                              Runnable onFailure) {
+        this.essentials = essentials;
+        this.getUser = getUser;
+        this.userIsAfk = userIsAfk;
+        this.logger = logger;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * @param onFailure run once, on the thread that hit it, when a call into Essentials fails
+     * @return a hook, or null when Essentials is absent or its API does not match
+     */
+    static EssentialsAfkHook create(Plugin essentials, Logger logger, Runnable onFailure) {
+        if (essentials == null) {
+            return null;
+        }
+        try {
+            Class<?> essentialsClass = Class.forName("com.earth2me.essentials.Essentials");
+            if (!essentialsClass.isInstance(essentials)) {
+                return null;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Method getUserMethod = essentialsClass.getMethod("getUser", UUID.class);
+            MethodHandle getUser = lookup.unreflect(getUserMethod)
+                    .asType(MethodType.methodType(Object.class, Object.class, UUID.class));
+            MethodHandle isAfk = lookup.unreflect(getUserMethod.getReturnType().getMethod("isAfk"))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            return new EssentialsAfkHook(essentials, getUser, isAfk, logger, onFailure);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warning("EssentialsX API not found; AFK-aware playtime disabled.");
+            return null;
+        }
+    }
+
+    /**
+     * @return whether Essentials has the player AFK; false once the hook has failed
+     */
+    boolean isAfk(UUID player) {
+        if (failed) {
+            return false;
+        }
+        try {
+            Object user = (Object) getUser.invokeExact(essentials, player);
+            return user != null && (boolean) userIsAfk.invokeExact(user);
+        } catch (RuntimeException | LinkageError e) {
+            fail(e);
+            return false;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // Neither method declares a checked exception.
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    /**
+     * Registers for Essentials' AFK status event.
+     *
+     * @return false if this Essentials build has no such event, in which case callers must poll
+     */
+    @SuppressWarnings("unchecked")
+    boolean subscribe(Plugin owner, BiConsumer<UUID, Boolean> onChange) {
+        Class<? extends Event> eventClass;
+        MethodHandle affected;
+        MethodHandle value;
+        MethodHandle base;
+        try {
+            Class<?> raw = Class.forName(EVENT_CLASS);
+            if (!Event.class.isAssignableFrom(raw)) {
+                return false;
+            }
+            eventClass = (Class<? extends Event>) raw;
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Method getAffected = raw.getMethod("getAffected");
+            affected = lookup.unreflect(getAffected).asType(MethodType.methodType(Object.class, Event.class));
+            value = lookup.unreflect(raw.getMethod("getValue")).asType(MethodType.methodType(boolean.class, Event.class));
+            base = lookup.unreflect(getAffected.getReturnType().getMethod("getBase"))
+                    .asType(MethodType.methodType(Player.class, Object.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+
+        this.listener = new Listener() { };
+        owner.getServer().getPluginManager().registerEvent(eventClass, listener, EventPriority.MONITOR, (l, event) -> {
+            if (!eventClass.isInstance(event)) {
+                return;
+            }
+            if (failed) {
+                return;
+            }
+            boolean afk;
+            Player player;
+            try {
+                player = (Player) base.invokeExact((Object) affected.invokeExact(event));
+                afk = (boolean) value.invokeExact(event);
+            } catch (RuntimeException | LinkageError e) {
+                fail(e);
+                return;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+            if (player != null) {
+                onChange.accept(player.getUniqueId(), afk);
+            }
+        }, owner, true);
+        return true;
+    }
+
+    private void fail(Throwable cause) {
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            failed = true;
+        }
+        logger.warning("EssentialsX AFK lookup failed, no longer using it: " + cause);
+        onFailure.run();
+    }
+
+    void unsubscribe() {
+        if (listener != null) {
+            HandlerList.unregisterAll(listener);
+            listener = null;
+        }
+    }
+}
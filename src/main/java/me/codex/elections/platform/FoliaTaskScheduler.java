@@ -0,0 +1,119 @@
+package me.codex.elections.platform;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Folia scheduling. The global region scheduler stands in for the main thread and player work
+ * goes to each player's entity scheduler, which follows the player from region to region.
+ * Folia tasks have no ids, so they are numbered here to keep the int ids the rest of the
+ * plugin cancels by.
+ * <p>
+ * Folia refuses new tasks from a disabled plugin, so player work requested during shutdown is
+ * dropped. Folia cannot reload plugins, so that only happens while the server is stopping.
+ */
+final class FoliaTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+    private final Server server;
+    private final Map<Integer, Handle> tasks = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        this.server = plugin.getServer();
+    }
+
+    @Override
+    public int runLater(Runnable task, long delayTicks) {
+        int id = nextId.getAndIncrement();
+        Handle handle = new Handle();
+        tasks.put(id, handle);
+        Consumer<ScheduledTask> body = scheduled -> {
+            tasks.remove(id);
+            if (!handle.cancelled) {
+                task.run();
+            }
+        };
+        handle.task = delayTicks <= 0
+                ? server.getGlobalRegionScheduler().run(plugin, body)
+                : server.getGlobalRegionScheduler().runDelayed(plugin, body, delayTicks);
+        return id;
+    }
+
+    @Override
+    public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        int id = nextId.getAndIncrement();
+        Handle handle = new Handle();
+        tasks.put(id, handle);
+        handle.task = server.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> {
+            if (handle.cancelled) {
+                scheduled.cancel();
+            } else {
+                task.run();
+            }
+        }, Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return id;
+    }
+
+    @Override
+    public void cancelTask(int taskId) {
+        Handle handle = tasks.remove(taskId);
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        server.getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return server.isGlobalTickThread();
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public void runFor(UUID player, Runnable task) {
+        Player online = server.getPlayer(player);
+        if (online == null) {
+            return;
+        }
+        if (server.isOwnedByCurrentRegion(online)) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            online.getScheduler().execute(plugin, task, null, 1L);
+        }
+    }
+
+    /**
+     * A numbered task. Cancelling may race with Folia handing back the {@link ScheduledTask},
+     * so the flag is checked again when the task runs.
+     */
+    private static final class Handle {
+        private volatile ScheduledTask task;
+        private volatile boolean cancelled;
+
+        private void cancel() {
+            cancelled = true;
+            ScheduledTask scheduled = task;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+    }
+}
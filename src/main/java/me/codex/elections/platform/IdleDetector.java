@@ -0,0 +1,189 @@
+package me.codex.elections.platform;
+
+import io.papermc.paper.event.player.AsyncChatEvent;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Built-in AFK detection for servers without Essentials. Instead of listening to every move
+ * event, a task samples each online player's position and view direction every few seconds
+ * into a {@link Location} reused per player; chat, commands and interactions just stamp a
+ * time. A player who shows none of these for the idle threshold is reported AFK.
+ * <p>
+ * Positions are read on the thread that owns the player: inline in the sampling task on Paper,
+ * or through each player's entity scheduler on Folia, reusing one task per player. Changes are
+ * handed back to the main thread.
+ */
+final class IdleDetector implements Listener {
+
+    private static final double MIN_MOVE_SQUARED = 0.01;
+    private static final float MIN_TURN_DEGREES = 1.0f;
+
+    private final Plugin plugin;
+    private final TaskScheduler scheduler;
+    private final long idleMillis;
+    private final long sampleTicks;
+    private final BiConsumer<UUID, Boolean> onChange;
+    private final Map<UUID, Sample> samples = new ConcurrentHashMap<>();
+    private int taskId = -1;
+
+    IdleDetector(Plugin plugin, TaskScheduler scheduler, long idleMillis, long sampleTicks,
+                 BiConsumer<UUID, Boolean> onChange) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.idleMillis = Math.max(1000L, idleMillis);
+        this.sampleTicks = Math.max(1L, sampleTicks);
+        this.onChange = onChange;
+    }
+
+    void start() {
+        stop();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        this.taskId = scheduler.runRepeating(this::sample, sampleTicks, sampleTicks);
+    }
+
+    void stop() {
+        if (taskId != -1) {
+            scheduler.cancelTask(taskId);
+            taskId = -1;
+        }
+        HandlerList.unregisterAll(this);
+        samples.clear();
+    }
+
+    /**
+     * Starts the idle clock now; the first sample only records where the player stands.
+     */
+    void track(UUID player) {
+        Sample sample = new Sample();
+        sample.lastActive = now();
+        samples.put(player, sample);
+    }
+
+    void untrack(UUID player) {
+        samples.remove(player);
+    }
+
+    private void sample() {
+        long now = now();
+        boolean inline = !scheduler.isRegionized();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            Sample sample = samples.get(player.getUniqueId());
+            if (sample == null) {
+                continue;
+            }
+            if (inline) {
+                check(player, sample, now);
+            } else if (!sample.queued) {
+                // Skipped while the previous sample is still waiting on a busy region.
+                sample.player = player;
+                sample.now = now;
+                sample.queued = true;
+                scheduler.runFor(player.getUniqueId(), sample.task);
+            }
+        }
+    }
+
+    private void check(Player player, Sample sample, long now) {
+        Location location = player.getLocation(sample.scratch);
+        if (sample.world != null && sample.movedSince(location)) {
+            sample.lastActive = now;
+        }
+        sample.capture(location);
+        boolean idle = now - sample.lastActive >= idleMillis;
+        if (idle != sample.afk) {
+            sample.afk = idle;
+            UUID id = player.getUniqueId();
+            if (scheduler.isGlobalThread()) {
+                onChange.accept(id, idle);
+            } else {
+                scheduler.runLater(() -> onChange.accept(id, idle), 0L);
+            }
+        }
+    }
+
+    private void markActive(Player player) {
+        Sample sample = samples.get(player.getUniqueId());
+        if (sample != null) {
+            sample.lastActive = now();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChat(AsyncChatEvent event) {
+        markActive(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCommand(PlayerCommandPreprocessEvent event) {
+        markActive(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        markActive(event.getPlayer());
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+
+    private final class Sample {
+        private final Location scratch = new Location(null, 0, 0, 0);
+        /** Folia only: runs one queued check on the player's region. */
+        private final Runnable task = this::runQueued;
+        private Player player;
+        private long now;
+        private volatile boolean queued;
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+        private float yaw;
+        private float pitch;
+        private volatile long lastActive;
+        private boolean afk;
+
+        private void runQueued() {
+            try {
+                check(player, this, now);
+            } finally {
+                queued = false;
+            }
+        }
+
+        private void capture(Location location) {
+            world = location.getWorld();
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+            yaw = location.getYaw();
+            pitch = location.getPitch();
+        }
+
+        private boolean movedSince(Location location) {
+            if (location.getWorld() != world) {
+                return true;
+            }
+            double dx = location.getX() - x;
+            double dy = location.getY() - y;
+            double dz = location.getZ() - z;
+            return dx * dx + dy * dy + dz * dz > MIN_MOVE_SQUARED
+                    || Math.abs(location.getYaw() - yaw) > MIN_TURN_DEGREES
+                    || Math.abs(location.getPitch() - pitch) > MIN_TURN_DEGREES;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package me.codex.elections.platform;
+
+import me.codex.elections.config.Settings;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Everything the election core needs from the server. The plugin runs on
+ * {@link BukkitPlatform}; anything else (a load simulator, a headless test harness) can drive
+ * the same services on a plain JVM. Unless noted, methods are called from the main thread,
+ * which on Folia is the global region thread.
+ */
+public interface Platform {
+
+    Settings settings();
+
+    Logger logger();
+
+    File dataFolder();
+
+    /**
+     * @return a live view of the online players' ids; do not hold on to it across ticks
+     */
+    Collection<UUID> onlinePlayers();
+
+    boolean isOnline(UUID player);
+
+    /**
+     * @return the server's stored name for a player, or null if it has never seen them
+     */
+    String lookupName(UUID player);
+
+    /**
+     * @return the id the server's user cache holds for {@code name}, or null; never blocks
+     */
+    UUID cachedId(String name);
+
+    /**
+     * Looks {@code name} up, asking the session servers if the server has never seen it. May
+     * block, so call it off the main thread.
+     *
+     * @return the player's id; for a name no account has, the id the server would give it
+     */
+    UUID lookupId(String name);
+
+    void sendMessage(UUID player, String message);
+
+    void broadcast(String message);
+
+    void dispatchCommand(String command);
+
+    /**
+     * Runs {@code task} on the main thread after {@code delayTicks}; 0 means the next tick.
+     * Safe to call from any thread.
+     *
+     * @return a task id for {@link #cancelTask}
+     */
+    int runLater(Runnable task, long delayTicks);
+
+    int runRepeating(Runnable task, long delayTicks, long periodTicks);
+
+    void cancelTask(int taskId);
+
+    void runAsync(Runnable task);
+
+    /**
+     * @return whether the caller is on the main thread; safe to call from any thread
+     */
+    boolean isMainThread();
+
+    /**
+     * Runs {@code task} on the main thread: straight away when the caller is already on it,
+     * otherwise on the next tick. For events and commands that Folia delivers on a player's
+     * region thread.
+     */
+    default void runOnMain(Runnable task) {
+        if (isMainThread()) {
+            task.run();
+        } else {
+            runLater(task, 0L);
+        }
+    }
+
+    /**
+     * Runs {@code task} on the thread that owns {@code player}, which is the main thread except
+     * on Folia: straight away when the caller is already on it, otherwise on that thread's next
+     * tick. Dropped if the player is offline. Safe to call from any thread.
+     */
+    void runFor(UUID player, Runnable task);
+
+    SidebarDisplay sidebars();
+
+    /**
+     * Starts reporting AFK changes to {@code onChange}, always on the main thread. Players are
+     * sampled on the threads that own them.
+     */
+    ActivitySource startActivityTracking(Settings.Afk afk, BiConsumer<UUID, Boolean> onChange);
+}
@@ -0,0 +1,30 @@
+package me.codex.elections.platform;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-player sidebar output. Lines are listed top to bottom; implementations may skip work
+ * for lines that did not change since the last {@link #show}. {@link #show} and {@link #hide}
+ * are called on the thread that owns the player (see {@link Platform#runFor}), the others on
+ * the main thread.
+ */
+public interface SidebarDisplay {
+
+    void show(UUID player, String title, List<String> lines);
+
+    /**
+     * Removes the sidebar from an online player and drops its state.
+     */
+    void hide(UUID player);
+
+    /**
+     * Drops the state kept for a player who left.
+     */
+    void forget(UUID player);
+
+    /**
+     * Hides every sidebar and drops all state.
+     */
+    void hideAll();
+}
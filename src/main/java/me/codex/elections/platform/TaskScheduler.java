@@ -0,0 +1,50 @@
+package me.codex.elections.platform;
+
+import org.bukkit.plugin.Plugin;
+
+import java.util.UUID;
+
+/**
+ * Where plugin work runs. Election state belongs to a single global thread: the main thread
+ * on Paper, the global region thread on Folia. Work that touches one player runs on the thread
+ * that owns that player, which on Paper is the same main thread.
+ */
+interface TaskScheduler {
+
+    /**
+     * @return the Folia scheduler when running on a region-threaded server, else the Bukkit one
+     */
+    static TaskScheduler create(Plugin plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return new FoliaTaskScheduler(plugin);
+        } catch (ClassNotFoundException e) {
+            return new BukkitTaskScheduler(plugin);
+        }
+    }
+
+    /**
+     * Runs {@code task} on the global thread after {@code delayTicks}; 0 means the next tick.
+     */
+    int runLater(Runnable task, long delayTicks);
+
+    int runRepeating(Runnable task, long delayTicks, long periodTicks);
+
+    void cancelTask(int taskId);
+
+    void runAsync(Runnable task);
+
+    boolean isGlobalThread();
+
+    /**
+     * @return whether players belong to their own region threads rather than the global one
+     */
+    boolean isRegionized();
+
+    /**
+     * Runs {@code task} on the thread that owns {@code player}: straight away when the caller is
+     * already on it, otherwise on that thread's next tick. Dropped if the player is offline or
+     * leaves before it runs.
+     */
+    void runFor(UUID player, Runnable task);
+}
@@ -0,0 +1,85 @@
+package me.codex.elections.service;
+
+import me.codex.elections.persistence.StateSnapshot.QueuedCommand;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ordered queue of rendered console commands waiting to be dispatched. Each command carries a
+ * sequence id so completion can be journaled one command at a time; after a crash only the
+ * commands without a completion record run again. Main thread only.
+ */
+public class CommandOutbox {
+
+    private final Deque<QueuedCommand> pending = new ArrayDeque<>();
+    private long nextId = 1L;
+
+    /**
+     * Appends {@code commands} in order.
+     *
+     * @return the queued entries, for the caller to persist
+     */
+    public List<QueuedCommand> enqueue(List<String> commands) {
+        List<QueuedCommand> queued = new ArrayList<>(commands.size());
+        for (String command : commands) {
+            QueuedCommand entry = new QueuedCommand(nextId++, command);
+            pending.addLast(entry);
+            queued.add(entry);
+        }
+        return queued;
+    }
+
+    /**
+     * Re-adds an entry recovered from the state file or journal, ignoring ones already queued.
+     */
+    public void restore(QueuedCommand entry) {
+        for (QueuedCommand existing : pending) {
+            if (existing.id() == entry.id()) {
+                return;
+            }
+        }
+        pending.addLast(entry);
+        nextId = Math.max(nextId, entry.id() + 1);
+    }
+
+    public void complete(long id) {
+        pending.removeIf(entry -> entry.id() == id);
+    }
+
+    /**
+     * Hands commands to {@code dispatcher} in order until the queue is empty or
+     * {@code budgetNanos} has elapsed. At least one command runs per call, so a single slow
+     * command cannot stall the queue.
+     *
+     * @return how many commands ran
+     */
+    public int drain(long budgetNanos, Consumer<QueuedCommand> dispatcher) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int ran = 0;
+        while (!pending.isEmpty()) {
+            QueuedCommand next = pending.pollFirst();
+            dispatcher.accept(next);
+            ran++;
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        return ran;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public List<QueuedCommand> snapshot() {
+        return List.copyOf(pending);
+    }
+}
@@ -0,0 +1,61 @@
+package me.codex.elections.service;
+
+import me.codex.elections.util.PrefixIndex;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Name indexes for tab completion. Writers run on the main thread when players join or quit
+ * and when the nominee or election list changes; readers may be on Paper's async tab-complete threads and
+ * only ever see a complete, immutable {@link PrefixIndex}.
+ */
+public class CompletionIndex {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private volatile PrefixIndex online = PrefixIndex.empty();
+    private volatile PrefixIndex nominees = PrefixIndex.empty();
+    private volatile PrefixIndex votable = PrefixIndex.empty();
+    private volatile PrefixIndex elections = PrefixIndex.empty();
+
+    public synchronized void addOnline(String name) {
+        online = online.with(name);
+    }
+
+    public synchronized void removeOnline(String name) {
+        online = online.without(name);
+    }
+
+    /**
+     * @param names   nominees of every election
+     * @param votable nominees of elections that still accept votes
+     */
+    public void setNominees(Collection<String> names, Collection<String> votable) {
+        this.nominees = PrefixIndex.of(names);
+        this.votable = PrefixIndex.of(votable);
+    }
+
+    public void setElections(Collection<String> ids) {
+        this.elections = PrefixIndex.of(ids);
+    }
+
+    public List<String> online(String prefix) {
+        return online.complete(prefix, MAX_SUGGESTIONS);
+    }
+
+    public List<String> nominees(String prefix) {
+        return nominees.complete(prefix, MAX_SUGGESTIONS);
+    }
+
+    public List<String> elections(String prefix) {
+        return elections.complete(prefix, MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Nominees, but only those standing in an election that still accepts votes.
+     */
+    public List<String> votable(String prefix) {
+        return votable.complete(prefix, MAX_SUGGESTIONS);
+    }
+}
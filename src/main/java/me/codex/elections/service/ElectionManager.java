@@ -1,361 +1,666 @@
 package me.codex.elections.service;
 
-import me.codex.elections.ElectionsPlugin;
+import me.codex.elections.config.Settings;
 import me.codex.elections.model.Election;
+import me.codex.elections.model.ElectionRegistry;
+import me.codex.elections.model.ElectionView;
+import me.codex.elections.persistence.BinaryStateCodec;
+import me.codex.elections.persistence.StateCodec;
+import me.codex.elections.persistence.StateJournal;
+import me.codex.elections.persistence.StateSnapshot;
+import me.codex.elections.persistence.StateSnapshot.QueuedCommand;
+import me.codex.elections.persistence.YamlStateCodec;
+import me.codex.elections.platform.ActivitySource;
+import me.codex.elections.platform.Platform;
+import me.codex.elections.tally.TallyEngine;
+import me.codex.elections.tally.TallyResult;
 import me.codex.elections.util.DurationUtil;
-import org.bukkit.configuration.InvalidConfigurationException;
-import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.Bukkit;
+import me.codex.elections.util.MessageTemplate;
+import me.codex.elections.util.MessageTemplate.Placeholder;
+import me.codex.elections.util.MpscQueue;
+import me.codex.elections.util.PlaytimeTable;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
-import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.io.File;
 import java.io.IOException;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Owns every election and all state shared between them. Elections are changed on the main
+ * thread only (the global region thread on Folia): commands call in directly, and any other
+ * thread {@linkplain #submit submits} a message to the inbox, which the main thread drains
+ * every tick. After each drain the elections that changed are republished as
+ * {@link ElectionView}s, which any thread may read.
+ */
 public class ElectionManager {
 
-    private final ElectionsPlugin plugin;
+    private final Platform platform;
     private final ScoreboardService scoreboardService;
-    private Election currentElection;
-    private UUID lastWinnerId;
-    private String lastRole;
+    private final NameCache names;
+    private final CompletionIndex completions;
+    private final ElectionRegistry registry;
+    /** Role to the players who won it and still hold it. */
+    private final Map<String, List<UUID>> offices = new LinkedHashMap<>();
     private int taskId = -1;
-    private int activityTaskId = -1;
-    private final Map<UUID, Integer> activeSeconds = new HashMap<>();
-    private boolean essentialsAfkHooked = false;
-    private Object essentialsPlugin;
-
-    public ElectionManager(ElectionsPlugin plugin, ScoreboardService scoreboardService) {
-        this.plugin = plugin;
+    private final PlaytimeTracker playtime;
+    private ActivitySource activity;
+    private StateJournal journal;
+    /**
+     * With the journal off: the generation stored in snapshots, past every journal file seen
+     * at startup, so files left over from when it was on are never replayed over newer state.
+     */
+    private long retiredGeneration;
+    private StateCodec stateCodec = new YamlStateCodec();
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Elections-Save");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingSave;
+    private volatile boolean stateDirty = false;
+    private boolean saveRequested = false;
+    private int autosaveTaskId = -1;
+    private final CommandOutbox outbox = new CommandOutbox();
+    private final Deque<Ballot> intake = new ArrayDeque<>();
+    private int intakeTaskId = -1;
+    private int outboxTaskId = -1;
+    private final MpscQueue<Runnable> inbox = new MpscQueue<>();
+    private int inboxTaskId = -1;
+    private Map<Election, ElectionView> published = new IdentityHashMap<>();
+    private volatile Map<String, ElectionView> views = Map.of();
+
+    public ElectionManager(Platform platform, ElectionRegistry registry, ScoreboardService scoreboardService,
+                           NameCache names, CompletionIndex completions) {
+        this.platform = platform;
+        this.registry = registry;
         this.scoreboardService = scoreboardService;
+        this.names = names;
+        this.completions = completions;
+        this.playtime = new PlaytimeTracker(platform.settings().playtime().offHeap());
+    }
+
+    /**
+     * @return every election held right now, in creation order
+     */
+    public Collection<Election> getElections() {
+        return registry.all();
+    }
+
+    public Optional<Election> getElection(String id) {
+        return Optional.ofNullable(registry.get(id));
+    }
+
+    /**
+     * @return the last published view of every election, in creation order. Safe to call
+     *         from any thread; at most one tick behind the elections themselves.
+     */
+    public Collection<ElectionView> views() {
+        return views.values();
+    }
+
+    /**
+     * Like {@link #views()}, for one election.
+     */
+    public Optional<ElectionView> view(String id) {
+        return Optional.ofNullable(views.get(normalize(id)));
+    }
+
+    /**
+     * Hands {@code message} to the main thread, which runs it at the start of the next tick
+     * together with everything else submitted since, in arrival order. Safe to call from any
+     * thread. Reads that views do not cover, such as one voter's ballot, go through here too.
+     *
+     * @return completed on the main thread with the message's result, or exceptionally if it
+     *         threw
+     */
+    public <T> CompletableFuture<T> submit(Function<ElectionManager, T> message) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        inbox.offer(() -> {
+            try {
+                result.complete(message.apply(this));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * {@link #vote(String, UUID, List, List)} from any thread. Completes with the same
+     * acknowledgement {@code /vote} gives; the voter is sent the final confirmation once the
+     * ballot is counted.
+     */
+    public CompletableFuture<ActionResult> submitVote(String id, UUID voter, List<UUID> ranking, List<Integer> scores) {
+        List<UUID> choices = List.copyOf(ranking);
+        List<Integer> scored = scores != null ? List.copyOf(scores) : null;
+        return submit(manager -> manager.vote(id, voter, choices, scored));
+    }
+
+    /**
+     * {@link #nominate} from any thread, with the nominator's usual limits.
+     */
+    public CompletableFuture<ActionResult> submitNomination(String id, UUID nominator, UUID target) {
+        return submit(manager -> manager.nominate(id, nominator, false, target));
+    }
+
+    /**
+     * Runs every submitted message, then republishes the views of elections that changed.
+     * Runs every tick, and once more on shutdown so nothing submitted is dropped.
+     */
+    public void drainInbox() {
+        Runnable message;
+        while ((message = inbox.poll()) != null) {
+            message.run();
+        }
+        publishViews();
     }
 
-    public Optional<Election> getCurrentElection() {
-        return Optional.ofNullable(currentElection);
+    /**
+     * Replaces the views of elections whose version moved since the last call and drops those
+     * of removed elections. When nothing changed this is one version check per election.
+     */
+    private void publishViews() {
+        boolean stale = published.size() != registry.size();
+        for (Election election : registry.all()) {
+            ElectionView view = published.get(election);
+            if (view == null || view.version() != election.getVersion()) {
+                published.put(election, ElectionView.of(election));
+                stale = true;
+            }
+        }
+        if (!stale) {
+            return;
+        }
+        Map<Election, ElectionView> current = new IdentityHashMap<>();
+        Map<String, ElectionView> byId = new LinkedHashMap<>();
+        for (Election election : registry.all()) {
+            ElectionView view = published.get(election);
+            current.put(election, view);
+            byId.put(election.getId(), view);
+        }
+        this.published = current;
+        this.views = Collections.unmodifiableMap(byId);
     }
 
     public void startTicking() {
         stopTicking();
-        this.taskId = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this::tick, 20L, 20L);
+        this.taskId = platform.runRepeating(this::tick, 20L, 20L);
+        this.inboxTaskId = platform.runRepeating(this::drainInbox, 1L, 1L);
+        scheduleOutboxDrain();
     }
 
     public void stopTicking() {
         if (taskId != -1) {
-            plugin.getServer().getScheduler().cancelTask(taskId);
+            platform.cancelTask(taskId);
             taskId = -1;
         }
+        if (inboxTaskId != -1) {
+            platform.cancelTask(inboxTaskId);
+            inboxTaskId = -1;
+        }
+        if (outboxTaskId != -1) {
+            platform.cancelTask(outboxTaskId);
+            outboxTaskId = -1;
+        }
     }
 
+    /**
+     * Starts, or restarts with the current {@code afk.*} settings, the source of AFK changes.
+     * A new source knows nothing of earlier AFK state, so everyone online starts out active
+     * and is reported AFK again once the new source sees it.
+     */
     public void startActivityTracking() {
         stopActivityTracking();
-        this.essentialsAfkHooked = hookEssentialsAfk();
-        this.activityTaskId = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this::tickActivity, 20L, 20L);
+        this.activity = platform.startActivityTracking(platform.settings().afk(), this::applyAfk);
+        for (UUID player : platform.onlinePlayers()) {
+            playtime.setAfk(player, false);
+            handleJoin(player);
+        }
     }
 
-    public void stopActivityTracking() {
-        if (activityTaskId != -1) {
-            plugin.getServer().getScheduler().cancelTask(activityTaskId);
-            activityTaskId = -1;
+    public void handleJoin(UUID player) {
+        playtime.join(player);
+        if (activity != null) {
+            activity.track(player);
         }
     }
 
-    public void loadState() {
-        File file = new File(plugin.getDataFolder(), "state.yml");
-        if (!file.exists()) {
-            return;
+    public void handleQuit(UUID player) {
+        if (activity != null) {
+            activity.untrack(player);
         }
-        YamlConfiguration yaml = new YamlConfiguration();
-        try {
-            yaml.load(file);
-        } catch (IOException | InvalidConfigurationException e) {
-            plugin.getLogger().warning("Failed to load election state: " + e.getMessage());
-            return;
-        }
-
-        String lastWinnerStr = yaml.getString("last.winner");
-        this.lastWinnerId = lastWinnerStr != null ? UUID.fromString(lastWinnerStr) : null;
-        this.lastRole = yaml.getString("last.role", null);
+        journalPlaytime(player, playtime.quit(player));
+    }
 
-        if (!yaml.isConfigurationSection("current")) {
-            return;
-        }
-        String role = yaml.getString("current.role");
-        String typeStr = yaml.getString("current.type", Election.Type.REGULAR.name());
-        String statusStr = yaml.getString("current.status", Election.Status.ACTIVE.name());
-        long endsAt = yaml.getLong("current.endsAt", 0L);
-
-        Election.Type type = Election.Type.valueOf(typeStr);
-        Election.Status status = Election.Status.valueOf(statusStr);
-        Election election = new Election(role, Instant.ofEpochMilli(endsAt), type);
-        election.setStatus(status);
-
-        List<String> nominees = yaml.getStringList("current.nominees");
-        nominees.forEach(n -> election.addNominee(UUID.fromString(n)));
-
-        // votes
-        if (yaml.isConfigurationSection("current.votes")) {
-            for (String voter : yaml.getConfigurationSection("current.votes").getKeys(false)) {
-                String candidate = yaml.getString("current.votes." + voter);
-                if (candidate != null) {
-                    election.getVotes().put(UUID.fromString(voter), UUID.fromString(candidate));
-                }
-            }
+    public void stopActivityTracking() {
+        if (activity != null) {
+            activity.stop();
+            activity = null;
         }
+    }
 
-        // platforms
-        if (yaml.isConfigurationSection("current.platforms")) {
-            for (String nominee : yaml.getConfigurationSection("current.platforms").getKeys(false)) {
-                String text = yaml.getString("current.platforms." + nominee);
-                if (text != null) {
-                    election.setPlatform(UUID.fromString(nominee), text);
-                }
+    public void loadState() {
+        this.stateCodec = StateCodec.forFormat(platform.settings().stateFormat());
+        StateCodec source = stateCodec;
+        File stateFile = new File(platform.dataFolder(), stateCodec.fileName());
+        File migratedFrom = null;
+        if (!stateFile.exists()) {
+            StateCodec legacy = stateCodec instanceof BinaryStateCodec ? new YamlStateCodec() : new BinaryStateCodec();
+            File legacyFile = new File(platform.dataFolder(), legacy.fileName());
+            if (legacyFile.exists()) {
+                source = legacy;
+                stateFile = legacyFile;
+                migratedFrom = legacyFile;
             }
         }
-
-        // vote changes
-        if (yaml.isConfigurationSection("current.voteChanges")) {
-            Map<UUID, Integer> changes = new HashMap<>();
-            for (String voter : yaml.getConfigurationSection("current.voteChanges").getKeys(false)) {
-                changes.put(UUID.fromString(voter), yaml.getInt("current.voteChanges." + voter, 0));
+        long generation = loadSnapshot(source, stateFile);
+        Settings.Persistence persistence = platform.settings().persistence();
+        // Records journaled before a crash are replayed even if the journal has since been turned off.
+        boolean leftovers = StateJournal.exists(platform.dataFolder());
+        StateJournal replayed = new StateJournal(platform.dataFolder(), persistence.journalSyncIntervalMs(),
+                platform.logger());
+        long newest = replayed.replay(generation, new JournalReplay());
+        if (persistence.journalEnabled()) {
+            this.journal = replayed;
+            // Fold whatever was replayed into a fresh snapshot and start a new journal generation.
+            saveState();
+        } else {
+            this.retiredGeneration = newest + 1;
+            if (leftovers) {
+                // Folds the records in; the files are deleted once that snapshot is written.
+                saveState();
             }
-            election.setVoteChanges(changes);
         }
-
-        // active seconds
-        if (yaml.isConfigurationSection("activitySeconds")) {
-            for (String id : yaml.getConfigurationSection("activitySeconds").getKeys(false)) {
-                activeSeconds.put(UUID.fromString(id), yaml.getInt("activitySeconds." + id, 0));
+        if (migratedFrom != null && migratedFrom.exists()) {
+            if (journal == null && !leftovers) {
+                saveState();
             }
-        }
-
-        // nominations map
-        if (yaml.isConfigurationSection("current.nominations")) {
-            Map<UUID, Set<UUID>> nominations = new HashMap<>();
-            for (String nominator : yaml.getConfigurationSection("current.nominations").getKeys(false)) {
-                List<String> targets = yaml.getStringList("current.nominations." + nominator);
-                Set<UUID> set = new HashSet<>();
-                targets.forEach(t -> set.add(UUID.fromString(t)));
-                nominations.put(UUID.fromString(nominator), set);
+            File backup = new File(migratedFrom.getParentFile(), migratedFrom.getName() + ".migrated");
+            // Only once the new file has been written; a failed save retries from the old one.
+            if (!stateDirty && migratedFrom.renameTo(backup)) {
+                platform.logger().info("Migrated " + migratedFrom.getName() + " to " + stateCodec.fileName()
+                        + "; the old file was kept as " + backup.getName());
             }
-            election.setNominationsBy(nominations);
         }
+        nomineesChanged();
+        registry.all().forEach(scoreboardService::markDirty);
+    }
 
-        String winnerStr = yaml.getString("current.winner");
-        if (winnerStr != null && !winnerStr.isBlank()) {
-            election.setWinner(UUID.fromString(winnerStr));
+    public void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
         }
-        election.setCommandsRan(yaml.getBoolean("current.commandsRan", false));
-        election.setAnnouncedFinished(yaml.getBoolean("current.announcedFinished", false));
+    }
 
-        this.currentElection = election;
-        scoreboardService.updateAll(election);
+    /**
+     * Reads a state file into memory. A file that cannot be read is renamed to
+     * {@code <name>.corrupt-<millis>} so the next save cannot overwrite it.
+     *
+     * @return the journal generation the snapshot already covers
+     */
+    private long loadSnapshot(StateCodec codec, File file) {
+        if (!file.exists()) {
+            return 0L;
+        }
+        StateSnapshot snapshot;
+        try {
+            snapshot = codec.read(file);
+        } catch (IOException | RuntimeException e) {
+            File aside = new File(file.getParentFile(), file.getName() + ".corrupt-" + System.currentTimeMillis());
+            if (file.renameTo(aside)) {
+                platform.logger().warning("Failed to load election state: " + e.getMessage()
+                        + ". Starting empty; the unreadable file was kept as " + aside.getName());
+            } else {
+                platform.logger().warning("Failed to load election state: " + e.getMessage()
+                        + ". It could not be moved aside, so nothing will be saved until the plugin is restarted.");
+                this.stateCodec = null;
+            }
+            return 0L;
+        }
+        snapshot.offices().forEach((role, holders) -> offices.put(role, List.copyOf(holders)));
+        this.playtime.load(snapshot.playtime());
+        snapshot.outbox().forEach(outbox::restore);
+        evictInactivePlayers();
+        for (StateSnapshot.ElectionState state : snapshot.elections()) {
+            Election election = state.toElection();
+            if (!registry.add(election)) {
+                platform.logger().warning("Ignoring a second saved election with id " + election.getId());
+            }
+        }
+        return snapshot.journalGeneration();
     }
 
+    /**
+     * Writes the state file on the calling thread, waiting for any background save first.
+     * Used on shutdown and startup.
+     */
     public void saveState() {
-        if (!plugin.getDataFolder().exists()) {
-            plugin.getDataFolder().mkdirs();
-        }
-        File file = new File(plugin.getDataFolder(), "state.yml");
-        YamlConfiguration yaml = new YamlConfiguration();
+        awaitPendingSave();
+        Supplier<StateSnapshot> capture = captureSnapshot();
+        stateDirty = false;
+        writeSnapshot(capture, journal);
+    }
 
-        if (lastWinnerId != null) {
-            yaml.set("last.winner", lastWinnerId.toString());
-        }
-        if (lastRole != null) {
-            yaml.set("last.role", lastRole);
+    /**
+     * Captures a snapshot here and serializes it on the save thread. If a save is still
+     * running the request is retried from the next tick, so journal rotations never get
+     * ahead of the snapshot that covers them.
+     */
+    public void requestSave() {
+        if (pendingSave != null && !pendingSave.isDone()) {
+            saveRequested = true;
+            return;
         }
+        saveRequested = false;
+        Supplier<StateSnapshot> capture = captureSnapshot();
+        stateDirty = false;
+        StateJournal journaled = journal;
+        pendingSave = saveExecutor.submit(() -> writeSnapshot(capture, journaled));
+    }
 
-        if (currentElection != null) {
-            Election e = currentElection;
-            yaml.set("current.role", e.getRole());
-            yaml.set("current.type", e.getType().name());
-            yaml.set("current.status", e.getStatus().name());
-            yaml.set("current.startedAt", e.getStartedAt().toEpochMilli());
-            yaml.set("current.endsAt", e.getEndsAt().toEpochMilli());
-            yaml.set("current.nominees", e.getNominees().stream().map(UUID::toString).toList());
-            yaml.set("current.commandsRan", e.haveCommandsRun());
-            yaml.set("current.announcedFinished", e.isAnnouncedFinished());
-            e.getWinner().ifPresent(w -> yaml.set("current.winner", w.toString()));
+    public void startAutosave() {
+        stopAutosave();
+        long seconds = platform.settings().persistence().autosaveIntervalSeconds();
+        if (seconds <= 0) {
+            return;
+        }
+        // Open sessions alone do not count: their time is settled, journaled and marked dirty
+        // when they close, so an idle server with players online skips the save.
+        this.autosaveTaskId = platform.runRepeating(() -> {
+            if (evictInactivePlayers() > 0 || stateDirty) {
+                requestSave();
+            }
+        }, seconds * 20L, seconds * 20L);
+    }
 
-            Map<String, String> votes = new HashMap<>();
-            e.getVotes().forEach((voter, candidate) -> votes.put(voter.toString(), candidate.toString()));
-            yaml.createSection("current.votes", votes);
+    public void stopAutosave() {
+        if (autosaveTaskId != -1) {
+            platform.cancelTask(autosaveTaskId);
+            autosaveTaskId = -1;
+        }
+    }
 
-            Map<String, String> platforms = new HashMap<>();
-            e.getPlatforms().forEach((nominee, platform) -> platforms.put(nominee.toString(), platform));
-            yaml.createSection("current.platforms", platforms);
+    public void shutdownSaves() {
+        awaitPendingSave();
+        saveExecutor.shutdown();
+    }
 
-            Map<String, Integer> changes = new HashMap<>();
-            e.getVoteChanges().forEach((voter, count) -> changes.put(voter.toString(), count));
-            yaml.createSection("current.voteChanges", changes);
+    /**
+     * Rotates the journal and takes primitive copies of everything saved. The returned
+     * supplier boxes them into a {@link StateSnapshot}, so the save thread can do that work.
+     */
+    private Supplier<StateSnapshot> captureSnapshot() {
+        long generation = journal != null ? journal.rotate() : retiredGeneration;
+        playtime.settleAll();
+        List<Election> elections = new ArrayList<>(registry.size());
+        for (Election election : registry.all()) {
+            elections.add(election.copy());
+        }
+        Map<String, List<UUID>> held = Collections.unmodifiableMap(new LinkedHashMap<>(offices));
+        PlaytimeTable totals = playtime.copyTotals();
+        List<QueuedCommand> queued = outbox.snapshot();
+        return () -> StateSnapshot.of(held, generation, elections, totals, queued);
+    }
 
-            Map<String, List<String>> nominations = new HashMap<>();
-            e.getNominationsBy().forEach((nominator, set) -> nominations.put(
-                    nominator.toString(),
-                    set.stream().map(UUID::toString).toList()
-            ));
-            yaml.createSection("current.nominations", nominations);
+    /**
+     * @param journaled the journal {@code capture} was taken against, or null when it is off
+     */
+    private void writeSnapshot(Supplier<StateSnapshot> capture, StateJournal journaled) {
+        StateCodec codec = stateCodec;
+        if (codec == null) {
+            stateDirty = true;
+            return;
         }
+        try {
+            StateSnapshot snapshot = capture.get();
+            codec.write(new File(platform.dataFolder(), codec.fileName()), snapshot);
+            if (journaled != null) {
+                journaled.committed(snapshot.journalGeneration());
+            } else {
+                StateJournal.discard(platform.dataFolder(), platform.logger());
+            }
+        } catch (IOException | RuntimeException ex) {
+            stateDirty = true;
+            platform.logger().warning("Failed to save election state: " + ex.getMessage());
+        }
+    }
 
-        Map<String, Integer> activity = new HashMap<>();
-        activeSeconds.forEach((id, seconds) -> activity.put(id.toString(), seconds));
-        yaml.createSection("activitySeconds", activity);
-
+    private void awaitPendingSave() {
+        Future<?> save = pendingSave;
+        if (save == null) {
+            return;
+        }
         try {
-            yaml.save(file);
-        } catch (IOException ex) {
-            plugin.getLogger().warning("Failed to save election state: " + ex.getMessage());
+            save.get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            platform.logger().warning("Background state save did not finish: " + e.getMessage());
         }
+        pendingSave = null;
     }
+
     private void tick() {
-        if (currentElection == null) {
+        if (saveRequested || (journal != null && (journal.isBroken()
+                || journal.size() >= platform.settings().persistence().journalCompactBytes()))) {
+            requestSave();
+        }
+        if (registry.isEmpty()) {
             return;
         }
 
-        if (currentElection.isActive()) {
-            if (currentElection.getType() == Election.Type.NO_CONFIDENCE) {
-                int required = getRequiredNoConfidenceVotes();
-                long votes = currentElection.getVoteCounts().values().stream().mapToLong(Long::longValue).sum();
+        Instant now = Instant.now();
+        for (Election election : registry.all()) {
+            if (!election.isActive()) {
+                continue;
+            }
+            if (election.getType() == Election.Type.NO_CONFIDENCE) {
+                int required = platform.settings().noConfidence().requiredVotes();
+                long votes = election.getTotalVotes();
                 if (votes >= required) {
-                    concludeNoConfidence(true, votes);
-                    return;
-                }
-                if (Instant.now().isAfter(currentElection.getEndsAt())) {
-                    concludeNoConfidence(false, votes);
-                    return;
+                    concludeNoConfidence(election, true, votes);
+                } else if (now.isAfter(election.getEndsAt())) {
+                    concludeNoConfidence(election, false, votes);
                 }
-            } else if (Instant.now().isAfter(currentElection.getEndsAt())) {
-                concludeOrExtend();
+            } else if (now.isAfter(election.getEndsAt())) {
+                concludeOrExtend(election);
             }
         }
 
-        scoreboardService.updateAll(currentElection);
+        scoreboardService.refreshIfDue(now);
     }
 
-    private void tickActivity() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (isAfk(player)) {
-                continue;
-            }
-            activeSeconds.merge(player.getUniqueId(), 1, Integer::sum);
+    private void applyAfk(UUID player, boolean afk) {
+        if (afk == playtime.isAfk(player) || !platform.isOnline(player)) {
+            return;
         }
+        journalPlaytime(player, playtime.setAfk(player, afk));
     }
 
-    private boolean hookEssentialsAfk() {
-        org.bukkit.plugin.Plugin ess = Bukkit.getPluginManager().getPlugin("Essentials");
-        if (ess == null) {
-            return false;
+    private int evictInactivePlayers() {
+        int removed = playtime.evictInactive(platform.settings().playtime().evictAfterDays());
+        if (removed > 0) {
+            platform.logger().info("Forgot playtime for " + removed + " player(s) inactive for too long.");
         }
-        try {
-            Class<?> essentialsClass = Class.forName("com.earth2me.essentials.Essentials");
-            if (!essentialsClass.isInstance(ess)) {
-                return false;
-            }
-            this.essentialsPlugin = ess;
-            return true;
-        } catch (ClassNotFoundException e) {
-            plugin.getLogger().warning("EssentialsX API not found; AFK-aware playtime disabled.");
-            return false;
+        return removed;
+    }
+
+    private void journalPlaytime(UUID player, int seconds) {
+        if (seconds < 0) {
+            return;
+        }
+        stateDirty = true;
+        if (journal != null) {
+            journal.appendActivity(Map.of(player, seconds));
         }
     }
 
     public ActionResult createElection(String role, Duration duration) {
+        return createElection(role, duration, Election.Method.PLURALITY, 1);
+    }
+
+    /**
+     * @param seats how many winners to elect; more than one only for stv, approval and score
+     */
+    public ActionResult createElection(String role, Duration duration, Election.Method method, int seats) {
         if (duration.isZero() || duration.isNegative()) {
             return ActionResult.fail(color("&cDuration must be greater than zero."));
         }
-
-        if (currentElection != null) {
-            return ActionResult.fail(color("&cAn election already exists. Use /elections end first."));
+        if (seats < 1) {
+            return ActionResult.fail(color("&cAn election needs at least one seat."));
+        }
+        if (seats > 1 && (method == Election.Method.PLURALITY || method == Election.Method.INSTANT_RUNOFF)) {
+            return ActionResult.fail(color("&cOnly stv, approval and score elections can fill more than one seat."));
+        }
+        if (Election.isReservedRole(role)) {
+            return ActionResult.fail(color("&cRole names starting with \"No Confidence\" are reserved for no confidence votes."));
+        }
+        if (roleTaken(role)) {
+            return ActionResult.fail(color("&cAn election for &f" + role + " &calready exists. Use /elections end "
+                    + Election.idFor(role, Election.Type.REGULAR) + " first."));
         }
 
         Instant endsAt = Instant.now().plus(duration);
-        currentElection = new Election(role, endsAt, Election.Type.REGULAR);
+        Election election = new Election(role, endsAt, Election.Type.REGULAR, method, seats);
+        registry.add(election);
         scoreboardService.resetHidden();
-        broadcast(msg("messages.created")
-                .replace("%role%", role)
-                .replace("%duration%", DurationUtil.format(duration)));
-        scoreboardService.updateAll(currentElection);
-        return ActionResult.ok(color("&aElection created for &f" + role));
+        broadcast(msg("messages.created",
+                Placeholder.ROLE, role,
+                Placeholder.DURATION, DurationUtil.format(duration)));
+        checkpoint();
+        nomineesChanged();
+        scoreboardService.markDirty(election);
+        return ActionResult.ok(color("&aElection created for &f" + role + " &a(id &f" + election.getId() + "&a)"));
     }
 
-    public ActionResult nominate(CommandSender nominator, OfflinePlayer target) {
-        if (currentElection == null) {
-            return ActionResult.fail(msg("messages.no-election"));
-        }
-        if (!currentElection.isActive()) {
+    /**
+     * @param id        the election to nominate for, or null when only one is held
+     * @param nominator the nominating player, or null for the console
+     * @param admin     whether the nominator bypasses the per-player nomination limit
+     */
+    public ActionResult nominate(String id, UUID nominator, boolean admin, UUID target) {
+        Election election = find(id);
+        if (election == null) {
+            return unresolved(id);
+        }
+        if (!election.isActive()) {
             return ActionResult.fail(color("&cThis election already ended. Use /elections end to clear it."));
         }
-        if (plugin.getServer().getPlayer(target.getUniqueId()) == null || !target.isOnline()) {
+        if (!platform.isOnline(target)) {
             return ActionResult.fail(msg("messages.nomination-offline"));
         }
-        if (nominator instanceof Player player && player.getUniqueId().equals(target.getUniqueId())) {
+        if (target.equals(nominator)) {
             return ActionResult.fail(msg("messages.cannot-self-nominate"));
         }
-        if (currentElection.isNominee(target.getUniqueId())) {
+        if (election.isNominee(target)) {
             return ActionResult.fail(msg("messages.already-nominated"));
         }
-        if (nominator instanceof Player player && !nominator.hasPermission("elections.admin")) {
-            int maxNoms = Math.max(1, plugin.getConfig().getInt("nominations.max-per-player", 1));
-            int used = currentElection.getNominationCount(player.getUniqueId());
+        if (nominator != null && !admin) {
+            int maxNoms = platform.settings().maxNominationsPerPlayer();
+            int used = election.getNominationCount(nominator);
             if (used >= maxNoms) {
-                return ActionResult.fail(msg("messages.nomination-limit").replace("%max%", String.valueOf(maxNoms)));
+                return ActionResult.fail(msg("messages.nomination-limit",
+                        Placeholder.MAX, String.valueOf(maxNoms)));
             }
         }
-        currentElection.addNominee(target.getUniqueId());
-        if (nominator instanceof Player player) {
-            currentElection.recordNomination(player.getUniqueId(), target.getUniqueId());
+        registry.addNominee(election, target);
+        if (nominator != null) {
+            election.recordNomination(nominator, target);
+        }
+        stateDirty = true;
+        if (journal != null) {
+            journal.appendNominate(election.getId(), target, nominator);
         }
-        broadcast(msg("messages.nomination-success")
-                .replace("%target%", displayName(target))
-                .replace("%role%", currentElection.getRole()));
-        scoreboardService.updateAll(currentElection);
+        broadcast(msg("messages.nomination-success",
+                Placeholder.TARGET, displayName(target),
+                Placeholder.ROLE, election.getRole()));
+        nomineesChanged();
+        scoreboardService.markDirty(election);
         return ActionResult.ok(color("&aNominated &f" + displayName(target)));
     }
 
-    public ActionResult startNoConfidence(CommandSender sender, OfflinePlayer target) {
-        if (currentElection != null) {
-            return ActionResult.fail(color("&cAn election is already running. End it first."));
+    /**
+     * @param id the office's election id, or null if {@code target} holds only one office
+     */
+    public ActionResult startNoConfidence(UUID target, String id) {
+        List<String> held = new ArrayList<>();
+        List<String> holders = new ArrayList<>();
+        for (Map.Entry<String, List<UUID>> office : offices.entrySet()) {
+            if (id != null && !Election.idFor(office.getKey(), Election.Type.REGULAR).equals(normalize(id))) {
+                continue;
+            }
+            if (office.getValue().contains(target)) {
+                held.add(office.getKey());
+            } else {
+                office.getValue().forEach(holder -> holders.add(displayName(holder)));
+            }
+        }
+        if (held.isEmpty()) {
+            return ActionResult.fail(holders.isEmpty()
+                    ? msg("messages.no-confidence-unavailable")
+                    : msg("messages.no-confidence-target", Placeholder.WINNER, String.join(", ", holders)));
         }
-        if (lastWinnerId == null || lastRole == null) {
-            return ActionResult.fail(msg("messages.no-confidence-unavailable"));
+        if (held.size() > 1) {
+            List<String> ids = new ArrayList<>(held.size());
+            held.forEach(r -> ids.add(Election.idFor(r, Election.Type.REGULAR)));
+            return ActionResult.fail(msg("messages.election-ambiguous", Placeholder.ELECTION, String.join(", ", ids)));
         }
-        if (!target.getUniqueId().equals(lastWinnerId)) {
-            return ActionResult.fail(msg("messages.no-confidence-target").replace("%winner%", displayName(Bukkit.getOfflinePlayer(lastWinnerId))));
+        String role = held.get(0);
+        if (roleTaken(role)) {
+            return ActionResult.fail(color("&cAn election for &f" + role + " &cis already running. End it first."));
         }
 
-        Duration duration = parseDurationOrDefault(plugin.getConfig().getString("no-confidence.duration", "24h"), Duration.ofHours(24));
+        Duration duration = platform.settings().noConfidence().duration();
         Instant endsAt = Instant.now().plus(duration);
-        currentElection = new Election(lastRole, endsAt, Election.Type.NO_CONFIDENCE);
-        currentElection.addNominee(target.getUniqueId());
+        Election election = new Election(role, endsAt, Election.Type.NO_CONFIDENCE);
+        election.addNominee(target);
+        registry.add(election);
         scoreboardService.resetHidden();
-        broadcast(msg("messages.no-confidence-started")
-                .replace("%role%", lastRole)
-                .replace("%target%", displayName(target))
-                .replace("%duration%", DurationUtil.format(duration)));
-        scoreboardService.updateAll(currentElection);
+        broadcast(msg("messages.no-confidence-started",
+                Placeholder.ROLE, role,
+                Placeholder.TARGET, displayName(target),
+                Placeholder.DURATION, DurationUtil.format(duration)));
+        checkpoint();
+        nomineesChanged();
+        scoreboardService.markDirty(election);
         return ActionResult.ok(color("&aNo confidence vote started against &f" + displayName(target)));
     }
 
-    public ActionResult setPlatform(CommandSender sender, OfflinePlayer nominee, String platform) {
-        if (currentElection == null) {
+    /**
+     * Sets the platform in every running election the nominee stands in.
+     *
+     * @param actor the player setting the platform, or null for the console
+     * @param admin whether the actor may set another nominee's platform
+     */
+    public ActionResult setPlatform(UUID actor, boolean admin, UUID nominee, String platform) {
+        if (registry.isEmpty()) {
             return ActionResult.fail(msg("messages.no-election"));
         }
-        if (currentElection.getType() == Election.Type.NO_CONFIDENCE) {
-            return ActionResult.fail(msg("messages.no-confidence-platform"));
-        }
-        if (!currentElection.isNominee(nominee.getUniqueId())) {
-            return ActionResult.fail(msg("messages.not-nominee"));
+        List<Election> standing = new ArrayList<>();
+        boolean noConfidence = false;
+        for (Election election : registry.nominatedIn(nominee)) {
+            if (election.getType() == Election.Type.NO_CONFIDENCE) {
+                noConfidence = true;
+            } else if (election.isActive()) {
+                standing.add(election);
+            }
         }
-        if (!currentElection.isActive()) {
-            return ActionResult.fail(color("&cElection already ended."));
+        if (standing.isEmpty()) {
+            return ActionResult.fail(msg(noConfidence ? "messages.no-confidence-platform" : "messages.not-nominee"));
         }
-        if (sender instanceof Player player && !player.getUniqueId().equals(nominee.getUniqueId())
-                && !sender.hasPermission("elections.admin")) {
+        if (actor != null && !actor.equals(nominee) && !admin) {
             return ActionResult.fail(msg("messages.not-nominee"));
         }
         String trimmed = platform.trim();
@@ -365,344 +670,671 @@ public class ElectionManager {
         if (trimmed.length() > 256) {
             trimmed = trimmed.substring(0, 256);
         }
-        currentElection.setPlatform(nominee.getUniqueId(), trimmed);
-        return ActionResult.ok(msg("messages.platform-set").replace("%platform%", trimmed));
+        stateDirty = true;
+        for (Election election : standing) {
+            election.setPlatform(nominee, trimmed);
+            if (journal != null) {
+                journal.appendPlatform(election.getId(), nominee, trimmed);
+            }
+        }
+        return ActionResult.ok(msg("messages.platform-set", Placeholder.PLATFORM, trimmed));
     }
 
-    public ActionResult viewPlatform(OfflinePlayer nominee) {
-        if (currentElection == null) {
-            return ActionResult.fail(msg("messages.no-election"));
+    /**
+     * @param id the election to look in, or null to use the one the nominee stands in
+     */
+    public ActionResult viewPlatform(String id, UUID nominee) {
+        Election election = findFor(id, nominee);
+        if (election == null) {
+            return unresolved(id, nominee);
         }
-        if (currentElection.getType() == Election.Type.NO_CONFIDENCE) {
+        if (election.getType() == Election.Type.NO_CONFIDENCE) {
             return ActionResult.fail(msg("messages.no-confidence-platform"));
         }
-        if (!currentElection.isNominee(nominee.getUniqueId())) {
+        if (!election.isNominee(nominee)) {
             return ActionResult.fail(msg("messages.not-nominee"));
         }
-        Optional<String> platform = currentElection.getPlatform(nominee.getUniqueId());
+        Optional<String> platform = election.getPlatform(nominee);
         if (platform.isEmpty()) {
             return ActionResult.fail(msg("messages.platform-missing"));
         }
-        return ActionResult.ok(msg("messages.platform-view")
-                .replace("%target%", displayName(nominee))
-                .replace("%platform%", platform.get()));
+        return ActionResult.ok(msg("messages.platform-view",
+                Placeholder.TARGET, displayName(nominee),
+                Placeholder.PLATFORM, platform.get()));
     }
 
-    public ActionResult vote(Player voter, OfflinePlayer target) {
-        if (currentElection == null) {
-            return ActionResult.fail(msg("messages.no-election"));
+    /**
+     * Checks a ballot against the current state and queues it; the ballot itself is applied
+     * with everything else queued this tick by {@link #flushVotes()}, which also sends the
+     * final confirmation.
+     *
+     * @param id      the election to vote in, or null to use the one the first choice stands in
+     * @param ranking the candidates voted for, most preferred first; more than one only in
+     *                ranked and approval elections
+     */
+    public ActionResult vote(String id, UUID voter, List<UUID> ranking) {
+        return vote(id, voter, ranking, null);
+    }
+
+    /**
+     * Like {@link #vote(String, UUID, List)}, with a score for each candidate; score elections
+     * require them and every other method refuses them.
+     *
+     * @param scores one score per entry of {@code ranking}, or null
+     */
+    public ActionResult vote(String id, UUID voter, List<UUID> ranking, List<Integer> scores) {
+        if (ranking.isEmpty()) {
+            return ActionResult.fail(msg("messages.not-nominated"));
+        }
+        if (new HashSet<>(ranking).size() != ranking.size()) {
+            return ActionResult.fail(msg("messages.vote-ranking-duplicate"));
         }
-        if (!currentElection.isActive()) {
+        UUID target = ranking.get(0);
+        Election election = findFor(id, target);
+        if (election == null) {
+            return unresolved(id, target);
+        }
+        if (!election.isActive()) {
             return ActionResult.fail(color("&cVoting is closed. Results are being displayed."));
         }
-        int requiredHours = plugin.getConfig().getInt("voting.required-playtime-hours", 12);
-        long secondsPlayed = activeSeconds.getOrDefault(voter.getUniqueId(), 0);
+        Election.Method method = election.getMethod();
+        if (method == Election.Method.SCORE) {
+            if (scores == null || scores.stream().anyMatch(score -> score < 0 || score > Election.MAX_SCORE)) {
+                return ActionResult.fail(msg("messages.vote-score-syntax",
+                        Placeholder.MAX, String.valueOf(Election.MAX_SCORE)));
+            }
+        } else if (scores != null) {
+            return ActionResult.fail(msg("messages.vote-not-scored"));
+        }
+        if (ranking.size() > 1 && method == Election.Method.PLURALITY) {
+            return ActionResult.fail(msg("messages.vote-single-choice"));
+        }
+        int requiredHours = platform.settings().voting().requiredPlaytimeHours();
+        long secondsPlayed = playtime.getSeconds(voter);
         long hoursPlayed = secondsPlayed / 3600;
         if (hoursPlayed < requiredHours) {
-            return ActionResult.fail(msg("messages.vote-playtime")
-                    .replace("%needed%", String.valueOf(requiredHours))
-                    .replace("%have%", String.valueOf(hoursPlayed)));
+            return ActionResult.fail(msg("messages.vote-playtime",
+                    Placeholder.NEEDED, String.valueOf(requiredHours),
+                    Placeholder.HAVE, String.valueOf(hoursPlayed)));
         }
-        if (!currentElection.isNominee(target.getUniqueId())) {
-            return ActionResult.fail(msg("messages.not-nominated"));
+        for (UUID candidate : ranking) {
+            if (!election.isNominee(candidate)) {
+                return ActionResult.fail(msg("messages.not-nominated"));
+            }
+        }
+        if (intake.size() >= platform.settings().voting().intakeCapacity()) {
+            return ActionResult.fail(msg("messages.vote-busy"));
+        }
+        Map<UUID, Integer> marks = null;
+        if (method.isRated()) {
+            marks = new LinkedHashMap<>();
+            for (int i = 0; i < ranking.size(); i++) {
+                marks.put(ranking.get(i), scores != null ? scores.get(i) : 1);
+            }
+        }
+        List<String> choices = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            String name = displayName(ranking.get(i));
+            choices.add(scores != null ? name + " (" + scores.get(i) + ")" : name);
         }
+        String candidateName = String.join(method.isRanked() ? " > " : ", ", choices);
+        intake.addLast(new Ballot(election, voter, List.copyOf(ranking), marks, candidateName));
+        if (intakeTaskId == -1) {
+            this.intakeTaskId = platform.runLater(this::flushVotes, 0L);
+        }
+        return ActionResult.ok(msg("messages.vote-received", Placeholder.CANDIDATE, candidateName));
+    }
 
-        UUID previous = currentElection.getVotes().put(voter.getUniqueId(), target.getUniqueId());
-        scoreboardService.updateAll(currentElection);
+    /**
+     * Applies every queued ballot in arrival order, then journals and refreshes each touched
+     * election's sidebar once.
+     */
+    public void flushVotes() {
+        if (intakeTaskId != -1) {
+            platform.cancelTask(intakeTaskId);
+            intakeTaskId = -1;
+        }
+        Set<Election> changed = null;
+        Ballot ballot;
+        while ((ballot = intake.pollFirst()) != null) {
+            ActionResult result = applyBallot(ballot);
+            if (result.success()) {
+                if (changed == null) {
+                    changed = new HashSet<>();
+                }
+                changed.add(ballot.election());
+            }
+            platform.sendMessage(ballot.voter(), result.message());
+        }
+        if (changed != null) {
+            stateDirty = true;
+            changed.forEach(scoreboardService::markDirty);
+        }
+    }
 
-        if (previous != null && previous.equals(target.getUniqueId())) {
-            return ActionResult.ok(color("&eYou already voted for &f" + displayName(target) + "&e."));
+    private ActionResult applyBallot(Ballot ballot) {
+        UUID voter = ballot.voter();
+        Election election = ballot.election();
+        // The election may have ended, been cleared or lost this nominee since the ballot was queued.
+        if (registry.get(election.getId()) != election || !election.isActive()) {
+            return ActionResult.fail(color("&cVoting is closed. Results are being displayed."));
         }
-        if (previous != null && !previous.equals(target.getUniqueId())) {
-            int maxChanges = Math.max(0, plugin.getConfig().getInt("voting.max-changes", 2));
-            int used = currentElection.getVoteChanges(voter.getUniqueId());
+        for (UUID candidate : ballot.ranking()) {
+            if (!election.isNominee(candidate)) {
+                return ActionResult.fail(msg("messages.not-nominated"));
+            }
+        }
+        boolean unchanged = ballot.marks() != null
+                ? election.getMarks(voter).equals(ballot.marks())
+                : election.getRanking(voter).equals(ballot.ranking());
+        if (unchanged) {
+            return ActionResult.fail(color("&eYou already voted for &f" + ballot.candidateName() + "&e."));
+        }
+        boolean voted = election.getVote(voter).isPresent();
+        if (voted) {
+            int maxChanges = platform.settings().voting().maxChanges();
+            int used = election.getVoteChanges(voter);
             if (used >= maxChanges) {
-                // Revert the vote change
-                currentElection.getVotes().put(voter.getUniqueId(), previous);
-                return ActionResult.fail(msg("messages.vote-change-limit").replace("%max%", String.valueOf(maxChanges)));
+                return ActionResult.fail(msg("messages.vote-change-limit",
+                        Placeholder.MAX, String.valueOf(maxChanges)));
+            }
+            election.incrementVoteChange(voter);
+        }
+        if (ballot.marks() != null) {
+            election.castMarks(voter, ballot.marks());
+        } else {
+            election.castRanking(voter, ballot.ranking());
+        }
+        if (journal != null) {
+            if (ballot.marks() != null) {
+                journal.appendMarks(election.getId(), voter, ballot.marks(), election.getVoteChanges(voter));
+            } else if (ballot.ranking().size() == 1) {
+                journal.appendVote(election.getId(), voter, ballot.ranking().get(0), election.getVoteChanges(voter));
+            } else {
+                journal.appendRanking(election.getId(), voter, ballot.ranking(), election.getVoteChanges(voter));
             }
-            currentElection.incrementVoteChange(voter.getUniqueId());
         }
-        String path = previous == null ? "messages.vote-accepted" : "messages.vote-updated";
-        return ActionResult.ok(msg(path).replace("%candidate%", displayName(target)));
+        String path = voted ? "messages.vote-updated" : "messages.vote-accepted";
+        return ActionResult.ok(msg(path, Placeholder.CANDIDATE, ballot.candidateName()));
     }
 
-    public ActionResult rigVotes(OfflinePlayer target) {
-        if (currentElection == null) {
-            return ActionResult.fail(msg("messages.no-election"));
-        }
-        if (!currentElection.isNominee(target.getUniqueId())) {
-            currentElection.addNominee(target.getUniqueId());
+    public ActionResult rigVotes(String id, UUID target) {
+        Election election = findFor(id, target);
+        if (election == null) {
+            return unresolved(id);
         }
-        UUID targetId = target.getUniqueId();
-        Map<UUID, UUID> votes = currentElection.getVotes();
-        Set<UUID> voters = new HashSet<>(votes.keySet());
-        for (UUID voter : voters) {
-            votes.put(voter, targetId);
+        if (!election.isNominee(target)) {
+            election.addNominee(target);
         }
-        scoreboardService.updateAll(currentElection);
-        return ActionResult.ok(msg("messages.rigged").replace("%winner%", displayName(target)));
+        election.rigVotes(target);
+        registry.reindex(election);
+        checkpoint();
+        nomineesChanged();
+        scoreboardService.markDirty(election);
+        return ActionResult.ok(msg("messages.rigged", Placeholder.WINNER, displayName(target)));
     }
 
-    public ActionResult unnominate(CommandSender sender, OfflinePlayer target) {
-        if (currentElection == null) {
-            return ActionResult.fail(msg("messages.no-election"));
+    public ActionResult unnominate(String id, UUID target) {
+        Election election = findFor(id, target);
+        if (election == null) {
+            return unresolved(id, target);
         }
-        if (!currentElection.isActive()) {
+        if (!election.isActive()) {
             return ActionResult.fail(color("&cCannot unnominate after the election has ended."));
         }
-        boolean removed = currentElection.removeNominee(target.getUniqueId());
+        boolean removed = election.removeNominee(target);
         if (!removed) {
             return ActionResult.fail(msg("messages.unnominate-missing"));
         }
-        currentElection.clearVotesForNonNominees();
-        currentElection.prunePlatformsForNonNominees();
-        scoreboardService.updateAll(currentElection);
-        return ActionResult.ok(msg("messages.unnominate-success").replace("%target%", displayName(target)));
+        election.clearVotesForNonNominees();
+        election.prunePlatformsForNonNominees();
+        registry.reindex(election);
+        stateDirty = true;
+        if (journal != null) {
+            journal.appendUnnominate(election.getId(), target);
+        }
+        nomineesChanged();
+        scoreboardService.markDirty(election);
+        return ActionResult.ok(msg("messages.unnominate-success", Placeholder.TARGET, displayName(target)));
     }
 
-    public ActionResult endElection() {
-        if (currentElection == null) {
-            return ActionResult.fail(msg("messages.no-election"));
+    public ActionResult endElection(String id) {
+        Election election = find(id);
+        if (election == null) {
+            return unresolved(id);
         }
 
-        if (currentElection.isActive()) {
-            conclude(false);
+        if (election.isActive()) {
+            conclude(election, false);
         }
 
-        scoreboardService.clearAll();
-        currentElection = null;
+        registry.remove(election.getId());
+        scoreboardService.electionRemoved(election);
+        nomineesChanged();
+        checkpoint();
         return ActionResult.ok(msg("messages.ended"));
     }
 
-    public ActionResult status() {
-        if (currentElection == null) {
+    /**
+     * @param id the election to describe, or null for the only one (or a summary of all)
+     */
+    public ActionResult status(String id) {
+        if (registry.isEmpty()) {
             return ActionResult.ok(color("&eNo election is running."));
         }
+        if (id == null && registry.size() > 1) {
+            StringBuilder builder = new StringBuilder(color("&aElections:"));
+            Instant now = Instant.now();
+            for (Election election : registry.all()) {
+                builder.append("\n").append(color("&f" + election.getId() + " &7- " + election.getRole() + ", "
+                        + (election.isActive() ? "ends in " + DurationUtil.format(election.getRemaining(now)) : "finished")
+                        + ", " + election.getNominees().size() + " nominee(s)"));
+            }
+            return ActionResult.ok(builder.toString());
+        }
+        Election election = find(id);
+        if (election == null) {
+            return unresolved(id);
+        }
 
         StringBuilder builder = new StringBuilder();
-        builder.append(color("&aRole: &f")).append(currentElection.getRole()).append("\n");
-        builder.append(color("&aType: &f")).append(currentElection.getType() == Election.Type.NO_CONFIDENCE ? "No Confidence" : "Election").append("\n");
-        builder.append(color("&aStatus: &f")).append(currentElection.isActive() ? "Active" : "Finished").append("\n");
-        if (currentElection.isActive()) {
-            builder.append(color("&aEnds in: &f")).append(DurationUtil.format(currentElection.getRemaining(Instant.now()))).append("\n");
+        builder.append(color("&aRole: &f")).append(election.getRole()).append("\n");
+        builder.append(color("&aId: &f")).append(election.getId()).append("\n");
+        builder.append(color("&aType: &f")).append(election.getType() == Election.Type.NO_CONFIDENCE ? "No Confidence" : "Election").append("\n");
+        if (election.getType() == Election.Type.REGULAR) {
+            builder.append(color("&aCounting: &f")).append(election.getMethod().key());
+            if (election.getSeats() > 1) {
+                builder.append(", ").append(election.getSeats()).append(" seats");
+            }
+            builder.append("\n");
+        }
+        builder.append(color("&aStatus: &f")).append(election.isActive() ? "Active" : "Finished").append("\n");
+        if (election.isActive()) {
+            builder.append(color("&aEnds in: &f")).append(DurationUtil.format(election.getRemaining(Instant.now()))).append("\n");
         } else {
             builder.append(color("&aEnds in: &f")).append("Finished").append("\n");
         }
-        builder.append(color("&aNominees: &f")).append(currentElection.getNominees().size());
+        builder.append(color("&aNominees: &f")).append(election.getNominees().size());
         return ActionResult.ok(builder.toString());
     }
 
-    private void concludeOrExtend() {
-        if (currentElection == null || !currentElection.isActive()) {
-            return;
-        }
-
-        Map<UUID, Long> counts = currentElection.getVoteCounts();
-        long totalVotes = counts.values().stream().mapToLong(Long::longValue).sum();
-        List<UUID> leaders = currentElection.getLeaders();
+    /**
+     * Points the player's sidebar at one election and makes sure it is shown.
+     */
+    public ActionResult showSidebar(UUID player, String id) {
+        Election election = find(id);
+        if (election == null) {
+            return unresolved(id);
+        }
+        scoreboardService.enable(player);
+        scoreboardService.select(player, election);
+        return ActionResult.ok(color("&aElection sidebar now shows &f" + election.getRole() + "&a."));
+    }
 
-        if (leaders.size() >= 2) {
-            handleTie(leaders);
+    private void concludeOrExtend(Election election) {
+        if (!election.isActive()) {
             return;
         }
 
-        if (totalVotes == 0 && currentElection.getNominees().size() >= 2) {
-            // No votes cast but more than one nominee -> treat as tie and extend.
-            handleTie(new ArrayList<>(currentElection.getNominees()));
+        // A tie for the last seat, including no votes at all between several nominees, extends.
+        TallyResult result = count(election);
+        if (result.isTie()) {
+            handleTie(election, result);
             return;
         }
-
-        // Single leader or only one nominee (with or without votes)
-        conclude(false);
+        conclude(election, result, false);
     }
 
-    private void conclude(boolean silent) {
-        if (currentElection == null) {
-            return;
-        }
-
-        Map<UUID, Long> counts = currentElection.getVoteCounts();
-        UUID winner = null;
-        long topVotes = -1;
-        for (Map.Entry<UUID, Long> entry : counts.entrySet()) {
-            if (entry.getValue() > topVotes) {
-                topVotes = entry.getValue();
-                winner = entry.getKey();
-            }
-        }
-        if (winner == null && currentElection.getNominees().size() == 1) {
-            winner = currentElection.getNominees().iterator().next();
-            topVotes = counts.getOrDefault(winner, 0L);
-        }
+    private TallyResult count(Election election) {
+        return TallyEngine.forMethod(election.getMethod()).count(election.ballotBox(), election.getSeats());
+    }
 
-        currentElection.setStatus(Election.Status.FINISHED);
-        currentElection.setWinner(winner);
+    /**
+     * Ends the election without extending it; a tie goes to the earlier nominee.
+     */
+    private void conclude(Election election, boolean silent) {
+        conclude(election, count(election), silent);
+    }
 
-        if (!silent && !currentElection.isAnnouncedFinished()) {
-            announceResults(winner, topVotes);
-            currentElection.markAnnouncedFinished();
+    private void conclude(Election election, TallyResult result, boolean silent) {
+        List<UUID> winners = result.elected();
+        election.setStatus(Election.Status.FINISHED);
+        election.setWinners(winners);
+        if (!silent && !election.isAnnouncedFinished()) {
+            announceResults(election, result);
+            election.markAnnouncedFinished();
         }
 
-        if (currentElection.getType() == Election.Type.NO_CONFIDENCE) {
-            if (winner != null) {
-                runNoConfidenceCommands(winner);
-                // Remove incumbent
-                lastWinnerId = null;
-                lastRole = currentElection.getRole();
+        List<QueuedCommand> queued = List.of();
+        if (election.getType() == Election.Type.NO_CONFIDENCE) {
+            UUID target = election.getWinner().orElse(null);
+            if (target != null) {
+                queued = runNoConfidenceCommands(election, target);
+                vacate(election.getRole(), target);
             }
         } else {
-            runWinCommands(winner);
-            lastWinnerId = winner;
-            lastRole = currentElection.getRole();
+            queued = runWinCommands(election, winners);
+            if (!winners.isEmpty()) {
+                offices.put(election.getRole(), List.copyOf(winners));
+            } else {
+                offices.remove(election.getRole());
+            }
         }
-        scoreboardService.updateAll(currentElection);
+        journalConclude(election, queued);
+        nomineesChanged();
+        scoreboardService.markDirty(election);
     }
 
-    private void concludeNoConfidence(boolean passed, long votes) {
-        if (currentElection == null) {
-            return;
-        }
-        if (currentElection.getType() != Election.Type.NO_CONFIDENCE) {
+    private void concludeNoConfidence(Election election, boolean passed, long votes) {
+        if (election.getType() != Election.Type.NO_CONFIDENCE) {
             return;
         }
-        currentElection.setStatus(Election.Status.FINISHED);
+        election.setStatus(Election.Status.FINISHED);
+        List<QueuedCommand> queued = List.of();
         if (passed) {
-            UUID target = currentElection.getNominees().stream().findFirst().orElse(null);
-            currentElection.setWinner(target);
-            if (!currentElection.isAnnouncedFinished()) {
-                String name = target != null ? displayName(Bukkit.getOfflinePlayer(target)) : "Unknown";
-                broadcast(msg("messages.no-confidence-passed")
-                        .replace("%target%", name)
-                        .replace("%role%", currentElection.getRole())
-                        .replace("%votes%", String.valueOf(votes)));
-                currentElection.markAnnouncedFinished();
+            UUID target = election.getNominees().stream().findFirst().orElse(null);
+            election.setWinner(target);
+            if (!election.isAnnouncedFinished()) {
+                String name = target != null ? displayName(target) : "Unknown";
+                broadcast(msg("messages.no-confidence-passed",
+                        Placeholder.TARGET, name,
+                        Placeholder.ROLE, election.getRole(),
+                        Placeholder.VOTES, String.valueOf(votes)));
+                election.markAnnouncedFinished();
             }
             if (target != null) {
-                runNoConfidenceCommands(target);
+                queued = runNoConfidenceCommands(election, target);
+                vacate(election.getRole(), target);
             }
-            lastWinnerId = null;
         } else {
-            currentElection.setWinner(null);
-            if (!currentElection.isAnnouncedFinished()) {
-                broadcast(msg("messages.no-confidence-failed")
-                        .replace("%role%", currentElection.getRole())
-                        .replace("%needed%", String.valueOf(getRequiredNoConfidenceVotes()))
-                        .replace("%votes%", String.valueOf(votes)));
-                currentElection.markAnnouncedFinished();
+            election.setWinner(null);
+            if (!election.isAnnouncedFinished()) {
+                broadcast(msg("messages.no-confidence-failed",
+                        Placeholder.ROLE, election.getRole(),
+                        Placeholder.NEEDED, String.valueOf(platform.settings().noConfidence().requiredVotes()),
+                        Placeholder.VOTES, String.valueOf(votes)));
+                election.markAnnouncedFinished();
             }
         }
-        scoreboardService.updateAll(currentElection);
+        journalConclude(election, queued);
+        nomineesChanged();
+        scoreboardService.markDirty(election);
     }
 
-    private void handleTie(List<UUID> leaders) {
-        if (currentElection == null) {
+    /**
+     * Removes one holder from a role's office, dropping the office once nobody holds it.
+     */
+    private void vacate(String role, UUID holder) {
+        List<UUID> holders = offices.get(role);
+        if (holders == null) {
             return;
         }
-        // Keep only the first two leaders in the tie.
+        List<UUID> remaining = new ArrayList<>(holders);
+        remaining.remove(holder);
+        if (remaining.isEmpty()) {
+            offices.remove(role);
+        } else {
+            offices.put(role, List.copyOf(remaining));
+        }
+    }
+
+    private void handleTie(Election election, TallyResult result) {
+        // Keep the candidates already elected, plus one more of the tied than there are seats
+        // left for them, earliest nominees first.
+        List<UUID> decided = new ArrayList<>(result.elected());
+        decided.removeAll(result.tied());
+        int keep = Math.max(2, election.getSeats() - decided.size() + 1);
         List<UUID> survivors = new ArrayList<>();
-        for (UUID nominee : currentElection.getNominees()) {
-            if (leaders.contains(nominee)) {
+        for (UUID nominee : election.getNominees()) {
+            if (decided.contains(nominee)) {
                 survivors.add(nominee);
-            }
-            if (survivors.size() == 2) {
-                break;
+            } else if (keep > 0 && result.tied().contains(nominee)) {
+                survivors.add(nominee);
+                keep--;
             }
         }
-        currentElection.setNominees(survivors);
-        currentElection.clearVotesForNonNominees();
-        currentElection.prunePlatformsForNonNominees();
-        currentElection.extend(Duration.ofHours(24));
+        election.setNominees(survivors);
+        election.clearVotesForNonNominees();
+        election.prunePlatformsForNonNominees();
+        election.extend(Duration.ofHours(24));
+        registry.reindex(election);
+        checkpoint();
 
         broadcast(msg("messages.tie-extended"));
-        scoreboardService.updateAll(currentElection);
+        nomineesChanged();
+        scoreboardService.markDirty(election);
     }
 
-    private void announceResults(UUID winner, long votes) {
-        if (winner == null) {
-            broadcast(color("&eElection finished with no winner."));
+    private void announceResults(Election election, TallyResult result) {
+        List<UUID> winners = result.elected();
+        if (winners.isEmpty()) {
+            broadcast(color("&eElection for &f" + election.getRole() + " &efinished with no winner."));
             return;
         }
-        String name = displayName(Bukkit.getOfflinePlayer(winner));
-        broadcast(color("&aElection for &f" + currentElection.getRole() + " &ahas ended. Winner: &f" + name + " &7(" + votes + " votes)"));
+        List<String> names = new ArrayList<>(winners.size());
+        winners.forEach(winner -> names.add(displayName(winner)));
+        long top = election.getVoteCount(winners.get(0));
+        String detail = switch (election.getMethod()) {
+            case INSTANT_RUNOFF, SINGLE_TRANSFERABLE_VOTE -> result.rounds() + (result.rounds() == 1 ? " round" : " rounds");
+            case APPROVAL -> top + " approvals";
+            case SCORE -> top + " points";
+            case PLURALITY -> top + " votes";
+        };
+        broadcast(color("&aElection for &f" + election.getRole() + " &ahas ended. "
+                + (winners.size() == 1 ? "Winner" : "Winners") + ": &f" + String.join(", ", names)
+                + " &7(" + detail + ")"));
+    }
+
+    /**
+     * Renders {@code commands-on-win} once for each winner, in the order they were elected.
+     */
+    private List<QueuedCommand> runWinCommands(Election election, List<UUID> winners) {
+        if (winners.isEmpty() || election.haveCommandsRun()) {
+            return List.of();
+        }
+        List<MessageTemplate> commands = platform.settings().commandsOnWin();
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        String role = election.getRole();
+        List<String> parsed = new ArrayList<>(commands.size() * winners.size());
+        for (UUID winner : winners) {
+            String winnerName = displayName(winner);
+            for (MessageTemplate command : commands) {
+                parsed.add(command.render(Placeholder.WINNER, winnerName, Placeholder.ROLE, role));
+            }
+        }
+        return queueCommands(election, parsed);
     }
 
-    private void runWinCommands(UUID winner) {
-        if (winner == null || currentElection == null || currentElection.haveCommandsRun()) {
-            return;
+    private List<QueuedCommand> runNoConfidenceCommands(Election election, UUID target) {
+        if (target == null || election.haveCommandsRun()) {
+            return List.of();
         }
-        List<String> commands = plugin.getConfig().getStringList("commands-on-win");
+        List<MessageTemplate> commands = platform.settings().noConfidence().commandsOnPass();
         if (commands.isEmpty()) {
-            return;
+            return List.of();
         }
-        String winnerName = displayName(Bukkit.getOfflinePlayer(winner));
-        String role = currentElection.getRole();
-        for (String command : commands) {
-            String parsed = command.replace("%winner%", winnerName).replace("%role%", role);
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), parsed);
+        String targetName = displayName(target);
+        String role = election.getRole();
+        List<String> parsed = new ArrayList<>(commands.size());
+        for (MessageTemplate command : commands) {
+            parsed.add(command.render(Placeholder.TARGET, targetName, Placeholder.ROLE, role));
         }
-        currentElection.markCommandsRan();
+        return queueCommands(election, parsed);
     }
 
-    private void runNoConfidenceCommands(UUID target) {
-        if (target == null || currentElection == null || currentElection.haveCommandsRun()) {
+    /**
+     * Hands commands to the outbox. From here on they count as run for the election; the
+     * outbox owns dispatching them, a few per tick, and resuming after a restart.
+     */
+    private List<QueuedCommand> queueCommands(Election election, List<String> commands) {
+        List<QueuedCommand> queued = outbox.enqueue(commands);
+        election.markCommandsRan();
+        scheduleOutboxDrain();
+        return queued;
+    }
+
+    private void scheduleOutboxDrain() {
+        if (outboxTaskId != -1 || outbox.isEmpty() || taskId == -1) {
             return;
         }
-        List<String> commands = plugin.getConfig().getStringList("no-confidence.commands-on-pass");
-        if (commands.isEmpty()) {
-            return;
+        this.outboxTaskId = platform.runRepeating(() -> {
+            outbox.drain(platform.settings().commandBudgetNanos(), this::dispatchQueued);
+            if (outbox.isEmpty()) {
+                platform.cancelTask(outboxTaskId);
+                outboxTaskId = -1;
+            }
+        }, 1L, 1L);
+    }
+
+    private void dispatchQueued(QueuedCommand command) {
+        try {
+            platform.dispatchCommand(command.command());
+        } catch (RuntimeException ex) {
+            platform.logger().warning("Queued command failed: " + command.command() + " (" + ex.getMessage() + ")");
         }
-        String targetName = displayName(Bukkit.getOfflinePlayer(target));
-        String role = currentElection.getRole();
-        for (String command : commands) {
-            String parsed = command.replace("%target%", targetName).replace("%role%", role);
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), parsed);
+        stateDirty = true;
+        if (journal != null) {
+            journal.appendCommandDone(command.id());
         }
-        currentElection.markCommandsRan();
     }
 
     private String msg(String path) {
-        String fallback = switch (path) {
-            case "messages.not-nominee" -> "&cYou must be a nominee to do that.";
-            case "messages.no-election" -> "&cThere is no active election right now.";
-            case "messages.platform-set" -> "&aUpdated your platform: &f%platform%";
-            case "messages.platform-view" -> "&bPlatform for &f%target%&b: &f%platform%";
-            case "messages.platform-missing" -> "&eThat nominee has not set a platform yet.";
-            case "messages.already-nominated" -> "&eThat player is already nominated.";
-            case "messages.nomination-success" -> "&a%target% has been nominated for %role%!";
-            case "messages.nomination-offline" -> "&cYou can only nominate online players.";
-            case "messages.vote-change-limit" -> "&cYou have reached the vote change limit (%max%).";
-            case "messages.vote-playtime" -> "&cYou need %needed% hours of playtime to vote. You have %have% hours.";
-            case "messages.no-confidence-started" -> "&eNo confidence vote started against %target% for %role% (%duration%).";
-            case "messages.no-confidence-unavailable" -> "&cNo winner is currently in office to challenge.";
-            case "messages.no-confidence-target" -> "&cOnly the current winner (%winner%) can face no confidence right now.";
-            case "messages.no-confidence-passed" -> "&cNo confidence passed against %target% for %role% with %votes% votes.";
-            case "messages.no-confidence-failed" -> "&aNo confidence failed for %role% (%votes%/%needed% votes).";
-            case "messages.no-confidence-platform" -> "&cPlatforms are disabled for no confidence votes.";
-            default -> "&cMissing message: " + path;
-        };
-        return color(plugin.getConfig().getString(path, fallback));
+        return platform.settings().message(path).render();
+    }
+
+    private String msg(String path, Placeholder a, String valueA) {
+        return platform.settings().message(path).render(a, valueA);
+    }
+
+    private String msg(String path, Placeholder a, String valueA, Placeholder b, String valueB) {
+        return platform.settings().message(path).render(a, valueA, b, valueB);
+    }
+
+    private String msg(String path, Placeholder a, String valueA, Placeholder b, String valueB,
+                       Placeholder c, String valueC) {
+        return platform.settings().message(path).render(a, valueA, b, valueB, c, valueC);
     }
 
     private void broadcast(String message) {
-        Bukkit.getServer().broadcastMessage(message);
+        platform.broadcast(message);
     }
 
     private String color(String input) {
         return ChatColor.translateAlternateColorCodes('&', input == null ? "" : input);
     }
 
-    private String displayName(OfflinePlayer player) {
-        String name = player.getName();
-        return name != null ? name : player.getUniqueId().toString().substring(0, 8);
+    private String displayName(UUID player) {
+        return names.name(player);
+    }
+
+    /**
+     * Republishes nominee names and election ids for tab completion; called wherever an
+     * election is added or removed, its nominee list changes or it stops accepting votes.
+     */
+    private void nomineesChanged() {
+        List<String> nomineeNames = new ArrayList<>();
+        List<String> votable = new ArrayList<>();
+        for (Election election : registry.all()) {
+            for (UUID nominee : election.getNominees()) {
+                String name = names.name(nominee);
+                nomineeNames.add(name);
+                if (election.isActive()) {
+                    votable.add(name);
+                }
+            }
+        }
+        completions.setNominees(nomineeNames, votable);
+        completions.setElections(registry.ids());
+    }
+
+    /**
+     * @return the election named by {@code id}, or the only one held when {@code id} is null
+     */
+    private Election find(String id) {
+        return id != null ? registry.get(normalize(id)) : registry.only();
+    }
+
+    /**
+     * Like {@link #find}, but with no id and several elections held, picks the one election
+     * {@code player} stands in, preferring elections that are still open.
+     */
+    private Election findFor(String id, UUID player) {
+        Election election = find(id);
+        if (election != null || id != null) {
+            return election;
+        }
+        List<Election> standing = registry.nominatedIn(player);
+        if (standing.size() == 1) {
+            return standing.get(0);
+        }
+        Election open = null;
+        for (Election candidate : standing) {
+            if (candidate.isActive()) {
+                if (open != null) {
+                    return null;
+                }
+                open = candidate;
+            }
+        }
+        return open;
+    }
+
+    private ActionResult unresolved(String id) {
+        if (registry.isEmpty()) {
+            return ActionResult.fail(msg("messages.no-election"));
+        }
+        if (id != null) {
+            return ActionResult.fail(msg("messages.election-unknown", Placeholder.ELECTION, id));
+        }
+        return ActionResult.fail(msg("messages.election-ambiguous",
+                Placeholder.ELECTION, String.join(", ", registry.ids())));
     }
 
-    private Duration parseDurationOrDefault(String input, Duration fallback) {
-        return DurationUtil.parseDuration(input).orElse(fallback);
+    private ActionResult unresolved(String id, UUID nominee) {
+        if (id == null && !registry.isEmpty() && registry.nominatedIn(nominee).isEmpty()) {
+            return ActionResult.fail(msg("messages.not-nominated"));
+        }
+        return unresolved(id);
+    }
+
+    private boolean roleTaken(String role) {
+        return registry.get(Election.idFor(role, Election.Type.REGULAR)) != null
+                || registry.get(Election.idFor(role, Election.Type.NO_CONFIDENCE)) != null;
     }
 
-    private int getRequiredNoConfidenceVotes() {
-        return Math.max(1, plugin.getConfig().getInt("no-confidence.required-votes", 6));
+    private static String normalize(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Structural changes (new election, tie extension, rigging, clearing) are rare, so they
+     * take a full snapshot instead of a journal record.
+     */
+    private void checkpoint() {
+        stateDirty = true;
+        if (journal != null) {
+            requestSave();
+        }
+    }
+
+    private void journalConclude(Election election, List<QueuedCommand> queued) {
+        stateDirty = true;
+        if (journal == null) {
+            return;
+        }
+        journal.appendConclude(election.getId(), election.getWinners(), election.haveCommandsRun(),
+                election.isAnnouncedFinished(), offices.getOrDefault(election.getRole(), List.of()),
+                election.getRole(), queued);
+    }
+
+    /**
+     * @param marks         approvals or scores for approval and score elections, otherwise null
+     * @param candidateName the chosen candidates' names, ready for the confirmation message
+     */
+    private record Ballot(Election election, UUID voter, List<UUID> ranking, Map<UUID, Integer> marks,
+                          String candidateName) {
     }
 
     public record ActionResult(boolean success, String message) {
@@ -715,17 +1347,100 @@ public class ElectionManager {
         }
     }
 
-    private boolean isAfk(Player player) {
-        if (!essentialsAfkHooked || essentialsPlugin == null) {
-            return false;
+    /**
+     * Applies journal records on top of the loaded snapshot. Records from before several
+     * elections could run carry no election id and go to the only election held.
+     */
+    private final class JournalReplay implements StateJournal.Handler {
+        private Election target(String id) {
+            return id != null ? registry.get(id) : registry.only();
+        }
+
+        @Override
+        public void onVote(String id, UUID voter, UUID candidate, int changes) {
+            Election election = target(id);
+            if (election != null && election.isNominee(candidate)) {
+                election.castVote(voter, candidate);
+                election.setVoteChanges(voter, changes);
+            }
         }
-        try {
-            Class<?> essentialsClass = essentialsPlugin.getClass();
-            Object user = essentialsClass.getMethod("getUser", UUID.class).invoke(essentialsPlugin, player.getUniqueId());
-            if (user == null) return false;
-            return (boolean) user.getClass().getMethod("isAfk").invoke(user);
-        } catch (Exception e) {
-            return false;
+
+        @Override
+        public void onRanking(String id, UUID voter, List<UUID> ranking, int changes) {
+            Election election = target(id);
+            if (election != null && ranking.stream().allMatch(election::isNominee)) {
+                election.castRanking(voter, ranking);
+                election.setVoteChanges(voter, changes);
+            }
+        }
+
+        @Override
+        public void onMarks(String id, UUID voter, Map<UUID, Integer> marks, int changes) {
+            Election election = target(id);
+            if (election != null && marks.keySet().stream().allMatch(election::isNominee)) {
+                election.castMarks(voter, marks);
+                election.setVoteChanges(voter, changes);
+            }
+        }
+
+        @Override
+        public void onNominate(String id, UUID nominee, UUID nominator) {
+            Election election = target(id);
+            if (election == null) {
+                return;
+            }
+            registry.addNominee(election, nominee);
+            if (nominator != null) {
+                election.recordNomination(nominator, nominee);
+            }
+        }
+
+        @Override
+        public void onUnnominate(String id, UUID nominee) {
+            Election election = target(id);
+            if (election != null && election.removeNominee(nominee)) {
+                election.clearVotesForNonNominees();
+                election.prunePlatformsForNonNominees();
+                registry.reindex(election);
+            }
+        }
+
+        @Override
+        public void onPlatform(String id, UUID nominee, String platform) {
+            Election election = target(id);
+            if (election != null) {
+                election.setPlatform(nominee, platform);
+            }
+        }
+
+        @Override
+        public void onConclude(String id, List<UUID> winners, boolean commandsRan, boolean announced,
+                               List<UUID> holders, String role, List<QueuedCommand> queued) {
+            queued.forEach(outbox::restore);
+            Election election = target(id);
+            if (election != null) {
+                election.setStatus(Election.Status.FINISHED);
+                election.setWinners(winners);
+                election.setCommandsRan(commandsRan);
+                election.setAnnouncedFinished(announced);
+            }
+            if (role != null) {
+                if (!holders.isEmpty()) {
+                    offices.put(role, List.copyOf(holders));
+                } else {
+                    offices.remove(role);
+                }
+            }
+        }
+
+        @Override
+        public void onActivity(UUID player, int seconds) {
+            playtime.set(player, seconds);
+        }
+
+        @Override
+        public void onCommandDone(long id) {
+            outbox.complete(id);
         }
     }
 }
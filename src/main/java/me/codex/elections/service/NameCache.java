@@ -0,0 +1,135 @@
+package me.codex.elections.service;
+
+import me.codex.elections.platform.Platform;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, bidirectional name/UUID cache so commands and the sidebar never block on a profile
+ * lookup. It is fed by joins and by the server's own user cache. Names the server has never
+ * seen are looked up off the main thread, and the caller is completed back on it.
+ */
+public class NameCache {
+
+    private final Platform platform;
+    private final int capacity;
+    private final Map<String, UUID> ids = new HashMap<>();
+    private final LinkedHashMap<UUID, String> names;
+
+    public NameCache(Platform platform, int capacity) {
+        this.platform = platform;
+        this.capacity = Math.max(16, capacity);
+        this.names = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+                if (size() <= NameCache.this.capacity) {
+                    return false;
+                }
+                ids.remove(key(eldest.getValue()), eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public void remember(Player player) {
+        remember(player.getUniqueId(), player.getName());
+    }
+
+    public synchronized void remember(UUID id, String name) {
+        if (id == null || name == null) {
+            return;
+        }
+        String previous = names.put(id, name);
+        if (previous != null && !previous.equalsIgnoreCase(name)) {
+            ids.remove(key(previous), id);
+        }
+        UUID displaced = ids.put(key(name), id);
+        if (displaced != null && !displaced.equals(id)) {
+            // Someone else owned this name before; their cached name is now stale.
+            names.remove(displaced);
+        }
+    }
+
+    /**
+     * @return the player's last known name, or a short UUID prefix if the server has never seen them
+     */
+    public String name(UUID id) {
+        synchronized (this) {
+            String cached = names.get(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String name = platform.lookupName(id);
+        if (name == null) {
+            return id.toString().substring(0, 8);
+        }
+        remember(id, name);
+        return name;
+    }
+
+    /**
+     * Resolves a player name to an id and hands it to {@code callback} on the main thread.
+     * Cached and user-cache hits complete immediately; anything else completes a few ticks later.
+     */
+    public void resolve(String name, Consumer<UUID> callback) {
+        UUID id;
+        synchronized (this) {
+            id = ids.get(key(name));
+        }
+        if (id != null) {
+            callback.accept(id);
+            return;
+        }
+        UUID cached = platform.cachedId(name);
+        if (cached != null) {
+            remember(cached, platform.lookupName(cached));
+            callback.accept(cached);
+            return;
+        }
+        platform.runAsync(() -> {
+            UUID resolved = platform.lookupId(name);
+            String known = platform.lookupName(resolved);
+            platform.runLater(() -> {
+                remember(resolved, known);
+                callback.accept(resolved);
+            }, 0L);
+        });
+    }
+
+    /**
+     * Resolves several names one after another and hands the ids, in the same order, to
+     * {@code callback} on the main thread.
+     */
+    public void resolveAll(List<String> playerNames, Consumer<List<UUID>> callback) {
+        resolveFrom(playerNames, 0, new ArrayList<>(playerNames.size()), callback);
+    }
+
+    private void resolveFrom(List<String> playerNames, int index, List<UUID> resolved,
+                             Consumer<List<UUID>> callback) {
+        if (index == playerNames.size()) {
+            callback.accept(resolved);
+            return;
+        }
+        resolve(playerNames.get(index), player -> {
+            resolved.add(player);
+            resolveFrom(playerNames, index + 1, resolved, callback);
+        });
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,142 @@
+package me.codex.elections.service;
+
+import me.codex.elections.util.PlaytimeTable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Session-based active playtime. A session opens on join or when a player stops being AFK and
+ * closes on quit or when they go AFK; only then is the elapsed time added to their total.
+ * Nothing runs while sessions stay open, and totals for online players are computed on demand.
+ * Settled totals live in a {@link PlaytimeTable}; only online players have boxed session state.
+ */
+public class PlaytimeTracker {
+
+    private final LongSupplier clock;
+    private final boolean offHeap;
+    private PlaytimeTable totals;
+    private final Map<UUID, Long> openSince = new HashMap<>();
+    private final Set<UUID> afk = new HashSet<>();
+
+    public PlaytimeTracker(boolean offHeap) {
+        this(() -> System.nanoTime() / 1_000_000L, offHeap);
+    }
+
+    public PlaytimeTracker(LongSupplier clockMillis, boolean offHeap) {
+        this.clock = clockMillis;
+        this.offHeap = offHeap;
+        this.totals = new PlaytimeTable(1024, offHeap);
+    }
+
+    public void join(UUID player) {
+        totals.add(player, 0L, today());
+        if (!afk.contains(player)) {
+            openSince.putIfAbsent(player, clock.getAsLong());
+        }
+    }
+
+    /**
+     * Closes the player's session.
+     *
+     * @return the player's settled total, or -1 if no session was open
+     */
+    public int quit(UUID player) {
+        afk.remove(player);
+        return close(player);
+    }
+
+    /**
+     * @return the settled total when this closed a session, otherwise -1
+     */
+    public int setAfk(UUID player, boolean nowAfk) {
+        if (nowAfk) {
+            afk.add(player);
+            return close(player);
+        }
+        if (afk.remove(player)) {
+            openSince.putIfAbsent(player, clock.getAsLong());
+        }
+        return -1;
+    }
+
+    public boolean isAfk(UUID player) {
+        return afk.contains(player);
+    }
+
+    /**
+     * Settled seconds plus whatever the open session has earned so far. Does not mutate.
+     */
+    public int getSeconds(UUID player) {
+        int total = totals.get(player);
+        Long since = openSince.get(player);
+        if (since == null) {
+            return total;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total + (clock.getAsLong() - since) / 1000L);
+    }
+
+    /**
+     * Credits every open session up to now and keeps it open, carrying the sub-second
+     * remainder so repeated settles never lose time.
+     */
+    public void settleAll() {
+        long now = clock.getAsLong();
+        int today = today();
+        for (Map.Entry<UUID, Long> entry : openSince.entrySet()) {
+            long seconds = (now - entry.getValue()) / 1000L;
+            totals.add(entry.getKey(), seconds, today);
+            entry.setValue(entry.getValue() + seconds * 1000L);
+        }
+    }
+
+    /**
+     * Forgets players whose last activity is more than {@code days} days old.
+     *
+     * @return how many players were dropped
+     */
+    public int evictInactive(int days) {
+        if (days <= 0) {
+            return 0;
+        }
+        return totals.evictBefore(today() - days);
+    }
+
+    public int size() {
+        return totals.size();
+    }
+
+    public PlaytimeTable copyTotals() {
+        return totals.copy();
+    }
+
+    public void set(UUID player, int seconds) {
+        totals.put(player, seconds, today());
+    }
+
+    public void load(PlaytimeTable data) {
+        if (data.isDirect() == offHeap) {
+            this.totals = data;
+            return;
+        }
+        PlaytimeTable table = new PlaytimeTable(Math.max(1024, data.size()), offHeap);
+        data.forEach(table::put);
+        this.totals = table;
+    }
+
+    private int close(UUID player) {
+        Long since = openSince.remove(player);
+        if (since == null) {
+            return -1;
+        }
+        return totals.add(player, (clock.getAsLong() - since) / 1000L, today());
+    }
+
+    private static int today() {
+        return PlaytimeTable.epochDay(System.currentTimeMillis());
+    }
+}
@@ -1,99 +1,259 @@
 package me.codex.elections.service;
 
+import me.codex.elections.config.Settings;
 import me.codex.elections.model.Election;
+import me.codex.elections.model.ElectionRegistry;
+import me.codex.elections.platform.Platform;
+import me.codex.elections.platform.SidebarDisplay;
 import me.codex.elections.util.DurationUtil;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
-import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scoreboard.DisplaySlot;
-import org.bukkit.scoreboard.Objective;
-import org.bukkit.scoreboard.Score;
-import org.bukkit.scoreboard.Scoreboard;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
+/**
+ * Renders one sidebar frame per election and pushes it to the players viewing that election.
+ * Each player sees the election they picked with {@code /elections scoreboard <election>}, or
+ * the most recently created one if they never picked or their pick has been cleared.
+ * <p>
+ * Frames are rendered on the main thread, where election state lives, and handed to each
+ * viewer's own thread as an immutable {@link Frame}; on Folia that is the player's region.
+ */
 public class ScoreboardService {
 
-    private final JavaPlugin plugin;
-    private final Set<java.util.UUID> hidden = new HashSet<>();
+    private final Platform platform;
+    private final SidebarDisplay sidebars;
+    private final NameCache names;
+    private final ElectionRegistry elections;
+    private final Set<UUID> hidden = new HashSet<>();
+    private final Map<UUID, String> chosen = new HashMap<>();
+    private final Map<Election, Frame> frames = new HashMap<>();
+    private final Set<Election> dirty = new LinkedHashSet<>();
+    private int flushTaskId = -1;
 
-    public ScoreboardService(JavaPlugin plugin) {
-        this.plugin = plugin;
+    public ScoreboardService(Platform platform, NameCache names, ElectionRegistry elections) {
+        this.platform = platform;
+        this.sidebars = platform.sidebars();
+        this.names = names;
+        this.elections = elections;
     }
 
-    public void updateAll(Election election) {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            showTo(player, election);
+    /**
+     * Re-renders every election once and pushes each visible player the frame they view.
+     */
+    public void updateAll() {
+        cancelFlush();
+        dirty.clear();
+        frames.clear();
+        for (Election election : elections.all()) {
+            render(election);
         }
+        push(null);
     }
 
-    public void showTo(Player player, Election election) {
-        if (hidden.contains(player.getUniqueId())) {
+    /**
+     * Shows the player the last rendered frame of the election they view, rendering only if
+     * none is cached.
+     */
+    public void showTo(UUID player) {
+        if (hidden.contains(player)) {
             return;
         }
-        Scoreboard scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
-        String title = ChatColor.translateAlternateColorCodes('&',
-                plugin.getConfig().getString("scoreboard.title", "&aElections"));
-        Objective objective = scoreboard.registerNewObjective("elections", "dummy", title);
-        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+        Election election = viewOf(player);
+        if (election != null) {
+            showFrame(player, currentFrame(election));
+        }
+    }
+
+    /**
+     * Switches the player's sidebar to {@code election}.
+     */
+    public void select(UUID player, Election election) {
+        chosen.put(player, election.getId());
+        showTo(player);
+    }
 
-        List<Line> lines = buildLines(election);
-        for (Line line : lines) {
-            Score s = objective.getScore(line.text());
-            s.setScore(line.score());
+    /**
+     * Flags one election's sidebar as stale. Any number of calls within one server tick
+     * collapse into a single redraw per election at the start of the next tick.
+     */
+    public void markDirty(Election election) {
+        dirty.add(election);
+        if (flushTaskId == -1) {
+            flushTaskId = platform.runLater(this::flush, 0L);
         }
-        player.setScoreboard(scoreboard);
     }
 
-    public void clearAll() {
-        Scoreboard main = Bukkit.getScoreboardManager().getMainScoreboard();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.setScoreboard(main);
+    /**
+     * Called from the once-per-second election tick. Redraws an election only when its
+     * countdown text would actually change; a finished election never needs a timed redraw.
+     */
+    public void refreshIfDue(Instant now) {
+        Set<Election> due = null;
+        for (Election election : elections.all()) {
+            if (!election.isActive() || dirty.contains(election)) {
+                continue;
+            }
+            Frame frame = frames.get(election);
+            if (frame == null || frame.nextChange() == null || !now.isBefore(frame.nextChange())) {
+                if (due == null) {
+                    due = new HashSet<>();
+                }
+                render(election);
+                due.add(election);
+            }
+        }
+        if (due != null) {
+            push(due);
+        }
+    }
+
+    /**
+     * Drops everything cached for an election that has been cleared. Players who viewed it
+     * fall back to the newest remaining election; with none left every sidebar is hidden.
+     */
+    public void electionRemoved(Election election) {
+        frames.remove(election);
+        dirty.remove(election);
+        chosen.values().removeIf(id -> id.equals(election.getId()));
+        if (elections.isEmpty()) {
+            clearAll();
+        } else {
+            push(null);
+        }
+    }
+
+    private void flush() {
+        flushTaskId = -1;
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Set<Election> redraw = new HashSet<>(dirty);
+        dirty.clear();
+        for (Election election : redraw) {
+            render(election);
+        }
+        push(redraw);
+    }
+
+    /**
+     * Sends each visible player the cached frame of the election they view, limited to
+     * {@code only} when given.
+     */
+    private void push(Set<Election> only) {
+        for (UUID player : platform.onlinePlayers()) {
+            if (hidden.contains(player)) {
+                continue;
+            }
+            Election election = viewOf(player);
+            if (election != null && (only == null || only.contains(election))) {
+                showFrame(player, currentFrame(election));
+            }
+        }
+    }
+
+    private void cancelFlush() {
+        if (flushTaskId != -1) {
+            platform.cancelTask(flushTaskId);
+            flushTaskId = -1;
         }
     }
 
-    public boolean toggle(Player player) {
-        if (hidden.remove(player.getUniqueId())) {
+    public void invalidate() {
+        frames.clear();
+    }
+
+    private Election viewOf(UUID player) {
+        Election election = elections.get(chosen.get(player));
+        if (election != null) {
+            return election;
+        }
+        for (Election candidate : elections.all()) {
+            election = candidate;
+        }
+        return election;
+    }
+
+    private Frame currentFrame(Election election) {
+        Frame frame = frames.get(election);
+        return frame != null ? frame : render(election);
+    }
+
+    private Frame render(Election election) {
+        Instant now = Instant.now();
+        Instant nextChange = election.isActive()
+                ? DurationUtil.untilFormatChange(election.getRemaining(now)).map(now::plus).orElse(null)
+                : null;
+        String title = platform.settings().scoreboard().title();
+        Frame frame = new Frame(title, List.copyOf(buildLines(election, now)), nextChange);
+        frames.put(election, frame);
+        return frame;
+    }
+
+    private void showFrame(UUID player, Frame current) {
+        platform.runFor(player, () -> sidebars.show(player, current.title(), current.lines()));
+    }
+
+    private void hide(UUID player) {
+        platform.runFor(player, () -> sidebars.hide(player));
+    }
+
+    public void clearAll() {
+        cancelFlush();
+        dirty.clear();
+        invalidate();
+        sidebars.hideAll();
+    }
+
+    public void forget(UUID player) {
+        chosen.remove(player);
+        sidebars.forget(player);
+    }
+
+    public boolean toggle(UUID player) {
+        if (hidden.remove(player)) {
             return true; // now enabled
         }
-        hidden.add(player.getUniqueId());
-        player.setScoreboard(Bukkit.getScoreboardManager().getMainScoreboard());
+        hidden.add(player);
+        hide(player);
         return false; // now disabled
     }
 
-    public boolean enable(Player player) {
-        boolean changed = hidden.remove(player.getUniqueId());
+    public boolean enable(UUID player) {
+        boolean changed = hidden.remove(player);
         return changed;
     }
 
-    public boolean disable(Player player) {
-        boolean added = hidden.add(player.getUniqueId());
+    public boolean disable(UUID player) {
+        boolean added = hidden.add(player);
         if (added) {
-            player.setScoreboard(Bukkit.getScoreboardManager().getMainScoreboard());
+            hide(player);
         }
         return added;
     }
 
-    public boolean isHidden(Player player) {
-        return hidden.contains(player.getUniqueId());
+    public boolean isHidden(UUID player) {
+        return hidden.contains(player);
     }
 
     public void resetHidden() {
         hidden.clear();
     }
 
-    private List<Line> buildLines(Election election) {
+    private List<String> buildLines(Election election, Instant now) {
         final int maxLines = 15;
-        final boolean showVoteTip = plugin.getConfig().getBoolean("scoreboard.show-vote-tip", true);
-        final boolean showHelpTip = plugin.getConfig().getBoolean("scoreboard.show-help-tip", true);
-        final boolean showCounts = plugin.getConfig().getBoolean("scoreboard.show-vote-counts", true);
+        final Settings.Scoreboard settings = platform.settings().scoreboard();
+        final boolean showVoteTip = settings.showVoteTip();
+        final boolean showHelpTip = settings.showHelpTip();
+        final boolean showCounts = settings.showVoteCounts();
         final boolean showWinnerLine = !election.isActive();
 
         List<String> lines = new ArrayList<>();
@@ -103,13 +263,11 @@ public class ScoreboardService {
                 : "&bRole: &f" + election.getRole();
         lines.add(color(roleLine));
         if (election.getType() == Election.Type.NO_CONFIDENCE) {
-            election.getNominees().stream().findFirst().ifPresent(target -> {
-                String name = Bukkit.getOfflinePlayer(target).getName();
-                lines.add(color("&bTarget: &f" + (name != null ? name : target.toString().substring(0, 8))));
-            });
+            election.getNominees().stream().findFirst()
+                    .ifPresent(target -> lines.add(color("&bTarget: &f" + names.name(target))));
         }
         if (election.isActive()) {
-            Duration remaining = election.getRemaining(java.time.Instant.now());
+            Duration remaining = election.getRemaining(now);
             lines.add(color("&bEnds in: &f" + DurationUtil.format(remaining)));
         } else {
             lines.add(color("&bStatus: &fFinished"));
@@ -117,10 +275,9 @@ public class ScoreboardService {
         lines.add(color("&bNominees:"));
 
         List<String> candidateLines = new ArrayList<>();
-        for (java.util.UUID nominee : election.getNominees()) {
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(nominee);
-            long votes = election.getVoteCounts().getOrDefault(nominee, 0L);
-            String display = offlinePlayer.getName() != null ? offlinePlayer.getName() : nominee.toString().substring(0, 8);
+        for (UUID nominee : election.getNominees()) {
+            long votes = election.getVoteCount(nominee);
+            String display = names.name(nominee);
             candidateLines.add(color(" &7- &f" + display + (showCounts ? (" &7(" + votes + ")") : "")));
         }
 
@@ -128,7 +285,7 @@ public class ScoreboardService {
         int extraStatic = election.getType() == Election.Type.NO_CONFIDENCE ? 1 : 0; // target line
         int reserved = 3 /*role/status*/ + 1 /*nominees label*/ + optionalLines + extraStatic;
         int availableForCandidates = Math.max(0, maxLines - reserved);
-        int configMax = plugin.getConfig().getInt("scoreboard.max-candidates", 10);
+        int configMax = settings.maxCandidates();
         int toShow = Math.min(candidateLines.size(), Math.min(configMax, availableForCandidates));
         boolean needsEllipsis = candidateLines.size() > toShow;
         if (needsEllipsis && toShow == availableForCandidates && toShow > 0) {
@@ -148,7 +305,12 @@ public class ScoreboardService {
         }
 
         if (showVoteTip) {
-            lines.add(color("&bVote: &f/vote <name>"));
+            lines.add(color(switch (election.getMethod()) {
+                case INSTANT_RUNOFF, SINGLE_TRANSFERABLE_VOTE -> "&bVote: &f/vote <1st> <2nd> ...";
+                case APPROVAL -> "&bVote: &f/vote <name> <name> ...";
+                case SCORE -> "&bVote: &f/vote <name>:<0-" + Election.MAX_SCORE + "> ...";
+                case PLURALITY -> "&bVote: &f/vote <name>";
+            }));
         }
 
         if (showHelpTip) {
@@ -156,45 +318,28 @@ public class ScoreboardService {
         }
 
         if (!election.isActive()) {
-            if (election.getWinner().isPresent()) {
-                java.util.UUID winner = election.getWinner().get();
-                OfflinePlayer offline = Bukkit.getOfflinePlayer(winner);
-                String display = offline.getName() != null ? offline.getName() : winner.toString().substring(0, 8);
-                lines.add(color("&aWinner: &f" + display));
+            List<UUID> winners = election.getWinners();
+            if (winners.size() > 1) {
+                List<String> winnerNames = new ArrayList<>(winners.size());
+                winners.forEach(winner -> winnerNames.add(names.name(winner)));
+                lines.add(color("&aWinners: &f" + String.join(", ", winnerNames)));
+            } else if (!winners.isEmpty()) {
+                lines.add(color("&aWinner: &f" + names.name(winners.get(0))));
             } else {
                 lines.add(color("&aWinner: &fNone"));
             }
         }
 
-        List<String> unique = uniquify(lines);
-        List<Line> result = new ArrayList<>();
-        int score = unique.size();
-        for (String line : unique) {
-            result.add(new Line(line, score--));
-        }
-        return result;
+        return lines;
     }
 
     private String color(String input) {
         return ChatColor.translateAlternateColorCodes('&', input);
     }
 
-    private List<String> uniquify(List<String> lines) {
-        Set<String> seen = new LinkedHashSet<>();
-        List<String> unique = new ArrayList<>();
-        int colorIndex = 0;
-        ChatColor[] palette = ChatColor.values();
-        for (String line : lines) {
-            String candidate = line;
-            while (seen.contains(candidate)) {
-                candidate = line + palette[colorIndex % palette.length];
-                colorIndex++;
-            }
-            seen.add(candidate);
-            unique.add(candidate);
-        }
-        return unique;
-    }
-
-    private record Line(String text, int score) { }
+    /**
+     * One rendered sidebar. Immutable, so it can be read on any player's thread while the main
+     * thread moves the election on.
+     */
+    private record Frame(String title, List<String> lines, Instant nextChange) { }
 }
@@ -0,0 +1,97 @@
+package me.codex.elections.tally;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Frozen, compact copy of an election's ballots for counting. Candidates are numbered
+ * {@code 0..n-1} in nomination order; all preferences live in one {@code int[]}, and ballot
+ * {@code b} spans {@code preferences[offsets[b]]} up to (not including)
+ * {@code preferences[offsets[b + 1]]}, most preferred first. Empty ballots are never stored.
+ * <p>
+ * Approval and score elections keep their per-candidate sums current as ballots change, so
+ * their box carries only those {@code totals} and no ballots.
+ */
+public final class BallotBox {
+
+    final List<UUID> candidates;
+    final int[] preferences;
+    final int[] offsets;
+    final int size;
+    /** Per candidate: approvals or summed scores, or null when the box holds ranked ballots. */
+    final long[] totals;
+
+    private BallotBox(List<UUID> candidates, int[] preferences, int[] offsets, int size, long[] totals) {
+        this.candidates = candidates;
+        this.preferences = preferences;
+        this.offsets = offsets;
+        this.size = size;
+        this.totals = totals;
+    }
+
+    public int candidateCount() {
+        return candidates.size();
+    }
+
+    public UUID candidate(int index) {
+        return candidates.get(index);
+    }
+
+    /**
+     * @return the number of ballots with at least one preference
+     */
+    public int size() {
+        return size;
+    }
+
+    public static final class Builder {
+        private final List<UUID> candidates;
+        private int[] preferences;
+        private int[] offsets;
+        private int size;
+        private long[] totals;
+
+        /**
+         * @param candidates nominees in nomination order; earlier ones win exact ties
+         * @param expected   roughly how many ballots will be added
+         */
+        public Builder(List<UUID> candidates, int expected) {
+            this.candidates = List.copyOf(candidates);
+            this.preferences = new int[Math.max(16, expected * 2)];
+            this.offsets = new int[Math.max(16, expected + 1)];
+        }
+
+        /**
+         * Adds one ballot from the first {@code length} entries of {@code ranking}, which are
+         * candidate indexes, most preferred first.
+         */
+        public Builder add(int[] ranking, int length) {
+            if (length <= 0) {
+                return this;
+            }
+            int start = offsets[size];
+            if (start + length > preferences.length) {
+                preferences = Arrays.copyOf(preferences, Math.max(start + length, preferences.length * 2));
+            }
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            System.arraycopy(ranking, 0, preferences, start, length);
+            offsets[++size] = start + length;
+            return this;
+        }
+
+        /**
+         * Sets each candidate's running total, indexed like {@code candidates}.
+         */
+        public Builder totals(long[] totals) {
+            this.totals = totals.clone();
+            return this;
+        }
+
+        public BallotBox build() {
+            return new BallotBox(candidates, preferences, offsets, size, totals);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package me.codex.elections.tally;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Approval and score voting: the candidates with the highest totals (approvals, or summed
+ * scores) take the seats. The totals come ready-made from the election, which updates them as
+ * each ballot changes, so a count never walks the ballots.
+ */
+public final class HighestTotal implements TallyEngine {
+
+    public static final HighestTotal INSTANCE = new HighestTotal();
+
+    private HighestTotal() {
+    }
+
+    @Override
+    public TallyResult count(BallotBox ballots, int seats) {
+        if (ballots.totals == null) {
+            return Plurality.INSTANCE.count(ballots, seats);
+        }
+        return top(ballots, ballots.totals, seats);
+    }
+
+    /**
+     * Elects the {@code seats} candidates with the highest {@code totals}, reporting an exact tie
+     * across the last seat.
+     */
+    static TallyResult top(BallotBox ballots, long[] totals, int seats) {
+        int candidates = ballots.candidateCount();
+        // Stable sort by totals, so exact ties keep nomination order.
+        List<Integer> order = new ArrayList<>(candidates);
+        for (int c = 0; c < candidates; c++) {
+            order.add(c);
+        }
+        order.sort((a, b) -> Long.compare(totals[b], totals[a]));
+
+        int filled = Math.min(seats, candidates);
+        List<UUID> elected = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            elected.add(ballots.candidate(order.get(i)));
+        }
+        List<UUID> tied = new ArrayList<>();
+        if (filled > 0 && filled < candidates && totals[order.get(filled - 1)] == totals[order.get(filled)]) {
+            long boundary = totals[order.get(filled)];
+            for (int c : order) {
+                if (totals[c] == boundary) {
+                    tied.add(ballots.candidate(c));
+                }
+            }
+        }
+        return new TallyResult(elected, tied, 1);
+    }
+}
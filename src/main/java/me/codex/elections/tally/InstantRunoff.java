@@ -0,0 +1,19 @@
+package me.codex.elections.tally;
+
+/**
+ * Ranked choice for a single seat: the last-placed candidate is eliminated and their ballots
+ * move to each voter's next choice until someone holds a majority. This is exactly
+ * {@link SingleTransferableVote} with one seat, where the Droop quota is a strict majority.
+ */
+public final class InstantRunoff implements TallyEngine {
+
+    public static final InstantRunoff INSTANCE = new InstantRunoff();
+
+    private InstantRunoff() {
+    }
+
+    @Override
+    public TallyResult count(BallotBox ballots, int seats) {
+        return SingleTransferableVote.INSTANCE.count(ballots, 1);
+    }
+}
@@ -0,0 +1,23 @@
+package me.codex.elections.tally;
+
+/**
+ * First past the post: only each ballot's first preference counts, and the candidates with the
+ * most of them take the seats.
+ */
+public final class Plurality implements TallyEngine {
+
+    public static final Plurality INSTANCE = new Plurality();
+
+    private Plurality() {
+    }
+
+    @Override
+    public TallyResult count(BallotBox ballots, int seats) {
+        int candidates = ballots.candidateCount();
+        long[] votes = new long[candidates];
+        for (int b = 0; b < ballots.size(); b++) {
+            votes[ballots.preferences[ballots.offsets[b]]]++;
+        }
+        return HighestTotal.top(ballots, votes, seats);
+    }
+}
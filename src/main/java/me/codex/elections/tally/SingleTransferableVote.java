@@ -0,0 +1,210 @@
+package me.codex.elections.tally;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Single transferable vote with a Droop quota and fractional (Gregory) surplus transfers.
+ * <p>
+ * Every ballot sits on the pile of its highest-ranked continuing candidate. A candidate who
+ * reaches the quota is elected and each ballot on their pile moves on carrying its share of
+ * the surplus; otherwise the candidate with the fewest votes is excluded and their pile moves
+ * on at full value. Only the pile that changes hands is touched in a round, so a whole count
+ * moves each ballot at most once per candidate.
+ * <p>
+ * Exclusion ties go to the candidate with fewer first preferences, then to the later nominee.
+ * A tie between the last two continuing candidates for the last seat is reported in
+ * {@link TallyResult#tied()}.
+ */
+public final class SingleTransferableVote implements TallyEngine {
+
+    public static final SingleTransferableVote INSTANCE = new SingleTransferableVote();
+
+    private static final double EPSILON = 1e-9;
+    private static final byte CONTINUING = 0;
+    private static final byte ELECTED = 1;
+    private static final byte EXCLUDED = 2;
+
+    private SingleTransferableVote() {
+    }
+
+    @Override
+    public TallyResult count(BallotBox ballots, int seats) {
+        return new Count(ballots, seats).run();
+    }
+
+    private static final class Count {
+        private final BallotBox box;
+        private final int seats;
+        private final int candidates;
+        private final byte[] state;
+        private final double[] votes;
+        private final long[] firstPreferences;
+        private final int[][] piles;
+        private final int[] pileSizes;
+        /** Per ballot: index into {@code box.preferences} of the preference it currently counts for. */
+        private final int[] position;
+        private final double[] weight;
+        private final List<UUID> elected = new ArrayList<>();
+        private final List<UUID> tied = new ArrayList<>();
+        private int continuing;
+        private int rounds;
+
+        private Count(BallotBox box, int seats) {
+            this.box = box;
+            this.seats = Math.max(1, seats);
+            this.candidates = box.candidateCount();
+            this.state = new byte[candidates];
+            this.votes = new double[candidates];
+            this.firstPreferences = new long[candidates];
+            this.piles = new int[candidates][];
+            this.pileSizes = new int[candidates];
+            this.position = new int[box.size];
+            this.weight = new double[box.size];
+            this.continuing = candidates;
+        }
+
+        private TallyResult run() {
+            for (int c = 0; c < candidates; c++) {
+                piles[c] = new int[16];
+            }
+            for (int b = 0; b < box.size; b++) {
+                position[b] = box.offsets[b];
+                weight[b] = 1.0;
+                int first = box.preferences[position[b]];
+                firstPreferences[first]++;
+                push(first, b);
+            }
+            double quota = Math.floor((double) box.size / (seats + 1)) + 1;
+
+            while (elected.size() < seats && continuing > 0) {
+                rounds++;
+                int open = seats - elected.size();
+                if (continuing <= open) {
+                    electRemaining();
+                    break;
+                }
+                int top = highest();
+                if (votes[top] + EPSILON >= quota) {
+                    elect(top);
+                    double surplus = votes[top] - quota;
+                    transfer(top, surplus > EPSILON ? surplus / votes[top] : 0.0);
+                    votes[top] = quota;
+                    continue;
+                }
+                int bottom = lowest(continuing - 1 == open);
+                state[bottom] = EXCLUDED;
+                continuing--;
+                transfer(bottom, 1.0);
+            }
+            return new TallyResult(List.copyOf(elected), List.copyOf(tied), Math.max(1, rounds));
+        }
+
+        private void elect(int candidate) {
+            state[candidate] = ELECTED;
+            continuing--;
+            elected.add(box.candidate(candidate));
+        }
+
+        /**
+         * Elects every continuing candidate, most votes first, once no more than the open seats
+         * remain.
+         */
+        private void electRemaining() {
+            Integer[] order = new Integer[continuing];
+            int n = 0;
+            for (int c = 0; c < candidates; c++) {
+                if (state[c] == CONTINUING) {
+                    order[n++] = c;
+                }
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(votes[b], votes[a]));
+            for (int c : order) {
+                elect(c);
+            }
+        }
+
+        private int highest() {
+            int best = -1;
+            for (int c = 0; c < candidates; c++) {
+                if (state[c] == CONTINUING && (best < 0 || votes[c] > votes[best] + EPSILON)) {
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * @param decisive whether this exclusion settles the last open seat, so a tie for it
+         *                 must be reported rather than silently broken
+         */
+        private int lowest(boolean decisive) {
+            int worst = -1;
+            for (int c = 0; c < candidates; c++) {
+                if (state[c] != CONTINUING) {
+                    continue;
+                }
+                if (worst < 0 || votes[c] < votes[worst] - EPSILON) {
+                    worst = c;
+                } else if (Math.abs(votes[c] - votes[worst]) <= EPSILON
+                        && firstPreferences[c] <= firstPreferences[worst]) {
+                    worst = c;
+                }
+            }
+            if (decisive) {
+                for (int c = 0; c < candidates; c++) {
+                    if (state[c] == CONTINUING && c != worst && Math.abs(votes[c] - votes[worst]) <= EPSILON) {
+                        tied.add(box.candidate(c));
+                    }
+                }
+                if (!tied.isEmpty()) {
+                    tied.add(box.candidate(worst));
+                }
+            }
+            return worst;
+        }
+
+        /**
+         * Moves every ballot on {@code from}'s pile to its next continuing preference, scaling
+         * its weight by {@code factor}. Ballots with no continuing preference left are exhausted.
+         */
+        private void transfer(int from, double factor) {
+            int[] pile = piles[from];
+            int count = pileSizes[from];
+            piles[from] = null;
+            pileSizes[from] = 0;
+            if (factor <= 0.0) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                int b = pile[i];
+                double carried = weight[b] * factor;
+                int end = box.offsets[b + 1];
+                int p = position[b] + 1;
+                while (p < end && state[box.preferences[p]] != CONTINUING) {
+                    p++;
+                }
+                if (p == end) {
+                    continue;
+                }
+                position[b] = p;
+                weight[b] = carried;
+                push(box.preferences[p], b);
+            }
+        }
+
+        private void push(int candidate, int ballot) {
+            int[] pile = piles[candidate];
+            int size = pileSizes[candidate];
+            if (size == pile.length) {
+                pile = Arrays.copyOf(pile, size * 2);
+                piles[candidate] = pile;
+            }
+            pile[size] = ballot;
+            pileSizes[candidate] = size + 1;
+            votes[candidate] += weight[ballot];
+        }
+    }
+}
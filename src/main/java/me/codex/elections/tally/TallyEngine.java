@@ -0,0 +1,20 @@
+package me.codex.elections.tally;
+
+import me.codex.elections.model.Election;
+
+/**
+ * A counting rule. Engines are stateless and may be shared between threads.
+ */
+public interface TallyEngine {
+
+    TallyResult count(BallotBox ballots, int seats);
+
+    static TallyEngine forMethod(Election.Method method) {
+        return switch (method) {
+            case PLURALITY -> Plurality.INSTANCE;
+            case INSTANT_RUNOFF -> InstantRunoff.INSTANCE;
+            case SINGLE_TRANSFERABLE_VOTE -> SingleTransferableVote.INSTANCE;
+            case APPROVAL, SCORE -> HighestTotal.INSTANCE;
+        };
+    }
+}
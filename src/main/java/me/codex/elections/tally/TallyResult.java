@@ -0,0 +1,21 @@
+package me.codex.elections.tally;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of one count.
+ *
+ * @param elected winners in the order they were elected. Always as many as there are seats
+ *                (or candidates, if fewer); places decided by an exact tie go to the earlier
+ *                nominee.
+ * @param tied    candidates that were exactly tied for the last contested place, or empty when
+ *                the count was decisive
+ * @param rounds  counting rounds; 1 for plurality, approval and score
+ */
+public record TallyResult(List<UUID> elected, List<UUID> tied, int rounds) {
+
+    public boolean isTie() {
+        return !tied.isEmpty();
+    }
+}
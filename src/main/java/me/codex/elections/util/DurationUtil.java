@@ -54,4 +54,18 @@ public final class DurationUtil {
         if (seconds > 0 && days == 0) builder.append(seconds).append("s");
         return builder.toString().trim();
     }
+
+    /**
+     * How long until {@link #format(Duration)} of a countdown at {@code remaining} would
+     * print something different. Seconds are hidden once a day or more is left, so the
+     * text only moves on minute boundaries there. Empty when the text can no longer change.
+     */
+    public static Optional<Duration> untilFormatChange(Duration remaining) {
+        if (remaining.isZero() || remaining.isNegative()) {
+            return Optional.empty();
+        }
+        long seconds = remaining.getSeconds();
+        long step = seconds >= 86400 ? 60 : 1;
+        return Optional.of(Duration.ofSeconds(seconds % step, remaining.getNano()).plusNanos(1));
+    }
 }
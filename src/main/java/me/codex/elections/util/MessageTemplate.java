@@ -0,0 +1,134 @@
+package me.codex.elections.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message or command pre-split into literal text and placeholder slots, so rendering is a
+ * single append pass instead of one {@code String.replace} scan per placeholder. Templates are
+ * compiled when the config loads; unknown {@code %tokens%} stay literal text.
+ */
+public final class MessageTemplate {
+
+    public enum Placeholder {
+        ROLE, DURATION, TARGET, WINNER, CANDIDATE, MAX, NEEDED, HAVE, PLATFORM, VOTES, ELECTION;
+
+        private final String token = "%" + name().toLowerCase(Locale.ROOT) + "%";
+
+        public String token() {
+            return token;
+        }
+
+        private static Placeholder byName(String name) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.name().equalsIgnoreCase(name)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final ThreadLocal<Renderer> RENDERER = ThreadLocal.withInitial(Renderer::new);
+
+    private final String source;
+    /** Literal text per segment; null where the segment is a placeholder. */
+    private final String[] literals;
+    /** Placeholder per segment; null where the segment is literal. */
+    private final Placeholder[] slots;
+    private final int literalLength;
+
+    private MessageTemplate(String source, String[] literals, Placeholder[] slots, int literalLength) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+
+    public static MessageTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            int close = c == '%' ? source.indexOf('%', i + 1) : -1;
+            Placeholder placeholder = close > i ? Placeholder.byName(source.substring(i + 1, close)) : null;
+            if (placeholder == null) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (literal.length() > 0) {
+                literals.add(literal.toString());
+                slots.add(null);
+                literalLength += literal.length();
+                literal.setLength(0);
+            }
+            literals.add(null);
+            slots.add(placeholder);
+            i = close + 1;
+        }
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            slots.add(null);
+            literalLength += literal.length();
+        }
+        return new MessageTemplate(source, literals.toArray(new String[0]), slots.toArray(new Placeholder[0]),
+                literalLength);
+    }
+
+    /**
+     * @return the text this template was compiled from
+     */
+    public String source() {
+        return source;
+    }
+
+    public String render() {
+        return render(null, null, null, null, null, null);
+    }
+
+    public String render(Placeholder a, String valueA) {
+        return render(a, valueA, null, null, null, null);
+    }
+
+    public String render(Placeholder a, String valueA, Placeholder b, String valueB) {
+        return render(a, valueA, b, valueB, null, null);
+    }
+
+    public String render(Placeholder a, String valueA, Placeholder b, String valueB, Placeholder c, String valueC) {
+        if (slots.length == 1 && literals[0] != null) {
+            return literals[0];
+        }
+        Renderer renderer = RENDERER.get();
+        String[] values = renderer.values;
+        if (a != null) values[a.ordinal()] = valueA;
+        if (b != null) values[b.ordinal()] = valueB;
+        if (c != null) values[c.ordinal()] = valueC;
+        StringBuilder out = renderer.builder;
+        out.setLength(0);
+        out.ensureCapacity(literalLength + 32);
+        for (int i = 0; i < slots.length; i++) {
+            Placeholder slot = slots[i];
+            if (slot == null) {
+                out.append(literals[i]);
+            } else {
+                String value = values[slot.ordinal()];
+                // Placeholders this caller does not supply are left as written.
+                out.append(value != null ? value : slot.token());
+            }
+        }
+        if (a != null) values[a.ordinal()] = null;
+        if (b != null) values[b.ordinal()] = null;
+        if (c != null) values[c.ordinal()] = null;
+        return out.toString();
+    }
+
+    private static final class Renderer {
+        private final StringBuilder builder = new StringBuilder(128);
+        private final String[] values = new String[Placeholder.values().length];
+    }
+}
@@ -0,0 +1,57 @@
+package me.codex.elections.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free queue for many producers and a single consumer, after Dmitry Vyukov's
+ * intrusive MPSC queue. {@link #offer} costs one atomic swap of the tail plus a volatile link,
+ * so producers never retry or block each other.
+ * <p>
+ * {@link #poll} must only be called from the consumer thread. It may return null while a
+ * producer is between the swap and the link; that element is returned by a later poll.
+ */
+public final class MpscQueue<T> {
+
+    private final AtomicReference<Node<T>> tail;
+    /** The last node handed out; its successor is the next element. Consumer only. */
+    private Node<T> head;
+
+    public MpscQueue() {
+        Node<T> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Appends {@code value}. Safe to call from any thread.
+     */
+    public void offer(T value) {
+        Node<T> node = new Node<>(Objects.requireNonNull(value));
+        Node<T> previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+
+    /**
+     * @return the oldest element, or null if none is ready
+     */
+    public T poll() {
+        Node<T> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        T value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    private static final class Node<T> {
+        private T value;
+        private volatile Node<T> next;
+
+        private Node(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package me.codex.elections.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Open-addressing hash table from a player UUID (as its two longs) to seconds played and
+ * the last epoch day they were active. Slots live in one {@link ByteBuffer}, on or off heap,
+ * so an entry costs 24 bytes and nothing is boxed. Linear probing with backward-shift
+ * deletion; the nil UUID marks an empty slot and cannot be stored.
+ */
+public final class PlaytimeTable {
+
+    private static final int SLOT = 24;
+    private static final int SECONDS = 16;
+    private static final int DAY = 20;
+    private static final double MAX_LOAD = 0.6;
+
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(long mostSig, long leastSig, int seconds, int day);
+    }
+
+    private final boolean direct;
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    public PlaytimeTable(int expected, boolean direct) {
+        this.direct = direct;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expected / MAX_LOAD)) - 1) << 1;
+        this.slots = allocate(capacity);
+        this.mask = capacity - 1;
+    }
+
+    private PlaytimeTable(PlaytimeTable source) {
+        this.direct = source.direct;
+        this.slots = allocate(source.capacity());
+        this.slots.put(source.slots.duplicate().clear()).clear();
+        this.mask = source.mask;
+        this.size = source.size;
+    }
+
+    public static int epochDay(long epochMillis) {
+        return (int) Math.floorDiv(epochMillis, 86_400_000L);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public int get(UUID player) {
+        return get(player.getMostSignificantBits(), player.getLeastSignificantBits());
+    }
+
+    public int get(long mostSig, long leastSig) {
+        int slot = find(mostSig, leastSig);
+        return slot < 0 ? 0 : slots.getInt(slot * SLOT + SECONDS);
+    }
+
+    public void put(UUID player, int seconds, int day) {
+        put(player.getMostSignificantBits(), player.getLeastSignificantBits(), seconds, day);
+    }
+
+    public void put(long mostSig, long leastSig, int seconds, int day) {
+        int slot = insert(mostSig, leastSig);
+        if (slot < 0) {
+            return;
+        }
+        slots.putInt(slot * SLOT + SECONDS, seconds);
+        slots.putInt(slot * SLOT + DAY, day);
+    }
+
+    /**
+     * Adds to the player's seconds (saturating) and marks them active on {@code day}.
+     *
+     * @return the new total
+     */
+    public int add(UUID player, long seconds, int day) {
+        int slot = insert(player.getMostSignificantBits(), player.getLeastSignificantBits());
+        if (slot < 0) {
+            return 0;
+        }
+        int offset = slot * SLOT;
+        int total = (int) Math.min(Integer.MAX_VALUE, slots.getInt(offset + SECONDS) + Math.max(0L, seconds));
+        slots.putInt(offset + SECONDS, total);
+        slots.putInt(offset + DAY, day);
+        return total;
+    }
+
+    /**
+     * Removes every player last active before {@code minDay}.
+     *
+     * @return how many entries were dropped
+     */
+    public int evictBefore(int minDay) {
+        int removed = 0;
+        int capacity = capacity();
+        for (int slot = 0; slot < capacity; ) {
+            if (!isEmpty(slot) && slots.getInt(slot * SLOT + DAY) < minDay) {
+                removeAt(slot);
+                removed++;
+                // A later entry may have shifted into this slot; look at it again.
+                continue;
+            }
+            slot++;
+        }
+        return removed;
+    }
+
+    public void forEach(Visitor visitor) {
+        int capacity = capacity();
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isEmpty(slot)) {
+                int offset = slot * SLOT;
+                visitor.accept(slots.getLong(offset), slots.getLong(offset + 8),
+                        slots.getInt(offset + SECONDS), slots.getInt(offset + DAY));
+            }
+        }
+    }
+
+    /**
+     * A detached copy made with one bulk memory copy; used for snapshots.
+     */
+    public PlaytimeTable copy() {
+        return new PlaytimeTable(this);
+    }
+
+    private int capacity() {
+        return mask + 1;
+    }
+
+    private int find(long mostSig, long leastSig) {
+        int slot = hash(mostSig, leastSig) & mask;
+        while (!isEmpty(slot)) {
+            int offset = slot * SLOT;
+            if (slots.getLong(offset) == mostSig && slots.getLong(offset + 8) == leastSig) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(long mostSig, long leastSig) {
+        if (mostSig == 0L && leastSig == 0L) {
+            return -1;
+        }
+        int slot = hash(mostSig, leastSig) & mask;
+        while (!isEmpty(slot)) {
+            int offset = slot * SLOT;
+            if (slots.getLong(offset) == mostSig && slots.getLong(offset + 8) == leastSig) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > capacity() * MAX_LOAD) {
+            grow();
+            return insert(mostSig, leastSig);
+        }
+        int offset = slot * SLOT;
+        slots.putLong(offset, mostSig);
+        slots.putLong(offset + 8, leastSig);
+        slots.putInt(offset + SECONDS, 0);
+        slots.putInt(offset + DAY, 0);
+        size++;
+        return slot;
+    }
+
+    private void removeAt(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (!isEmpty(next)) {
+            int offset = next * SLOT;
+            int home = hash(slots.getLong(offset), slots.getLong(offset + 8)) & mask;
+            // Move the entry back if the hole lies on its probe path (cyclic distance check).
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                copySlot(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        clearSlot(hole);
+        size--;
+    }
+
+    private void grow() {
+        ByteBuffer old = slots;
+        int oldCapacity = capacity();
+        slots = allocate(oldCapacity << 1);
+        mask = (oldCapacity << 1) - 1;
+        size = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int offset = slot * SLOT;
+            long mostSig = old.getLong(offset);
+            long leastSig = old.getLong(offset + 8);
+            if (mostSig == 0L && leastSig == 0L) {
+                continue;
+            }
+            int target = insert(mostSig, leastSig);
+            slots.putInt(target * SLOT + SECONDS, old.getInt(offset + SECONDS));
+            slots.putInt(target * SLOT + DAY, old.getInt(offset + DAY));
+        }
+    }
+
+    private boolean isEmpty(int slot) {
+        int offset = slot * SLOT;
+        return slots.getLong(offset) == 0L && slots.getLong(offset + 8) == 0L;
+    }
+
+    private void copySlot(int from, int to) {
+        int src = from * SLOT;
+        int dst = to * SLOT;
+        slots.putLong(dst, slots.getLong(src));
+        slots.putLong(dst + 8, slots.getLong(src + 8));
+        slots.putLong(dst + SECONDS, slots.getLong(src + SECONDS));
+    }
+
+    private void clearSlot(int slot) {
+        int offset = slot * SLOT;
+        slots.putLong(offset, 0L);
+        slots.putLong(offset + 8, 0L);
+        slots.putLong(offset + SECONDS, 0L);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity * SLOT) : ByteBuffer.allocate(capacity * SLOT);
+    }
+
+    /**
+     * Package-private so tests can pick keys that land on chosen slots.
+     */
+    static int hash(long mostSig, long leastSig) {
+        long h = mostSig * 0x9E3779B97F4A7C15L ^ leastSig;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,108 @@
+package me.codex.elections.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable, case-insensitive prefix index over a set of names. Names are kept sorted by their
+ * lowercase form, so a lookup is one binary search plus a scan over the matches. Updates return
+ * a new index, which lets readers on other threads use it without locking.
+ */
+public final class PrefixIndex {
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final String[] names;
+
+    private PrefixIndex(String[] keys, String[] names) {
+        this.keys = keys;
+        this.names = names;
+    }
+
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    public static PrefixIndex of(Collection<String> names) {
+        String[] sorted = names.stream()
+                .sorted(Comparator.comparing(PrefixIndex::key))
+                .toArray(String[]::new);
+        List<String> keys = new ArrayList<>(sorted.length);
+        List<String> kept = new ArrayList<>(sorted.length);
+        for (String name : sorted) {
+            String key = key(name);
+            if (keys.isEmpty() || !keys.get(keys.size() - 1).equals(key)) {
+                keys.add(key);
+                kept.add(name);
+            }
+        }
+        return kept.isEmpty() ? EMPTY : new PrefixIndex(keys.toArray(new String[0]), kept.toArray(new String[0]));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return a copy containing {@code name}, or this index if an equal name is already present
+     */
+    public PrefixIndex with(String name) {
+        String key = key(name);
+        int at = Arrays.binarySearch(keys, key);
+        if (at >= 0) {
+            if (names[at].equals(name)) {
+                return this;
+            }
+            String[] renamed = names.clone();
+            renamed[at] = name;
+            return new PrefixIndex(keys, renamed);
+        }
+        int insert = -at - 1;
+        String[] newKeys = new String[keys.length + 1];
+        String[] newNames = new String[names.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insert);
+        System.arraycopy(names, 0, newNames, 0, insert);
+        newKeys[insert] = key;
+        newNames[insert] = name;
+        System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+        System.arraycopy(names, insert, newNames, insert + 1, names.length - insert);
+        return new PrefixIndex(newKeys, newNames);
+    }
+
+    public PrefixIndex without(String name) {
+        int at = Arrays.binarySearch(keys, key(name));
+        if (at < 0) {
+            return this;
+        }
+        String[] newKeys = new String[keys.length - 1];
+        String[] newNames = new String[names.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, at);
+        System.arraycopy(names, 0, newNames, 0, at);
+        System.arraycopy(keys, at + 1, newKeys, at, keys.length - at - 1);
+        System.arraycopy(names, at + 1, newNames, at, names.length - at - 1);
+        return new PrefixIndex(newKeys, newNames);
+    }
+
+    /**
+     * @return up to {@code limit} names starting with {@code prefix}, ignoring case, in sorted order
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = key(prefix);
+        int at = Arrays.binarySearch(keys, key);
+        int from = at >= 0 ? at : -at - 1;
+        List<String> matches = new ArrayList<>();
+        for (int i = from; i < keys.length && matches.size() < limit && keys[i].startsWith(key); i++) {
+            matches.add(names[i]);
+        }
+        return matches;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,58 @@
+package me.codex.elections.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ElectionCopyTest {
+
+    private static final UUID ALICE = new UUID(1L, 1L);
+    private static final UUID BOB = new UUID(1L, 2L);
+    private static final UUID CAROL = new UUID(1L, 3L);
+    private static final UUID DAVE = new UUID(2L, 1L);
+    private static final UUID ERIN = new UUID(2L, 2L);
+
+    @Test
+    void rankedCopyKeepsBallotsAndIgnoresLaterChanges() {
+        Election election = new Election("Council", Instant.now().plusSeconds(3600), Election.Type.REGULAR,
+                Election.Method.SINGLE_TRANSFERABLE_VOTE, 2);
+        election.setNominees(List.of(ALICE, BOB, CAROL));
+        election.castRanking(DAVE, List.of(BOB, ALICE));
+        election.castVote(ERIN, CAROL);
+        election.recordNomination(DAVE, ALICE);
+        election.incrementVoteChange(DAVE);
+
+        Election copy = election.copy();
+        election.castRanking(DAVE, List.of(CAROL));
+        election.recordNomination(DAVE, BOB);
+        election.incrementVoteChange(DAVE);
+        election.removeNominee(CAROL);
+
+        assertEquals(Map.of(DAVE, BOB, ERIN, CAROL), Map.copyOf(copy.getVotes()));
+        assertEquals(Map.of(DAVE, List.of(BOB, ALICE)), copy.getRankings());
+        assertEquals(Map.of(DAVE, Set.of(ALICE)), copy.getNominationsBy());
+        assertEquals(Map.of(DAVE, 1), Map.copyOf(copy.getVoteChanges()));
+        assertEquals(Set.of(ALICE, BOB, CAROL), copy.getNominees());
+    }
+
+    @Test
+    void scoreCopyKeepsMarks() {
+        Election election = new Election("Mayor", Instant.now().plusSeconds(3600), Election.Type.REGULAR,
+                Election.Method.SCORE, 1);
+        election.setNominees(List.of(ALICE, BOB));
+        election.castMarks(DAVE, Map.of(ALICE, 4, BOB, 1));
+
+        Election copy = election.copy();
+        election.castMarks(DAVE, Map.of(BOB, 5));
+        election.castMarks(ERIN, Map.of(ALICE, 2));
+
+        assertEquals(Map.of(DAVE, Map.of(ALICE, 4, BOB, 1)), copy.getAllMarks());
+        assertEquals(4L, copy.getVoteCount(ALICE));
+    }
+}
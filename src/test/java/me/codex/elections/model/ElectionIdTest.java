@@ -0,0 +1,24 @@
+package me.codex.elections.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElectionIdTest {
+
+    @Test
+    void idCollapsesPunctuationAndCase() {
+        assertEquals("town-council-ashford", Election.idFor("Town Council (Ashford)", Election.Type.REGULAR));
+        assertEquals("no-confidence-judge", Election.idFor("Judge", Election.Type.NO_CONFIDENCE));
+    }
+
+    @Test
+    void rolesThatWouldTakeANoConfidenceIdAreReserved() {
+        assertTrue(Election.isReservedRole("No Confidence Judge"));
+        assertTrue(Election.isReservedRole("no_confidence: judge"));
+        assertFalse(Election.isReservedRole("No Confidence"));
+        assertFalse(Election.isReservedRole("Judge"));
+    }
+}
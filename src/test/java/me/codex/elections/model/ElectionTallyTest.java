@@ -0,0 +1,76 @@
+package me.codex.elections.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ElectionTallyTest {
+
+    private static final UUID ALICE = new UUID(1L, 1L);
+    private static final UUID BOB = new UUID(1L, 2L);
+    private static final UUID CAROL = new UUID(1L, 3L);
+
+    private static UUID voter(int n) {
+        return new UUID(2L, n + 1L);
+    }
+
+    private static Election election() {
+        Election election = new Election("Mayor", Instant.now().plusSeconds(3600));
+        election.setNominees(List.of(ALICE, BOB, CAROL));
+        return election;
+    }
+
+    @Test
+    void countsFollowOrderOfFirstBallot() {
+        Election election = election();
+        election.castVote(voter(0), CAROL);
+        election.castVote(voter(1), ALICE);
+        election.castVote(voter(2), CAROL);
+
+        assertEquals(List.of(CAROL, ALICE), List.copyOf(election.getVoteCounts().keySet()));
+        assertEquals(Map.of(CAROL, 2L, ALICE, 1L), election.getVoteCounts());
+        assertEquals(List.of(CAROL), election.getLeaders());
+    }
+
+    @Test
+    void candidateLeavesCountsWhenLastBallotMovesAndRejoinsAtTheEnd() {
+        Election election = election();
+        election.castVote(voter(0), ALICE);
+        election.castVote(voter(1), BOB);
+        election.castVote(voter(2), CAROL);
+
+        election.castVote(voter(0), BOB);
+        assertEquals(List.of(BOB, CAROL), List.copyOf(election.getVoteCounts().keySet()));
+        assertEquals(List.of(BOB), election.getLeaders());
+
+        election.castVote(voter(3), ALICE);
+        assertEquals(List.of(BOB, CAROL, ALICE), List.copyOf(election.getVoteCounts().keySet()));
+    }
+
+    @Test
+    void tiedLeadersKeepFirstBallotOrder() {
+        Election election = election();
+        election.castVote(voter(0), BOB);
+        election.castVote(voter(1), ALICE);
+
+        assertEquals(List.of(BOB, ALICE), election.getLeaders());
+    }
+
+    @Test
+    void riggingLeavesOnlyTheRiggedCandidate() {
+        Election election = election();
+        election.castVote(voter(0), ALICE);
+        election.castVote(voter(1), BOB);
+
+        election.rigVotes(CAROL);
+        assertEquals(Map.of(CAROL, 2L), election.getVoteCounts());
+
+        election.castVote(voter(1), BOB);
+        assertEquals(List.of(CAROL, BOB), List.copyOf(election.getVoteCounts().keySet()));
+    }
+}
@@ -0,0 +1,41 @@
+package me.codex.elections.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParticipantIdsTest {
+
+    @Test
+    void idsAreDenseAndSurviveGrowth() {
+        ParticipantIds ids = new ParticipantIds();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, ids.intern(new UUID(i % 7, i)));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            UUID player = new UUID(i % 7, i);
+            assertEquals(i, ids.find(player));
+            assertEquals(i, ids.intern(player));
+            assertEquals(player, ids.uuid(i));
+        }
+        assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    void unknownPlayersAreNotFound() {
+        ParticipantIds ids = new ParticipantIds();
+        ids.intern(new UUID(1L, 1L));
+        assertEquals(-1, ids.find(new UUID(1L, 2L)));
+        assertEquals(-1, ids.find("not a uuid"));
+        assertEquals(-1, ids.find(null));
+    }
+
+    @Test
+    void nilUuidIsAnOrdinaryId() {
+        ParticipantIds ids = new ParticipantIds();
+        assertEquals(0, ids.intern(new UUID(0L, 0L)));
+        assertEquals(0, ids.find(new UUID(0L, 0L)));
+    }
+}
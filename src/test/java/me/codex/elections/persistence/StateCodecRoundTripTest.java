@@ -0,0 +1,116 @@
+package me.codex.elections.persistence;
+
+import me.codex.elections.model.Election;
+import me.codex.elections.util.PlaytimeTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StateCodecRoundTripTest {
+
+    private static final UUID ALICE = new UUID(1L, 1L);
+    private static final UUID BOB = new UUID(1L, 2L);
+    private static final UUID CAROL = new UUID(1L, 3L);
+    private static final UUID DAVE = new UUID(2L, 1L);
+    private static final UUID ERIN = new UUID(2L, 2L);
+
+    @TempDir
+    File dir;
+
+    private final StateCodec yaml = new YamlStateCodec();
+    private final StateCodec binary = new BinaryStateCodec();
+
+    @Test
+    void yamlRoundTrip() throws IOException {
+        StateSnapshot original = snapshot();
+        assertSameState(original, roundTrip(yaml, original));
+    }
+
+    @Test
+    void binaryRoundTrip() throws IOException {
+        StateSnapshot original = snapshot();
+        assertSameState(original, roundTrip(binary, original));
+    }
+
+    @Test
+    void yamlToBinaryAndBack() throws IOException {
+        StateSnapshot original = snapshot();
+        StateSnapshot converted = roundTrip(yaml, roundTrip(binary, roundTrip(yaml, original)));
+        assertSameState(original, converted);
+    }
+
+    @Test
+    void binaryToYamlAndBack() throws IOException {
+        StateSnapshot original = snapshot();
+        StateSnapshot converted = roundTrip(binary, roundTrip(yaml, roundTrip(binary, original)));
+        assertSameState(original, converted);
+    }
+
+    private StateSnapshot roundTrip(StateCodec codec, StateSnapshot snapshot) throws IOException {
+        File file = new File(dir, codec.fileName());
+        codec.write(file, snapshot);
+        return codec.read(file);
+    }
+
+    /**
+     * One ranked and one score election with a ballot of every kind, a held office, playtime
+     * and a queued command. Instants are whole milliseconds, which is what both formats keep.
+     */
+    private static StateSnapshot snapshot() {
+        Instant started = Instant.ofEpochMilli(1_700_000_000_000L);
+        Instant ends = Instant.ofEpochMilli(1_700_086_400_000L);
+
+        Map<UUID, List<UUID>> rankings = new HashMap<>();
+        rankings.put(DAVE, List.of(BOB, ALICE, CAROL));
+        rankings.put(ERIN, List.of(CAROL, BOB));
+        StateSnapshot.ElectionState council = new StateSnapshot.ElectionState("Council",
+                Election.Type.REGULAR, Election.Method.SINGLE_TRANSFERABLE_VOTE, 2, Election.Status.FINISHED,
+                started, ends, List.of(ALICE, BOB, CAROL), Map.of(DAVE, BOB, ERIN, CAROL), rankings, Map.of(),
+                Map.of(ALICE, "Lower taxes"), Map.of(DAVE, 1), Map.of(DAVE, Set.of(ALICE, BOB)),
+                List.of(BOB, CAROL), true, false);
+
+        Map<UUID, Integer> daveMarks = new LinkedHashMap<>();
+        daveMarks.put(ALICE, 5);
+        daveMarks.put(BOB, 0);
+        Map<UUID, Map<UUID, Integer>> marks = new HashMap<>();
+        marks.put(DAVE, daveMarks);
+        marks.put(ERIN, Map.of(BOB, 3));
+        StateSnapshot.ElectionState mayor = new StateSnapshot.ElectionState("Mayor",
+                Election.Type.REGULAR, Election.Method.SCORE, 1, Election.Status.ACTIVE,
+                started, ends, List.of(ALICE, BOB), Map.of(DAVE, ALICE, ERIN, BOB), Map.of(), marks,
+                Map.of(), Map.of(), Map.of(), List.of(), false, false);
+
+        PlaytimeTable playtime = new PlaytimeTable(16, false);
+        playtime.put(DAVE, 7_200, 19_700);
+        playtime.put(ERIN, 45, 19_701);
+
+        return new StateSnapshot(Map.of("Council", List.of(BOB, CAROL)), 7L, List.of(council, mayor), playtime,
+                List.of(new StateSnapshot.QueuedCommand(3L, "lp user Bob parent add council")));
+    }
+
+    private static void assertSameState(StateSnapshot expected, StateSnapshot actual) {
+        assertEquals(expected.offices(), actual.offices());
+        assertEquals(expected.journalGeneration(), actual.journalGeneration());
+        assertEquals(expected.elections(), actual.elections());
+        assertEquals(playtime(expected.playtime()), playtime(actual.playtime()));
+        assertEquals(expected.outbox(), actual.outbox());
+    }
+
+    private static Map<UUID, List<Integer>> playtime(PlaytimeTable table) {
+        Map<UUID, List<Integer>> entries = new HashMap<>();
+        table.forEach((mostSig, leastSig, seconds, day) ->
+                entries.put(new UUID(mostSig, leastSig), List.of(seconds, day)));
+        return entries;
+    }
+}
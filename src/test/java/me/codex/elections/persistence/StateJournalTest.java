@@ -0,0 +1,217 @@
+package me.codex.elections.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateJournalTest {
+
+    private static final Logger LOGGER = Logger.getLogger("StateJournalTest");
+    private static final UUID CANDIDATE = new UUID(9L, 9L);
+
+    static {
+        LOGGER.setLevel(Level.OFF);
+    }
+
+    @TempDir
+    File dir;
+
+    @Test
+    void replaysEveryRecord() {
+        long generation = writeVotes(3);
+        assertEquals(List.of(voter(0), voter(1), voter(2)), replay(generation));
+    }
+
+    @Test
+    void tornLastRecordIsIgnored() throws IOException {
+        long generation = writeVotes(3);
+        File file = new File(dir, "state.journal");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        assertEquals(List.of(voter(0), voter(1)), replay(generation));
+    }
+
+    @Test
+    void recordCutInsideItsLengthIsIgnored() throws IOException {
+        long generation = writeVotes(2);
+        File file = new File(dir, "state.journal");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - recordLength() + 2);
+        }
+        assertEquals(List.of(voter(0)), replay(generation));
+    }
+
+    @Test
+    void badChecksumOnLastRecordStopsReplay() throws IOException {
+        long generation = writeVotes(3);
+        flipByte(new File(dir, "state.journal"), -1);
+        assertEquals(List.of(voter(0), voter(1)), replay(generation));
+    }
+
+    @Test
+    void corruptPayloadStopsReplayAtThatRecord() throws IOException {
+        long generation = writeVotes(3);
+        // The middle of the second of three records.
+        flipByte(new File(dir, "state.journal"), -recordLength() - recordLength() / 2);
+        assertEquals(List.of(voter(0)), replay(generation));
+    }
+
+    @Test
+    void olderGenerationsAreSkipped() {
+        long generation = writeVotes(2);
+        assertEquals(List.of(), replay(generation + 1));
+    }
+
+    @Test
+    void previousFileOutlivesAFailedSave() {
+        StateJournal journal = new StateJournal(dir, 1_000L, LOGGER);
+        long generation = journal.rotate();
+        journal.appendVote("mayor", voter(0), CANDIDATE, 1);
+        journal.rotate();
+        journal.appendVote("mayor", voter(1), CANDIDATE, 1);
+        // The snapshot from the second rotation was never written.
+        journal.rotate();
+        journal.appendVote("mayor", voter(2), CANDIDATE, 1);
+        journal.close();
+
+        assertEquals(List.of(voter(0), voter(1), voter(2)), replay(generation));
+    }
+
+    @Test
+    void committedSnapshotReleasesThePreviousFile() {
+        StateJournal journal = new StateJournal(dir, 1_000L, LOGGER);
+        long generation = journal.rotate();
+        journal.appendVote("mayor", voter(0), CANDIDATE, 1);
+        journal.committed(journal.rotate());
+        journal.appendVote("mayor", voter(1), CANDIDATE, 1);
+        journal.rotate();
+        journal.appendVote("mayor", voter(2), CANDIDATE, 1);
+        journal.close();
+
+        assertEquals(List.of(voter(1), voter(2)), replay(generation));
+    }
+
+    @Test
+    void interruptedMergeIsReplayedOnce() throws IOException {
+        long generation = writeVotes(2);
+        File live = new File(dir, "state.journal");
+        File previous = new File(dir, "state.journal.prev");
+        // The old previous file, still in place next to the merged one that replaced the live file.
+        Files.copy(live.toPath(), previous.toPath());
+        try (RandomAccessFile raf = new RandomAccessFile(previous, "rw")) {
+            raf.setLength(raf.length() - recordLength());
+        }
+        assertEquals(List.of(voter(0), voter(1)), replay(generation));
+    }
+
+    @Test
+    void discardRemovesBothFiles() {
+        writeVotes(1);
+        StateJournal journal = new StateJournal(dir, 1_000L, LOGGER);
+        journal.rotate();
+        journal.close();
+        assertTrue(new File(dir, "state.journal.prev").exists());
+        assertTrue(StateJournal.exists(dir));
+
+        StateJournal.discard(dir, LOGGER);
+        assertFalse(StateJournal.exists(dir));
+        assertFalse(new File(dir, "state.journal.prev").exists());
+    }
+
+    private static UUID voter(int n) {
+        return new UUID(1L, n + 1L);
+    }
+
+    /**
+     * Starts a journal, appends {@code count} votes and closes it.
+     *
+     * @return the generation the records were written under
+     */
+    private long writeVotes(int count) {
+        StateJournal journal = new StateJournal(dir, 1_000L, LOGGER);
+        long generation = journal.rotate();
+        for (int i = 0; i < count; i++) {
+            journal.appendVote("mayor", voter(i), CANDIDATE, 1);
+        }
+        journal.close();
+        return generation;
+    }
+
+    /**
+     * Bytes one vote record takes: type, length, id, voter, candidate, changes and checksum.
+     */
+    private static int recordLength() {
+        return 1 + 4 + (2 + "mayor".length()) + 16 + 16 + 4 + 4;
+    }
+
+    private static void flipByte(File file, long fromEnd) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long position = raf.length() + fromEnd;
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+    }
+
+    private List<UUID> replay(long snapshotGeneration) {
+        List<UUID> voters = new ArrayList<>();
+        new StateJournal(dir, 1_000L, LOGGER).replay(snapshotGeneration, new StateJournal.Handler() {
+            @Override
+            public void onVote(String election, UUID voter, UUID candidate, int changes) {
+                assertEquals("mayor", election);
+                assertEquals(CANDIDATE, candidate);
+                voters.add(voter);
+            }
+
+            @Override
+            public void onRanking(String election, UUID voter, List<UUID> ranking, int changes) {
+            }
+
+            @Override
+            public void onMarks(String election, UUID voter, Map<UUID, Integer> marks, int changes) {
+            }
+
+            @Override
+            public void onNominate(String election, UUID nominee, UUID nominator) {
+            }
+
+            @Override
+            public void onUnnominate(String election, UUID nominee) {
+            }
+
+            @Override
+            public void onPlatform(String election, UUID nominee, String platform) {
+            }
+
+            @Override
+            public void onConclude(String election, List<UUID> winners, boolean commandsRan, boolean announced,
+                                   List<UUID> holders, String role, List<StateSnapshot.QueuedCommand> queued) {
+            }
+
+            @Override
+            public void onActivity(UUID player, int seconds) {
+            }
+
+            @Override
+            public void onCommandDone(long id) {
+            }
+        });
+        return voters;
+    }
+}
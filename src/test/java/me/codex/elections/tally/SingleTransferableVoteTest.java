@@ -0,0 +1,107 @@
+package me.codex.elections.tally;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleTransferableVoteTest {
+
+    private static UUID candidate(int n) {
+        return new UUID(0L, n + 1L);
+    }
+
+    private static List<UUID> candidates(int count) {
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = candidate(i);
+        }
+        return List.of(ids);
+    }
+
+    private static void add(BallotBox.Builder box, int copies, int... ranking) {
+        for (int i = 0; i < copies; i++) {
+            box.add(ranking, ranking.length);
+        }
+    }
+
+    /**
+     * The Tennessee capital example: Memphis leads on first preferences but Knoxville wins
+     * once Chattanooga and then Nashville are excluded.
+     */
+    @Test
+    void instantRunoffTransfersUntilMajority() {
+        int memphis = 0, nashville = 1, chattanooga = 2, knoxville = 3;
+        BallotBox.Builder box = new BallotBox.Builder(candidates(4), 100);
+        add(box, 42, memphis, nashville, chattanooga, knoxville);
+        add(box, 26, nashville, chattanooga, knoxville, memphis);
+        add(box, 15, chattanooga, knoxville, nashville, memphis);
+        add(box, 17, knoxville, chattanooga, nashville, memphis);
+
+        TallyResult result = InstantRunoff.INSTANCE.count(box.build(), 1);
+
+        assertEquals(List.of(candidate(knoxville)), result.elected());
+        assertEquals(3, result.rounds());
+        assertFalse(result.isTie());
+    }
+
+    /**
+     * The party food example: 20 ballots, 3 seats, Droop quota 6. Chocolate's surplus splits
+     * between strawberry and bonbon at half value, pear's exclusion elects orange, and bonbon's
+     * exclusion leaves strawberry as the last continuing candidate.
+     */
+    @Test
+    void stvElectsWithFractionalSurplus() {
+        int orange = 0, pear = 1, chocolate = 2, strawberry = 3, bonbon = 4;
+        BallotBox.Builder box = new BallotBox.Builder(candidates(5), 20);
+        add(box, 4, orange);
+        add(box, 2, pear, orange);
+        add(box, 8, chocolate, strawberry);
+        add(box, 4, chocolate, bonbon);
+        add(box, 1, strawberry);
+        add(box, 1, bonbon);
+
+        TallyResult result = SingleTransferableVote.INSTANCE.count(box.build(), 3);
+
+        assertEquals(List.of(candidate(chocolate), candidate(orange), candidate(strawberry)), result.elected());
+        assertFalse(result.isTie());
+    }
+
+    @Test
+    void exactTieForLastSeatIsReportedAndGoesToEarlierNominee() {
+        BallotBox.Builder box = new BallotBox.Builder(candidates(2), 4);
+        add(box, 2, 0);
+        add(box, 2, 1);
+
+        TallyResult result = InstantRunoff.INSTANCE.count(box.build(), 1);
+
+        assertEquals(List.of(candidate(0)), result.elected());
+        assertTrue(result.isTie());
+        assertEquals(Set.of(candidate(0), candidate(1)), Set.copyOf(result.tied()));
+    }
+
+    /**
+     * B and C both hold 3 votes once D is excluded, but B had fewer first preferences, so B
+     * goes next and carries C past the quota. Excluding C instead would elect A.
+     */
+    @Test
+    void exclusionTieFallsOnFewerFirstPreferences() {
+        int a = 0, b = 1, c = 2, d = 3;
+        BallotBox.Builder box = new BallotBox.Builder(candidates(4), 11);
+        add(box, 5, a);
+        add(box, 2, b, c);
+        add(box, 3, c, a);
+        add(box, 1, d, b, c);
+
+        TallyResult result = InstantRunoff.INSTANCE.count(box.build(), 1);
+
+        assertEquals(List.of(candidate(c)), result.elected());
+        assertEquals(3, result.rounds());
+        assertFalse(result.isTie());
+    }
+}
@@ -0,0 +1,120 @@
+package me.codex.elections.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaytimeTableTest {
+
+    /** A table made for one entry has 16 slots. */
+    private static final int MASK = 15;
+    private static final int OLD = 1;
+    private static final int RECENT = 10;
+
+    /**
+     * @return {@code count} distinct ids whose probe sequence starts at {@code home}
+     */
+    private static List<UUID> keysWithHome(int home, int count, long seed) {
+        List<UUID> keys = new ArrayList<>(count);
+        for (long n = 1; keys.size() < count; n++) {
+            if ((PlaytimeTable.hash(seed, n) & MASK) == home) {
+                keys.add(new UUID(seed, n));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Three ids homed on the last slot wrap into slots 0 and 1, pushing an id homed on 0 to
+     * slot 2 and one homed on 1 to slot 3.
+     */
+    private static List<UUID> wrappedCluster() {
+        List<UUID> keys = new ArrayList<>(keysWithHome(MASK, 3, 1L));
+        keys.addAll(keysWithHome(0, 1, 2L));
+        keys.addAll(keysWithHome(1, 1, 3L));
+        return keys;
+    }
+
+    private static PlaytimeTable fill(List<UUID> keys, int... days) {
+        PlaytimeTable table = new PlaytimeTable(1, false);
+        for (int i = 0; i < keys.size(); i++) {
+            table.put(keys.get(i), 100 + i, days[i]);
+        }
+        return table;
+    }
+
+    private static void assertHolds(PlaytimeTable table, List<UUID> keys, boolean... kept) {
+        int expected = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(kept[i] ? 100 + i : 0, table.get(keys.get(i)), "entry " + i);
+            expected += kept[i] ? 1 : 0;
+        }
+        assertEquals(expected, table.size());
+        int[] visited = new int[1];
+        table.forEach((mostSig, leastSig, seconds, day) -> visited[0]++);
+        assertEquals(expected, visited[0]);
+    }
+
+    @Test
+    void evictingLastSlotShiftsWrappedEntriesBack() {
+        List<UUID> keys = wrappedCluster();
+        PlaytimeTable table = fill(keys, OLD, RECENT, RECENT, RECENT, RECENT);
+
+        assertEquals(1, table.evictBefore(5));
+        assertHolds(table, keys, false, true, true, true, true);
+    }
+
+    @Test
+    void evictingWrappedEntryKeepsItsHomeCluster() {
+        List<UUID> keys = wrappedCluster();
+        PlaytimeTable table = fill(keys, RECENT, OLD, RECENT, RECENT, RECENT);
+
+        assertEquals(1, table.evictBefore(5));
+        assertHolds(table, keys, true, false, true, true, true);
+    }
+
+    @Test
+    void evictingWholeWrappedClusterKeepsEntriesBehindIt() {
+        List<UUID> keys = wrappedCluster();
+        PlaytimeTable table = fill(keys, OLD, OLD, OLD, RECENT, RECENT);
+
+        assertEquals(3, table.evictBefore(5));
+        assertHolds(table, keys, false, false, false, true, true);
+    }
+
+    @Test
+    void evictingEntryShiftedPastTheWrap() {
+        List<UUID> keys = wrappedCluster();
+        PlaytimeTable table = fill(keys, RECENT, RECENT, RECENT, OLD, OLD);
+
+        assertEquals(2, table.evictBefore(5));
+        assertHolds(table, keys, true, true, true, false, false);
+    }
+
+    @Test
+    void putAfterEvictionUpdatesInsteadOfDuplicating() {
+        List<UUID> keys = wrappedCluster();
+        PlaytimeTable table = fill(keys, OLD, RECENT, RECENT, RECENT, RECENT);
+        table.evictBefore(5);
+
+        for (int i = 1; i < keys.size(); i++) {
+            table.put(keys.get(i), 100 + i, RECENT);
+        }
+        assertHolds(table, keys, false, true, true, true, true);
+    }
+
+    @Test
+    void copyIsDetached() {
+        List<UUID> keys = wrappedCluster();
+        PlaytimeTable table = fill(keys, RECENT, RECENT, RECENT, RECENT, RECENT);
+        PlaytimeTable copy = table.copy();
+
+        table.evictBefore(RECENT + 1);
+        assertEquals(0, table.size());
+        assertHolds(copy, keys, true, true, true, true, true);
+    }
+}